@@ -0,0 +1,15 @@
+#!/bin/sh
+# Первый запуск поднимает приложение и делает checkpoint сразу после refresh контекста,
+# последующие запуски восстанавливаются из него. Контейнеру нужны права
+# --cap-add CHECKPOINT_RESTORE --cap-add SYS_PTRACE и volume для /t1/crac.
+set -e
+
+CHECKPOINT_DIR=/t1/crac
+
+if ls "$CHECKPOINT_DIR"/*.img >/dev/null 2>&1; then
+    exec java -XX:CRaCRestoreFrom="$CHECKPOINT_DIR"
+fi
+
+mkdir -p "$CHECKPOINT_DIR"
+java -XX:CRaCCheckpointTo="$CHECKPOINT_DIR" -Dspring.context.checkpoint=onRefresh -jar security-1.0.0.jar || true
+exec java -XX:CRaCRestoreFrom="$CHECKPOINT_DIR"
@@ -0,0 +1,18 @@
+#!/bin/sh
+# Замер времени до первого ответа: запускает образ и опрашивает сервис, пока тот не ответит.
+# Использование: docker/measure-startup.sh <image> [docker run options...]
+set -e
+
+IMAGE=$1
+shift
+
+START=$(date +%s%N)
+CONTAINER=$(docker run -d --rm -p 8080:8080 "$@" "$IMAGE")
+trap 'docker stop "$CONTAINER" >/dev/null' EXIT
+
+until curl -s -o /dev/null http://localhost:8080/v3/api-docs; do
+    sleep 0.05
+done
+
+END=$(date +%s%N)
+echo "$IMAGE: первый ответ через $(( (END - START) / 1000000 )) мс"
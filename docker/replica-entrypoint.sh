@@ -0,0 +1,15 @@
+#!/bin/sh
+# Реплика основной БД: при пустом каталоге данных копирует ее через pg_basebackup
+# и запускается в режиме standby с потоковой репликацией.
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+    until pg_basebackup --host="$PRIMARY_HOST" --username=replicator --pgdata="$PGDATA" \
+            --wal-method=stream --write-recovery-conf; do
+        echo "Основная БД недоступна, повтор через секунду"
+        sleep 1
+    done
+    chmod 0700 "$PGDATA"
+fi
+
+exec postgres
@@ -0,0 +1,21 @@
+#!/bin/sh
+# Обучающий запуск для AppCDS: контекст поднимается до refresh и приложение завершается,
+# JVM записывает архив загруженных классов. БД при этом не нужна.
+set -e
+
+JAR=application/security-1.0.0.jar
+AOT_ARGS=""
+
+if jar tf "$JAR" | grep -q '__ApplicationContextInitializer.class'; then
+    AOT_ARGS="-Dspring.aot.enabled=true"
+fi
+
+java -XX:ArchiveClassesAtExit=application/application.jsa $AOT_ARGS \
+    -Dspring.context.exit=onRefresh \
+    -Ddatabase.migration.skip=true \
+    -Dspring.jpa.hibernate.ddl-auto=none \
+    -Dspring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect \
+    -Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false \
+    -jar "$JAR"
+
+echo "-XX:SharedArchiveFile=application/application.jsa $AOT_ARGS" > application/jvm.args
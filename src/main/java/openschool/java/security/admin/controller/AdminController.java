@@ -1,6 +1,7 @@
 package openschool.java.security.admin.controller;
 
-import org.springframework.security.access.prepost.PreAuthorize;
+import openschool.java.security.security.authorization.RequiresRole;
+import openschool.java.security.user.domain.UserRole;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -10,7 +11,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class AdminController {
 
     @GetMapping
-    @PreAuthorize("hasRole('ADMIN')")
+    @RequiresRole(UserRole.ADMIN)
     public String admin() {
         return "ВААААААААААААААУ, ты админ. Ты такой крутой";
     }
@@ -0,0 +1,14 @@
+package openschool.java.security.audit;
+
+import java.util.UUID;
+
+/**
+ * Событие аудита аутентификации.
+ *
+ * @param type             - тип события
+ * @param username         - имя пользователя
+ * @param userId           - идентификатор пользователя или null, если пользователь не найден
+ * @param occurredAtMillis - время события в миллисекундах эпохи
+ */
+public record AuditEvent(AuditEventType type, String username, UUID userId, long occurredAtMillis) {
+}
@@ -0,0 +1,26 @@
+package openschool.java.security.audit;
+
+/**
+ * Тип события аудита аутентификации.
+ */
+public enum AuditEventType {
+    /**
+     * Успешный вход.
+     */
+    LOGIN_SUCCESS,
+
+    /**
+     * Неудачный вход: пользователь не найден или пароль неверен.
+     */
+    LOGIN_FAILURE,
+
+    /**
+     * Регистрация пользователя.
+     */
+    REGISTRATION,
+
+    /**
+     * Обновление токенов по refresh токену.
+     */
+    REFRESH
+}
@@ -0,0 +1,58 @@
+package openschool.java.security.audit;
+
+import openschool.java.security.database.TimeOrderedUuidGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Запись событий аудита в таблицу {@code auth_audit_event}.
+ */
+@Repository
+public class AuditEventWriter {
+    /**
+     * Вставка события.
+     */
+    private static final String INSERT = "INSERT INTO auth_audit_event "
+            + "(id, occurred_at, event_type, username, user_id) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Клиент JDBC.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Шаблон отдельной транзакции: запись не должна зависеть от транзакции запроса, в том числе только для чтения.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    public AuditEventWriter(final JdbcTemplate jdbcTemplate, final PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Вставить события одним пакетом в одной транзакции.
+     *
+     * @param events - события
+     */
+    public void write(final List<AuditEvent> events) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, events, events.size(),
+                (statement, event) -> {
+                    statement.setObject(1, TimeOrderedUuidGenerator.next());
+                    statement.setObject(2, OffsetDateTime.ofInstant(
+                            Instant.ofEpochMilli(event.occurredAtMillis()), ZoneOffset.UTC));
+                    statement.setString(3, event.type().name());
+                    statement.setString(4, event.username());
+                    statement.setObject(5, event.userId());
+                }));
+    }
+}
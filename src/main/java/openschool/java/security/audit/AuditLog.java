@@ -0,0 +1,306 @@
+package openschool.java.security.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронный журнал аудита аутентификации.
+ * <p>
+ * Поток запроса только кладет событие в {@link AuditRingBuffer}. Фоновый поток забирает события пакетами
+ * по {@code audit.batch-size} и вставляет их одной пакетной вставкой; неполный пакет записывается не позже
+ * чем через {@code audit.flush-interval-millis}. При ошибке записи пакет повторяется; после
+ * {@code audit.max-batch-attempts} неудачных попыток события пишутся по одному, и событие, которое БД отвергает,
+ * отбрасывается в журнал приложения, а не блокирует запись остальных.
+ * При заполненном буфере событие отбрасывается или записывается в потоке запроса - по {@code audit.overflow-policy}.
+ * При остановке приложения буфер записывается целиком.
+ */
+@Slf4j
+@Service
+public class AuditLog {
+    /**
+     * Максимальное время ожидания фонового потока при остановке в миллисекундах.
+     */
+    private static final long STOP_TIMEOUT_MILLIS = 5_000;
+
+    /**
+     * Длина столбца {@code username}: более длинное имя обрезается, иначе вставка события будет отвергнута.
+     */
+    static final int USERNAME_MAX_LENGTH = 255;
+
+    /**
+     * Буфер событий.
+     */
+    private final AuditRingBuffer<AuditEvent> buffer;
+
+    /**
+     * Запись событий в БД.
+     */
+    private final AuditEventWriter writer;
+
+    /**
+     * Максимальное число событий в пакете.
+     */
+    private final int batchSize;
+
+    /**
+     * Максимальное время ожидания неполного пакета в наносекундах.
+     */
+    private final long flushIntervalNanos;
+
+    /**
+     * Поведение при заполненном буфере.
+     */
+    private final AuditProperties.OverflowPolicy overflowPolicy;
+
+    /**
+     * Число неудачных попыток записи пакета, после которого события пишутся по одному.
+     */
+    private final int maxBatchAttempts;
+
+    /**
+     * Пакет, забранный из буфера и еще не записанный. Меняется только фоновым потоком, а после его остановки -
+     * потоком остановки.
+     */
+    private final List<AuditEvent> pending;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Counter synchronousCounter;
+    private final Counter deadLetterCounter;
+
+    /**
+     * Число неудачных попыток записи текущего пакета. Меняется только фоновым потоком.
+     */
+    private int failedAttempts;
+
+    /**
+     * Фоновый поток записи.
+     */
+    private volatile Thread thread;
+
+    /**
+     * Работает ли фоновый поток.
+     */
+    private volatile boolean running;
+
+    public AuditLog(final AuditEventWriter writer,
+                    final AuditProperties properties,
+                    final MeterRegistry meterRegistry) {
+        this.buffer = new AuditRingBuffer<>(properties.capacity());
+        this.writer = writer;
+        this.batchSize = properties.batchSize();
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.flushIntervalMillis());
+        this.overflowPolicy = properties.overflowPolicy();
+        this.maxBatchAttempts = properties.maxBatchAttempts();
+        this.pending = new ArrayList<>(batchSize);
+        this.writtenCounter = counter(meterRegistry, "written");
+        this.droppedCounter = counter(meterRegistry, "dropped");
+        this.failedCounter = counter(meterRegistry, "failed");
+        this.synchronousCounter = counter(meterRegistry, "synchronous");
+        this.deadLetterCounter = counter(meterRegistry, "dead_letter");
+        Gauge.builder("audit.buffer.size", buffer, AuditRingBuffer::size)
+                .description("Число событий аудита, ожидающих записи")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Записать событие аудита.
+     *
+     * @param type     - тип события
+     * @param username - имя пользователя, обрезается до {@value #USERNAME_MAX_LENGTH} символов
+     * @param userId   - идентификатор пользователя или null, если пользователь не найден
+     */
+    public void record(final AuditEventType type, final String username, final UUID userId) {
+        AuditEvent event = new AuditEvent(type, truncate(username), userId, System.currentTimeMillis());
+        if (buffer.offer(event)) {
+            if (buffer.size() == batchSize) {
+                LockSupport.unpark(thread);
+            }
+            return;
+        }
+
+        if (overflowPolicy == AuditProperties.OverflowPolicy.SYNCHRONOUS) {
+            synchronousCounter.increment();
+            write(List.of(event));
+        } else {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Запустить фоновый поток записи после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform()
+                .name("audit-writer")
+                .daemon()
+                .start(this::run);
+    }
+
+    /**
+     * Остановить фоновый поток и записать оставшиеся события.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+            try {
+                current.join(STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            if (current.isAlive()) {
+                log.warn("Поток записи аудита не остановился за {} мс", STOP_TIMEOUT_MILLIS);
+                return;
+            }
+        }
+        do {
+            buffer.drainTo(pending, batchSize - pending.size());
+            if (!pending.isEmpty() && !writePending() && !writeEachPending()) {
+                log.error("При остановке не записано событий аудита: {}", pending.size() + buffer.size());
+                return;
+            }
+        } while (buffer.size() > 0);
+    }
+
+    /**
+     * Число событий, ожидающих записи.
+     *
+     * @return число событий
+     */
+    int backlog() {
+        return buffer.size();
+    }
+
+    /**
+     * Цикл фонового потока: собрать пакет до заполнения или истечения интервала и записать его.
+     */
+    private void run() {
+        long deadline = 0;
+        while (running) {
+            buffer.drainTo(pending, batchSize - pending.size());
+            long now = System.nanoTime();
+            if (pending.isEmpty()) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                continue;
+            }
+            if (deadline == 0) {
+                deadline = now + flushIntervalNanos;
+            }
+            if (pending.size() < batchSize && now - deadline < 0) {
+                LockSupport.parkNanos(this, deadline - now);
+                continue;
+            }
+            boolean written = failedAttempts < maxBatchAttempts ? writePending() : writeEachPending();
+            if (written) {
+                failedAttempts = 0;
+                deadline = 0;
+            } else {
+                failedAttempts++;
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    /**
+     * Записать ожидающий пакет одной пакетной вставкой.
+     *
+     * @return true, если пакет записан
+     */
+    private boolean writePending() {
+        if (!write(pending)) {
+            return false;
+        }
+        pending.clear();
+        return true;
+    }
+
+    /**
+     * Записать ожидающий пакет по одному событию. Событие, отвергнутое БД как некорректное, отбрасывается в журнал
+     * приложения; при другой ошибке запись прерывается, и незаписанные события остаются в пакете.
+     *
+     * @return true, если в пакете не осталось событий
+     */
+    private boolean writeEachPending() {
+        Iterator<AuditEvent> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            AuditEvent event = iterator.next();
+            try {
+                writer.write(List.of(event));
+                writtenCounter.increment();
+            } catch (DataIntegrityViolationException exception) {
+                deadLetterCounter.increment();
+                log.error("Событие аудита отвергнуто БД и не будет записано: {}: {}", event, exception.getMessage());
+            } catch (RuntimeException exception) {
+                failedCounter.increment();
+                log.warn("Не удалось записать событие аудита: {}", exception.getMessage());
+                return false;
+            }
+            iterator.remove();
+        }
+        return true;
+    }
+
+    /**
+     * Записать события.
+     *
+     * @param events - события
+     * @return true, если события записаны
+     */
+    private boolean write(final List<AuditEvent> events) {
+        try {
+            writer.write(events);
+            writtenCounter.increment(events.size());
+            return true;
+        } catch (RuntimeException exception) {
+            failedCounter.increment(events.size());
+            log.warn("Не удалось записать события аудита ({}): {}", events.size(), exception.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Обрезать имя пользователя до длины столбца.
+     *
+     * @param username - имя пользователя
+     * @return имя не длиннее {@value #USERNAME_MAX_LENGTH} символов
+     */
+    private static String truncate(final String username) {
+        return username != null && username.length() > USERNAME_MAX_LENGTH
+                ? username.substring(0, USERNAME_MAX_LENGTH)
+                : username;
+    }
+
+    /**
+     * Зарегистрировать счетчик событий аудита с исходом.
+     *
+     * @param meterRegistry - реестр метрик
+     * @param outcome       - исход
+     * @return счетчик
+     */
+    private static Counter counter(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder("audit.events")
+                .description("События аудита аутентификации по исходу записи")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package openschool.java.security.audit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Заблаговременное создание месячных секций таблицы {@code auth_audit_event}.
+ * <p>
+ * Секции создает функция БД {@code ensure_auth_audit_event_partitions}. События вне созданных секций
+ * попадают в секцию по умолчанию, поэтому пропуск обслуживания не останавливает запись аудита.
+ * Свойство {@code audit.partitioning.enabled} проверяется при каждом запуске, поэтому действует и в образе,
+ * собранном с Spring AOT.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditPartitionMaintainer {
+    /**
+     * Клиент JDBC.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Настройки аудита.
+     */
+    private final AuditProperties properties;
+
+    /**
+     * Создать секции на текущий и следующие месяцы, если секционирование включено.
+     */
+    @Scheduled(fixedDelayString = "${audit.partitioning.maintenance-interval-millis}")
+    public void ensurePartitions() {
+        if (!properties.partitioning().enabled()) {
+            return;
+        }
+        try {
+            jdbcTemplate.query("SELECT ensure_auth_audit_event_partitions(?)", resultSet -> null,
+                    properties.partitioning().monthsAhead());
+        } catch (DataAccessException exception) {
+            log.warn("Не удалось создать секции таблицы аудита: {}", exception.getMessage());
+        }
+    }
+}
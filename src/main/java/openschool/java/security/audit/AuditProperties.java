@@ -0,0 +1,47 @@
+package openschool.java.security.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки журнала аудита аутентификации.
+ *
+ * @param capacity            - емкость кольцевого буфера событий, округляется вверх до степени двойки
+ * @param batchSize           - максимальное число событий в одной пакетной вставке
+ * @param flushIntervalMillis - максимальное время ожидания неполного пакета
+ * @param maxBatchAttempts    - число неудачных попыток записи пакета, после которого события пишутся по одному
+ * @param overflowPolicy      - поведение при заполненном буфере
+ * @param partitioning        - настройки секций таблицы аудита
+ */
+@ConfigurationProperties(prefix = "audit")
+public record AuditProperties(int capacity,
+                              int batchSize,
+                              long flushIntervalMillis,
+                              int maxBatchAttempts,
+                              OverflowPolicy overflowPolicy,
+                              Partitioning partitioning) {
+
+    /**
+     * Поведение при заполненном буфере.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Отбросить событие и увеличить счетчик отброшенных.
+         */
+        DROP,
+
+        /**
+         * Записать событие в БД в потоке запроса.
+         */
+        SYNCHRONOUS
+    }
+
+    /**
+     * Настройки секций таблицы аудита.
+     *
+     * @param enabled                   - создавать ли секции заранее
+     * @param monthsAhead               - на сколько месяцев вперед создаются секции
+     * @param maintenanceIntervalMillis - период создания секций
+     */
+    public record Partitioning(boolean enabled, int monthsAhead, long maintenanceIntervalMillis) {
+    }
+}
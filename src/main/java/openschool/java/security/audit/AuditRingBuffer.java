@@ -0,0 +1,138 @@
+package openschool.java.security.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ограниченный кольцевой буфер без блокировок для многих писателей и одного читателя.
+ * <p>
+ * Каждая ячейка хранит номер последовательности: писатель занимает позицию одним CAS по хвосту и публикует
+ * элемент, сдвигая номер ячейки; читатель забирает элемент, когда номер показывает, что ячейка заполнена,
+ * и освобождает ее для следующего круга. Заполненный буфер не ждет читателя, а сразу отклоняет элемент.
+ *
+ * @param <E> - тип элементов
+ */
+final class AuditRingBuffer<E> {
+    /**
+     * Маска индекса ячейки.
+     */
+    private final int mask;
+
+    /**
+     * Элементы.
+     */
+    private final AtomicReferenceArray<E> elements;
+
+    /**
+     * Номера последовательности ячеек.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * Следующая позиция записи.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Следующая позиция чтения. Меняется только читателем.
+     */
+    private volatile long head;
+
+    AuditRingBuffer(final int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Некорректная емкость буфера " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        mask = size - 1;
+        elements = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Добавить элемент.
+     *
+     * @param element - элемент
+     * @return false, если буфер заполнен
+     */
+    boolean offer(final E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                long witness = tail.compareAndExchange(position, position + 1);
+                if (witness == position) {
+                    elements.setPlain(index, element);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = witness;
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Забрать элемент. Вызывается только читателем.
+     *
+     * @return элемент или null, если буфер пуст
+     */
+    E poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.getAcquire(index) != position + 1) {
+            return null;
+        }
+        E element = elements.getPlain(index);
+        elements.setPlain(index, null);
+        sequences.setRelease(index, position + mask + 1);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * Забрать элементы в список. Вызывается только читателем.
+     *
+     * @param target      - список для элементов
+     * @param maxElements - максимальное число элементов
+     * @return число забранных элементов
+     */
+    int drainTo(final List<? super E> target, final int maxElements) {
+        int drained = 0;
+        while (drained < maxElements) {
+            E element = poll();
+            if (element == null) {
+                break;
+            }
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Приблизительное число элементов в буфере.
+     *
+     * @return число элементов
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * Емкость буфера.
+     *
+     * @return емкость
+     */
+    int capacity() {
+        return mask + 1;
+    }
+}
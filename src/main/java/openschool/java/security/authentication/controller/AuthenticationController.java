@@ -6,11 +6,16 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import openschool.java.security.authentication.dto.AuthenticationOperationResultTo;
 import openschool.java.security.authentication.service.AuthenticationUseCase;
+import openschool.java.security.authentication.service.LogoutUseCase;
+import openschool.java.security.exception.jwt.InvalidJwtToken;
+import openschool.java.security.opaque.AccessTokenType;
 import openschool.java.security.user.dto.UserTo;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -22,39 +27,100 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 @Tag(name = "AuthenticationController", description = "Контроллер для регистрации и аутентификации")
 public class AuthenticationController {
+    /**
+     * Префикс Authorization-хедера.
+     */
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * Заголовок для выбора типа access токена: {@code jwt} или {@code opaque}.
+     */
+    private static final String ACCESS_TOKEN_TYPE_HEADER = "X-Access-Token-Type";
+
     /**
      * Use case для аутентификации пользователей.
      */
     private final AuthenticationUseCase authenticationUseCase;
 
+    /**
+     * Use case для завершения сессий.
+     */
+    private final LogoutUseCase logoutUseCase;
+
     /**
      * Запрос на регистрацию пользователя.
      *
-     * @param user - данные пользователя для регистрации
+     * @param user      - данные пользователя для регистрации
+     * @param tokenType - тип access токена
      * @return результат операции с токеном
      */
     @PostMapping("/register")
     @Operation(summary = "Запрос на регистрацию пользователя")
-    public ResponseEntity<AuthenticationOperationResultTo> register(final @Valid @RequestBody UserTo user) {
-        return authenticationUseCase.register(user);
+    public ResponseEntity<AuthenticationOperationResultTo> register(
+            final @Valid @RequestBody UserTo user,
+            @RequestHeader(value = ACCESS_TOKEN_TYPE_HEADER, required = false) String tokenType) {
+        return authenticationUseCase.register(user, AccessTokenType.fromHeader(tokenType));
     }
 
     /**
      * Запрос на аутентификацию пользователя.
      *
-     * @param user - данные пользователя для аутентификации
+     * @param user      - данные пользователя для аутентификации
+     * @param tokenType - тип access токена
      * @return результат операции с токеном
      */
     @PostMapping("/authenticate")
     @Operation(summary = "Запрос на аутентификацию пользователя")
-    public ResponseEntity<AuthenticationOperationResultTo> authenticate(final @Valid @RequestBody UserTo user) {
-        return authenticationUseCase.authenticate(user);
+    public ResponseEntity<AuthenticationOperationResultTo> authenticate(
+            final @Valid @RequestBody UserTo user,
+            @RequestHeader(value = ACCESS_TOKEN_TYPE_HEADER, required = false) String tokenType) {
+        return authenticationUseCase.authenticate(user, AccessTokenType.fromHeader(tokenType));
     }
 
     @PostMapping("/refresh")
     @Operation(summary = "Запрос на обновлнеие токена")
     public ResponseEntity<AuthenticationOperationResultTo> refresh(
-            @CookieValue("${jwt.refresh.name}") String refreshToken) {
-        return authenticationUseCase.refreshToken(refreshToken);
+            @CookieValue("${jwt.refresh.name}") String refreshToken,
+            @RequestHeader(value = ACCESS_TOKEN_TYPE_HEADER, required = false) String tokenType) {
+        return authenticationUseCase.refreshToken(refreshToken, AccessTokenType.fromHeader(tokenType));
+    }
+
+    /**
+     * Запрос на отзыв access токена.
+     *
+     * @param authorization - Authorization-хедер с access токеном
+     * @return пустой ответ
+     */
+    @PostMapping("/logout")
+    @Operation(summary = "Запрос на отзыв access токена")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        logoutUseCase.logout(extractBearerToken(authorization));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Запрос на завершение всех сессий пользователя на всех устройствах.
+     *
+     * @param authorization - Authorization-хедер с access токеном
+     * @return пустой ответ
+     */
+    @PostMapping("/logout-all")
+    @Operation(summary = "Запрос на завершение всех сессий пользователя")
+    public ResponseEntity<Void> logoutEverywhere(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        logoutUseCase.logoutEverywhere(extractBearerToken(authorization));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Извлечь токен из Authorization-хедера.
+     *
+     * @param authorization - Authorization-хедер
+     * @return токен
+     */
+    private static String extractBearerToken(final String authorization) {
+        if (!authorization.startsWith(BEARER_PREFIX)) {
+            throw new InvalidJwtToken("Некорректный JWT токен");
+        }
+        return authorization.substring(BEARER_PREFIX.length());
     }
 }
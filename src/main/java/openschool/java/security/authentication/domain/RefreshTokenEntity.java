@@ -2,12 +2,13 @@ package openschool.java.security.authentication.domain;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.UuidGenerator;
+import openschool.java.security.database.TimeOrderedUuid;
 
 import java.util.UUID;
 
@@ -16,10 +17,11 @@ import java.util.UUID;
 @AllArgsConstructor
 @Builder(toBuilder = true)
 @Entity
-@Table(name = "refresh_token_entity")
+@Table(name = "refresh_token_entity",
+        indexes = @Index(name = "idx_refresh_token_entity_user_id", columnList = "user_id"))
 public class RefreshTokenEntity {
     @Id
-    @UuidGenerator
+    @TimeOrderedUuid
     private UUID id;
     private UUID userId;
     private String value;
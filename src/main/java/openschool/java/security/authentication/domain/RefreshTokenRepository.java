@@ -1,8 +1,22 @@
 package openschool.java.security.authentication.domain;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.UUID;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, UUID> {
+
+    /**
+     * Удалить refresh токены пользователя. Строки находятся по индексу idx_refresh_token_entity_user_id.
+     *
+     * @param username - username
+     * @return число удаленных строк
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshTokenEntity t "
+            + "WHERE t.userId IN (SELECT u.id FROM UserEntity u WHERE u.username = :username)")
+    int deleteAllByUsername(@Param("username") String username);
 }
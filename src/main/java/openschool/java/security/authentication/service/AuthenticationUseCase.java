@@ -1,15 +1,21 @@
 package openschool.java.security.authentication.service;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
-import openschool.java.security.authentication.domain.RefreshTokenEntity;
-import openschool.java.security.authentication.domain.RefreshTokenRepository;
+import openschool.java.security.audit.AuditEventType;
+import openschool.java.security.audit.AuditLog;
 import openschool.java.security.authentication.dto.AuthenticationOperationResultTo;
+import openschool.java.security.database.AfterCommit;
+import openschool.java.security.database.ReadYourWrites;
 import openschool.java.security.exception.auth.InvalidUsernameOrPasswordException;
 import openschool.java.security.exception.auth.UserAlreadyExistsException;
 import openschool.java.security.exception.jwt.InvalidJwtToken;
 import openschool.java.security.exception.user.UserNotFoundException;
+import openschool.java.security.observation.AuthObservations;
+import openschool.java.security.opaque.AccessTokenType;
+import openschool.java.security.ratelimit.AuthRateLimiter;
 import openschool.java.security.security.jwt.JwtTokenExtractor;
-import openschool.java.security.security.jwt.JwtTokenGenerator;
 import openschool.java.security.security.jwt.JwtTokenValidator;
 import openschool.java.security.user.domain.UserEntity;
 import openschool.java.security.user.domain.UserRepository;
@@ -22,78 +28,128 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Сервис для управления аутентификацией и регистрацией пользователей.
  */
 @Service
 @RequiredArgsConstructor
+@Observed(name = AuthObservations.USE_CASE_CALL)
 public class AuthenticationUseCase {
+    /**
+     * Транзакция аутентификации только для чтения.
+     */
+    private static final TransactionDefinition AUTHENTICATE_READ = readOnlyTransaction();
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final JwtTokenExtractor jwtTokenExtractor;
-    private final JwtTokenGenerator jwtTokenGenerator;
     private final JwtTokenValidator jwtTokenValidator;
-    private final RefreshTokenRepository refreshTokenRepository;
     private final AuthenticationManager authenticationManager;
+    private final AuthRateLimiter rateLimiter;
+    private final AuditLog auditLog;
+    private final ReadYourWrites readYourWrites;
+    private final PlatformTransactionManager transactionManager;
+    private final TokenIssuanceService tokenIssuanceService;
 
     /**
      * Аутентифицирует пользователя на основе предоставленных данных.
+     * <p>
+     * Транзакция только для чтения открывается после решения о закреплении чтения за основной БД:
+     * соединение уже открытой транзакции закрепление не меняет.
      *
-     * @param userTo данные пользователя для аутентификации
-     * @return результат операции аутентификации, включающий JWT токен
+     * @param userTo    данные пользователя для аутентификации
+     * @param tokenType тип access токена или null для типа по умолчанию
+     * @return результат операции аутентификации, включающий access токен
+     */
+    public ResponseEntity<AuthenticationOperationResultTo> authenticate(final UserTo userTo,
+                                                                        final AccessTokenType tokenType) {
+        rateLimiter.checkUsername(AuthRateLimiter.AUTHENTICATE, userTo.getUsername());
+        return readYourWrites.read(userTo.getUsername(), username ->
+                new TransactionTemplate(transactionManager, AUTHENTICATE_READ)
+                        .execute(status -> doAuthenticate(userTo, tokenType)));
+    }
+
+    /**
+     * Аутентифицирует пользователя после проверки частоты запросов.
+     *
+     * @param userTo    данные пользователя для аутентификации
+     * @param tokenType тип access токена или null для типа по умолчанию
+     * @return результат операции аутентификации, включающий access токен
      */
-    @Transactional(readOnly = true)
-    public ResponseEntity<AuthenticationOperationResultTo> authenticate(final UserTo userTo) {
-        validateUserExists(userTo.getUsername());
-        authenticateUser(userTo);
+    private ResponseEntity<AuthenticationOperationResultTo> doAuthenticate(final UserTo userTo,
+                                                                           final AccessTokenType tokenType) {
+        try {
+            validateUserExists(userTo.getUsername());
+            authenticateUser(userTo);
+        } catch (UserNotFoundException | InvalidUsernameOrPasswordException exception) {
+            auditLog.record(AuditEventType.LOGIN_FAILURE, userTo.getUsername(), null);
+            throw exception;
+        }
 
         UserEntity userEntity = getUserEntity(userTo.getUsername());
-        String refreshToken = createAndSaveRefreshToken(userEntity);
-        ResponseCookie cookie = jwtTokenGenerator.createRefreshTokenCookie(refreshToken);
+        ResponseCookie cookie = tokenIssuanceService.issueRefreshToken(userEntity);
 
-        return buildResponseEntity(userEntity, cookie);
+        ResponseEntity<AuthenticationOperationResultTo> response = buildResponseEntity(userEntity, cookie, tokenType);
+        auditLog.record(AuditEventType.LOGIN_SUCCESS, userEntity.getUsername(), userEntity.getId());
+        return response;
     }
 
     /**
      * Регистрирует нового пользователя на основе предоставленных данных.
      *
-     * @param userTo данные пользователя для регистрации
-     * @return результат операции регистрации, включающий JWT токен
+     * @param userTo    данные пользователя для регистрации
+     * @param tokenType тип access токена или null для типа по умолчанию
+     * @return результат операции регистрации, включающий access токен
      */
     @Transactional
-    public ResponseEntity<AuthenticationOperationResultTo> register(final UserTo userTo) {
+    public ResponseEntity<AuthenticationOperationResultTo> register(final UserTo userTo,
+                                                                    final AccessTokenType tokenType) {
+        rateLimiter.checkUsername(AuthRateLimiter.REGISTER, userTo.getUsername());
         checkUserDoesNotExist(userTo.getUsername());
 
         UserEntity userEntity = userMapper.mapForRegistration(userTo);
         userRepository.save(userEntity);
+        readYourWrites.markWritten(userEntity.getUsername());
 
-        String refreshToken = createAndSaveRefreshToken(userEntity);
-        ResponseCookie cookie = jwtTokenGenerator.createRefreshTokenCookie(refreshToken);
+        ResponseCookie cookie = tokenIssuanceService.issueRefreshToken(userEntity);
 
-        return buildResponseEntity(userEntity, cookie);
+        ResponseEntity<AuthenticationOperationResultTo> response = buildResponseEntity(userEntity, cookie, tokenType);
+        // Регистрация попадает в журнал аудита только после фиксации: откат, например при гонке за username,
+        // не должен оставлять в журнале несостоявшуюся регистрацию
+        AfterCommit.run(() ->
+                auditLog.record(AuditEventType.REGISTRATION, userEntity.getUsername(), userEntity.getId()));
+        return response;
     }
 
     /**
-     * Обновляет refresh токен.
+     * Выпускает новый access токен по refresh токену. Refresh токен заменяется новым по
+     * {@link TokenIssuanceService#rotateRefreshToken(UserEntity, String, Claims)}.
      *
      * @param oldRefreshToken старый refresh token
+     * @param tokenType       тип access токена или null для типа по умолчанию
      * @return результат операции обновления токена
+     * @throws InvalidJwtToken если токен отклонен или не является refresh токеном
      */
-    public ResponseEntity<AuthenticationOperationResultTo> refreshToken(final String oldRefreshToken) {
-        String username = jwtTokenExtractor.extractSubject(oldRefreshToken);
-        UserEntity userEntity = userRepository.findByUsername(username)
+    public ResponseEntity<AuthenticationOperationResultTo> refreshToken(final String oldRefreshToken,
+                                                                        final AccessTokenType tokenType) {
+        Claims claims = jwtTokenExtractor.extractRefreshClaims(oldRefreshToken);
+        UserEntity userEntity = userRepository.findByUsername(claims.getSubject())
                 .orElseThrow(() -> new InvalidJwtToken("Некорректный JWT токен"));
 
-        if (!jwtTokenValidator.isValid(oldRefreshToken, userEntity)) {
+        if (!jwtTokenValidator.isValid(claims, userEntity)) {
             throw new InvalidJwtToken("Некорректный JWT токен");
         }
 
-        String newRefreshToken = createAndSaveRefreshToken(userEntity);
-        ResponseCookie cookie = jwtTokenGenerator.createRefreshTokenCookie(newRefreshToken);
-
-        return buildResponseEntity(userEntity, cookie);
+        ResponseCookie cookie = tokenIssuanceService.rotateRefreshToken(userEntity, oldRefreshToken, claims);
+        ResponseEntity<AuthenticationOperationResultTo> response = buildResponseEntity(userEntity, cookie, tokenType);
+        auditLog.record(AuditEventType.REFRESH, userEntity.getUsername(), userEntity.getId());
+        return response;
     }
 
     /**
@@ -138,34 +194,21 @@ public class AuthenticationUseCase {
                         String.format("Пользователь с username %s не найден", username)));
     }
 
-    /**
-     * Создает и сохраняет refresh токен для пользователя.
-     *
-     * @param userEntity сущность пользователя
-     * @return новый refresh токен
-     */
-    private String createAndSaveRefreshToken(final UserEntity userEntity) {
-        String refreshToken = jwtTokenGenerator.generateRefreshToken(userEntity);
-        refreshTokenRepository.save(RefreshTokenEntity.builder()
-                .userId(userEntity.getId())
-                .value(refreshToken)
-                .build());
-        return refreshToken;
-    }
-
     /**
      * Формирует ResponseEntity с результатом аутентификации или регистрации.
      *
      * @param userEntity сущность пользователя
      * @param cookie     cookie с refresh токеном
+     * @param tokenType  тип access токена или null для типа по умолчанию
      * @return ResponseEntity с результатом операции
      */
     private ResponseEntity<AuthenticationOperationResultTo> buildResponseEntity(
             final UserEntity userEntity,
-            final ResponseCookie cookie) {
+            final ResponseCookie cookie,
+            final AccessTokenType tokenType) {
         var response = AuthenticationOperationResultTo.builder()
                 .userId(userEntity.getId())
-                .token(jwtTokenGenerator.generate(userEntity))
+                .token(tokenIssuanceService.issueAccessToken(userEntity, tokenType))
                 .build();
 
         var headers = new HttpHeaders();
@@ -186,4 +229,15 @@ public class AuthenticationUseCase {
                     String.format("Пользователь с данным username %s уже существует в системе", username));
         }
     }
+
+    /**
+     * Создает описание транзакции только для чтения.
+     *
+     * @return описание транзакции
+     */
+    private static TransactionDefinition readOnlyTransaction() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        return definition;
+    }
 }
@@ -0,0 +1,87 @@
+package openschool.java.security.authentication.service;
+
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import openschool.java.security.authentication.domain.RefreshTokenRepository;
+import openschool.java.security.exception.jwt.InvalidJwtToken;
+import openschool.java.security.observation.AuthObservations;
+import openschool.java.security.opaque.OpaqueSession;
+import openschool.java.security.opaque.OpaqueTokenStore;
+import openschool.java.security.revocation.service.TokenEpochService;
+import openschool.java.security.revocation.service.TokenRevocationService;
+import openschool.java.security.security.jwt.JwtTokenExtractor;
+import openschool.java.security.security.jwt.TokenVerification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Use case завершения сессий по JWT и непрозрачным access токенам.
+ */
+@Service
+@RequiredArgsConstructor
+@Observed(name = AuthObservations.USE_CASE_CALL)
+public class LogoutUseCase {
+    private final JwtTokenExtractor jwtTokenExtractor;
+    private final OpaqueTokenStore opaqueTokenStore;
+    private final TokenRevocationService tokenRevocationService;
+    private final TokenEpochService tokenEpochService;
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    /**
+     * Отзывает access токен до окончания срока его действия. Refresh токен не принимается: отзыв его jti
+     * не мешал бы обновлять им токены.
+     *
+     * @param accessToken access токен
+     * @throws InvalidJwtToken если токен отклонен, не является access токеном, выпущен без идентификатора
+     *                         или непрозрачный токен неизвестен
+     */
+    @Transactional
+    public void logout(final String accessToken) {
+        if (OpaqueTokenStore.isOpaque(accessToken)) {
+            if (!opaqueTokenStore.revoke(accessToken)) {
+                throw new InvalidJwtToken("Некорректный токен");
+            }
+            return;
+        }
+
+        if (!(jwtTokenExtractor.verify(accessToken) instanceof TokenVerification.Valid valid)
+                || valid.claims().getId() == null) {
+            throw new InvalidJwtToken("Некорректный JWT токен");
+        }
+
+        tokenRevocationService.revoke(valid.claims().getId(), valid.claims().getExpiration());
+    }
+
+    /**
+     * Завершает все сессии пользователя: увеличивает версию токенов, после чего все ранее выпущенные
+     * access и refresh токены пользователя становятся недействительными. Сохраненные refresh токены
+     * пользователя удаляются в той же транзакции.
+     *
+     * @param accessToken access токен пользователя
+     * @throws InvalidJwtToken если токен недействителен или не является access токеном
+     */
+    @Transactional
+    public void logoutEverywhere(final String accessToken) {
+        String username;
+        int tokenVersion;
+        if (OpaqueTokenStore.isOpaque(accessToken)) {
+            OpaqueSession session = opaqueTokenStore.resolve(accessToken);
+            if (session == null) {
+                throw new InvalidJwtToken("Некорректный токен");
+            }
+            username = session.username();
+            tokenVersion = session.tokenVersion();
+        } else if (jwtTokenExtractor.verify(accessToken) instanceof TokenVerification.Valid valid) {
+            username = valid.claims().getSubject();
+            tokenVersion = JwtTokenExtractor.tokenVersion(valid.claims());
+        } else {
+            throw new InvalidJwtToken("Некорректный JWT токен");
+        }
+        if (!tokenEpochService.isCurrent(username, tokenVersion)) {
+            throw new InvalidJwtToken("Некорректный JWT токен");
+        }
+
+        tokenEpochService.increment(username);
+        refreshTokenRepository.deleteAllByUsername(username);
+    }
+}
@@ -0,0 +1,119 @@
+package openschool.java.security.authentication.service;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import openschool.java.security.authentication.domain.RefreshTokenEntity;
+import openschool.java.security.authentication.domain.RefreshTokenRepository;
+import openschool.java.security.observation.AuthObservations;
+import openschool.java.security.opaque.AccessTokenProperties;
+import openschool.java.security.opaque.AccessTokenType;
+import openschool.java.security.opaque.OpaqueTokenStore;
+import openschool.java.security.security.jwt.JwtTokenGenerator;
+import openschool.java.security.security.jwt.RefreshTokenRotationPolicy;
+import openschool.java.security.user.domain.UserEntity;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервис выпуска access и refresh токенов.
+ * <p>
+ * Access токен выпускается как JWT или как непрозрачный токен, refresh токен сохраняется в БД и передается в cookie.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenIssuanceService {
+    /**
+     * Отдельная транзакция записи refresh токена, выпущенного в транзакции только для чтения.
+     */
+    private static final TransactionDefinition REFRESH_TOKEN_WRITE =
+            new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+    private final JwtTokenGenerator jwtTokenGenerator;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final OpaqueTokenStore opaqueTokenStore;
+    private final AccessTokenProperties accessTokenProperties;
+    private final RefreshTokenRotationPolicy refreshTokenRotationPolicy;
+    private final ObservationRegistry observationRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Выпускает access токен запрошенного типа.
+     *
+     * @param userEntity сущность пользователя
+     * @param tokenType  тип access токена или null для типа по умолчанию
+     * @return access токен
+     */
+    public String issueAccessToken(final UserEntity userEntity, final AccessTokenType tokenType) {
+        AccessTokenType type = tokenType == null ? accessTokenProperties.defaultType() : tokenType;
+        return type == AccessTokenType.OPAQUE
+                ? opaqueTokenStore.issue(userEntity)
+                : jwtTokenGenerator.generate(userEntity);
+    }
+
+    /**
+     * Выпускает и сохраняет новый refresh токен.
+     *
+     * @param userEntity сущность пользователя
+     * @return cookie с refresh токеном
+     */
+    public ResponseCookie issueRefreshToken(final UserEntity userEntity) {
+        return jwtTokenGenerator.createRefreshTokenCookie(createAndSaveRefreshToken(userEntity));
+    }
+
+    /**
+     * Возвращает refresh токен для ответа на обновление токенов. Refresh токен заменяется новым, только если
+     * это требует {@link RefreshTokenRotationPolicy}; иначе в cookie возвращается прежний.
+     *
+     * @param userEntity      сущность пользователя
+     * @param oldRefreshToken проверенный refresh токен из запроса
+     * @param claims          claims проверенного refresh токена
+     * @return cookie с refresh токеном
+     */
+    public ResponseCookie rotateRefreshToken(final UserEntity userEntity,
+                                             final String oldRefreshToken,
+                                             final Claims claims) {
+        Date expiresAt = claims.getExpiration();
+        long now = System.currentTimeMillis();
+        Date issuedAt = claims.getIssuedAt();
+        if (refreshTokenRotationPolicy.shouldRotate(issuedAt, expiresAt, now)) {
+            return issueRefreshToken(userEntity);
+        }
+        return jwtTokenGenerator.createRefreshTokenCookie(
+                oldRefreshToken, TimeUnit.MILLISECONDS.toSeconds(expiresAt.getTime() - now));
+    }
+
+    /**
+     * Создает и сохраняет refresh токен для пользователя.
+     *
+     * @param userEntity сущность пользователя
+     * @return новый refresh токен
+     */
+    private String createAndSaveRefreshToken(final UserEntity userEntity) {
+        String refreshToken = jwtTokenGenerator.generateRefreshToken(userEntity);
+        RefreshTokenEntity refreshTokenEntity = RefreshTokenEntity.builder()
+                .userId(userEntity.getId())
+                .value(refreshToken)
+                .build();
+        Observation.createNotStarted(AuthObservations.REFRESH_TOKEN_PERSIST, observationRegistry)
+                .observe(() -> {
+                    // В транзакции только для чтения запись не сбрасывается в БД и может уйти на реплику
+                    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                        new TransactionTemplate(transactionManager, REFRESH_TOKEN_WRITE)
+                                .executeWithoutResult(status -> refreshTokenRepository.save(refreshTokenEntity));
+                    } else {
+                        refreshTokenRepository.save(refreshTokenEntity);
+                    }
+                });
+        return refreshToken;
+    }
+}
@@ -0,0 +1,179 @@
+package openschool.java.security.database;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource, ограничивающий число одновременно выданных соединений семафором.
+ * <p>
+ * Разрешение захватывается при получении соединения и освобождается при его закрытии.
+ * Семафор построен на AQS и паркует ожидающие потоки без пиннинга виртуальных потоков.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource implements AutoCloseable {
+    /**
+     * Семафор, ограничивающий параллельный доступ к БД.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Максимальное время ожидания разрешения в миллисекундах.
+     */
+    private final long acquireTimeoutMillis;
+
+    /**
+     * Создать ограничивающий DataSource.
+     *
+     * @param targetDataSource     - исходный DataSource
+     * @param maxConcurrency       - максимальное число одновременно используемых соединений
+     * @param acquireTimeoutMillis - максимальное время ожидания разрешения в миллисекундах
+     */
+    public ConcurrencyLimitedDataSource(final DataSource targetDataSource,
+                                        final int maxConcurrency,
+                                        final long acquireTimeoutMillis) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquirePermit();
+        return wrap(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        acquirePermit();
+        return wrap(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Количество свободных разрешений.
+     *
+     * @return количество свободных разрешений
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Закрыть исходный пул.
+     *
+     * @throws Exception если исходный пул не удалось закрыть
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable target) {
+            target.close();
+        }
+    }
+
+    /**
+     * Захватить разрешение на работу с БД.
+     *
+     * @throws SQLException если разрешение не получено за отведенное время
+     */
+    private void acquirePermit() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(String.format(
+                        "Не удалось получить доступ к БД за %d мс", acquireTimeoutMillis));
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Ожидание доступа к БД прервано", exception);
+        }
+    }
+
+    /**
+     * Получить соединение и обернуть его в прокси, освобождающий разрешение при закрытии.
+     *
+     * @param connectionSupplier - источник соединения
+     * @return обернутое соединение
+     * @throws SQLException если соединение получить не удалось
+     */
+    private Connection wrap(final ConnectionSupplier connectionSupplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = connectionSupplier.get();
+        } catch (SQLException | RuntimeException exception) {
+            permits.release();
+            throw exception;
+        }
+
+        return (Connection) Proxy.newProxyInstance(
+                ConcurrencyLimitedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PermitReleasingHandler(connection));
+    }
+
+    /**
+     * Источник соединения.
+     */
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * Обработчик вызовов соединения, освобождающий разрешение ровно один раз при закрытии.
+     */
+    private final class PermitReleasingHandler implements InvocationHandler {
+        /**
+         * Исходное соединение.
+         */
+        private final Connection target;
+
+        /**
+         * Освобождено ли разрешение.
+         */
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitReleasingHandler(final Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException exception) {
+                throw exception.getTargetException();
+            } finally {
+                if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package openschool.java.security.database;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.function.UnaryOperator;
+
+/**
+ * Конфигурация доступа к БД.
+ * <p>
+ * Обертки DataSource включаются свойствами, которые читаются при создании бинов, а не условиями
+ * {@code @ConditionalOnProperty}: Spring AOT вычисляет такие условия при сборке, и в образе с AOT
+ * свойства окружения перестали бы действовать.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DatabaseConfiguration {
+
+    /**
+     * Имя бина DataSource основной БД.
+     */
+    static final String PRIMARY_DATA_SOURCE = "dataSource";
+
+    /**
+     * Порядок обертки ограничения параллельного доступа: она оборачивает сам пул основной БД.
+     */
+    static final int CONCURRENCY_LIMIT_ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    /**
+     * Порядок обертки маршрутизации на реплики: она оборачивает уже ограниченный DataSource, поэтому семафор
+     * действует только на соединения основной БД, а не на соединения реплик.
+     */
+    static final int REPLICA_ROUTING_ORDER = CONCURRENCY_LIMIT_ORDER + 1;
+
+    /**
+     * Оборачивает пул основной БД в {@link ConcurrencyLimitedDataSource}, если включено ограничение
+     * параллельного доступа к БД.
+     *
+     * @param enabled              - включено ли ограничение
+     * @param maxConcurrency       - максимальное число одновременно используемых соединений,
+     *                             0 - по размеру пула основной БД
+     * @param acquireTimeoutMillis - максимальное время ожидания разрешения в миллисекундах
+     * @return BeanPostProcessor для DataSource
+     */
+    @Bean
+    public static DataSourcePostProcessor concurrencyLimitedDataSourcePostProcessor(
+            @Value("${database.concurrency-limit.enabled:false}") boolean enabled,
+            @Value("${database.concurrency-limit.max-concurrency:0}") int maxConcurrency,
+            @Value("${database.concurrency-limit.acquire-timeout-millis}") long acquireTimeoutMillis) {
+        if (!enabled) {
+            return new DataSourcePostProcessor(CONCURRENCY_LIMIT_ORDER, HikariDataSource.class,
+                    UnaryOperator.identity());
+        }
+        return new DataSourcePostProcessor(CONCURRENCY_LIMIT_ORDER, HikariDataSource.class, pool ->
+                new ConcurrencyLimitedDataSource(pool,
+                        maxConcurrency > 0 ? maxConcurrency : ((HikariDataSource) pool).getMaximumPoolSize(),
+                        acquireTimeoutMillis));
+    }
+
+    /**
+     * Оборачивает DataSource основной БД в {@link ReplicaRoutingDataSource}, если включено чтение с реплик.
+     * <p>
+     * Настройки читаются через {@link Binder}, так как BeanPostProcessor создается раньше бинов настроек.
+     *
+     * @param environment - окружение
+     * @return BeanPostProcessor для DataSource
+     */
+    @Bean
+    public static DataSourcePostProcessor replicaRoutingDataSourcePostProcessor(final Environment environment) {
+        Binder binder = Binder.get(environment);
+        if (!binder.bind("database.replica.enabled", Boolean.class).orElse(false)) {
+            return new DataSourcePostProcessor(REPLICA_ROUTING_ORDER, DataSource.class, UnaryOperator.identity());
+        }
+        ReplicaProperties properties = binder.bind("database.replica", ReplicaProperties.class).get();
+        String username = binder.bind("spring.datasource.username", String.class).orElse(null);
+        String password = binder.bind("spring.datasource.password", String.class).orElse(null);
+        return new DataSourcePostProcessor(REPLICA_ROUTING_ORDER, DataSource.class, primary ->
+                new ReplicaRoutingDataSource(primary,
+                        ReplicaDataSource.create(primary, properties, username, password)));
+    }
+
+    /**
+     * Стратегия миграций Flyway.
+     * <p>
+     * Свойство {@code database.migration.skip} читается во время выполнения, поэтому позволяет пропустить
+     * миграции и в образе, собранном с Spring AOT, например при обучающем запуске для AppCDS без БД.
+     *
+     * @param skipMigration - пропустить ли миграции
+     * @return FlywayMigrationStrategy
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${database.migration.skip:false}") boolean skipMigration) {
+        return flyway -> {
+            if (!skipMigration) {
+                flyway.migrate();
+            }
+        };
+    }
+
+    /**
+     * BeanPostProcessor, оборачивающий только бин DataSource основной БД.
+     * <p>
+     * Тип бина объявлен в методах явно: порядок {@link Ordered} учитывается, только если он виден до создания
+     * BeanPostProcessor.
+     */
+    public static final class DataSourcePostProcessor implements BeanPostProcessor, Ordered {
+        /**
+         * Порядок применения обертки.
+         */
+        private final int order;
+
+        /**
+         * Тип оборачиваемого DataSource.
+         */
+        private final Class<? extends DataSource> targetType;
+
+        /**
+         * Обертка DataSource.
+         */
+        private final UnaryOperator<DataSource> wrapper;
+
+        DataSourcePostProcessor(final int order,
+                                final Class<? extends DataSource> targetType,
+                                final UnaryOperator<DataSource> wrapper) {
+            this.order = order;
+            this.targetType = targetType;
+            this.wrapper = wrapper;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+            if (PRIMARY_DATA_SOURCE.equals(beanName) && targetType.isInstance(bean)) {
+                return wrapper.apply((DataSource) bean);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package openschool.java.security.database;
+
+import java.util.function.Supplier;
+
+/**
+ * Закрепление чтения за основной БД.
+ * <p>
+ * Соединения, полученные внутри {@link #call(Supplier)}, берутся с основной БД даже в транзакции только для чтения.
+ * Закрепление действует на текущий поток и не меняет соединение, уже привязанное к открытой транзакции.
+ */
+public final class PrimaryRouting {
+    /**
+     * Закреплено ли чтение текущего потока за основной БД.
+     */
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryRouting() {
+    }
+
+    /**
+     * Выполнить действие с чтением из основной БД.
+     *
+     * @param action - действие
+     * @param <T>    - тип результата
+     * @return результат действия
+     */
+    public static <T> T call(final Supplier<T> action) {
+        if (isPinned()) {
+            return action.get();
+        }
+        PINNED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    /**
+     * Выполнить действие с чтением из основной БД.
+     *
+     * @param action - действие
+     */
+    public static void run(final Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Закреплено ли чтение текущего потока за основной БД.
+     *
+     * @return true внутри {@link #call(Supplier)}
+     */
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+}
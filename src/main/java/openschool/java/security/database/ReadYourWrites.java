@@ -0,0 +1,100 @@
+package openschool.java.security.database;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Чтение своих записей при чтении с реплик.
+ * <p>
+ * После записи данных пользователя его чтения в течение {@code database.replica.read-your-writes-window-millis}
+ * выполняются на основной БД, чтобы отставание реплики не скрыло только что записанные данные. Записи учитываются
+ * только в памяти экземпляра сервиса.
+ */
+@Component
+public class ReadYourWrites {
+    /**
+     * Время последней записи по username.
+     */
+    private final Map<String, Long> writes = new ConcurrentHashMap<>();
+
+    /**
+     * Включено ли чтение с реплик.
+     */
+    private final boolean enabled;
+
+    /**
+     * Окно чтения с основной БД после записи в миллисекундах.
+     */
+    private final long windowMillis;
+
+    /**
+     * Источник текущего времени в миллисекундах эпохи.
+     */
+    private final LongSupplier clock;
+
+    @Autowired
+    public ReadYourWrites(final ReplicaProperties properties) {
+        this(properties, System::currentTimeMillis);
+    }
+
+    ReadYourWrites(final ReplicaProperties properties, final LongSupplier clock) {
+        this.enabled = properties.enabled();
+        this.windowMillis = properties.readYourWritesWindowMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Отметить запись данных пользователя.
+     *
+     * @param username - username
+     */
+    public void markWritten(final String username) {
+        if (enabled) {
+            writes.put(username, clock.getAsLong());
+        }
+    }
+
+    /**
+     * Прочитать данные пользователя: с основной БД, если они недавно записаны, иначе как обычно.
+     * <p>
+     * Вызывается до начала транзакции, а транзакция открывается внутри действия: закрепление за основной БД
+     * не меняет соединение уже открытой транзакции.
+     *
+     * @param username - username
+     * @param action   - чтение по username
+     * @param <T>      - тип результата
+     * @return результат чтения
+     */
+    public <T> T read(final String username, final Function<String, T> action) {
+        return isRecentlyWritten(username) ? PrimaryRouting.call(() -> action.apply(username)) : action.apply(username);
+    }
+
+    /**
+     * Удалить записи, вышедшие из окна.
+     */
+    @Scheduled(fixedDelayString = "${database.replica.read-your-writes-window-millis}")
+    public void evictExpired() {
+        long threshold = clock.getAsLong() - windowMillis;
+        writes.values().removeIf(writtenAt -> writtenAt < threshold);
+    }
+
+    /**
+     * Записаны ли данные пользователя в пределах окна.
+     *
+     * @param username - username
+     * @return true, если чтение нужно выполнить на основной БД
+     */
+    boolean isRecentlyWritten(final String username) {
+        if (!enabled) {
+            return false;
+        }
+        Long writtenAt = writes.get(username);
+        return writtenAt != null && clock.getAsLong() - writtenAt <= windowMillis;
+    }
+}
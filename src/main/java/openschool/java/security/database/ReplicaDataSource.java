@@ -0,0 +1,211 @@
+package openschool.java.security.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пул реплик для соединений только для чтения.
+ * <p>
+ * Соединения выдаются по кругу с исправных реплик. Реплика считается исправной, если проверочный запрос
+ * {@code database.replica.health-check-query} выполнился и вернул отставание не больше
+ * {@code database.replica.max-lag-millis}; до первой проверки и после ошибки соединения реплика не используется.
+ * Если исправных реплик нет или чтение закреплено через {@link PrimaryRouting}, соединение берется с основной БД.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+    /**
+     * Основная БД.
+     */
+    private final DataSource primary;
+
+    /**
+     * Реплики.
+     */
+    private final List<Replica> replicas;
+
+    /**
+     * Запрос, возвращающий отставание реплики в миллисекундах.
+     */
+    private final String healthCheckQuery;
+
+    /**
+     * Максимальное отставание исправной реплики в миллисекундах.
+     */
+    private final long maxLagMillis;
+
+    /**
+     * Счетчик для выбора реплики по кругу.
+     */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Поток проверки реплик или null, если проверки запускаются извне.
+     */
+    private ScheduledExecutorService healthChecker;
+
+    /**
+     * Реплика и ее состояние.
+     */
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+
+        private Replica(final String name, final DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    ReplicaDataSource(final DataSource primary,
+                      final List<? extends DataSource> replicas,
+                      final String healthCheckQuery,
+                      final long maxLagMillis) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.healthCheckQuery = healthCheckQuery;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    /**
+     * Создать пулы соединений реплик и запустить их периодическую проверку.
+     *
+     * @param primary         - основная БД
+     * @param properties      - настройки реплик
+     * @param defaultUsername - пользователь основной БД
+     * @param defaultPassword - пароль основной БД
+     * @return пул реплик
+     */
+    public static ReplicaDataSource create(final DataSource primary,
+                                           final ReplicaProperties properties,
+                                           final String defaultUsername,
+                                           final String defaultPassword) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < properties.instances().size(); i++) {
+            ReplicaProperties.Instance instance = properties.instances().get(i);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(instance.url());
+            config.setUsername(instance.username() == null ? defaultUsername : instance.username());
+            config.setPassword(instance.password() == null ? defaultPassword : instance.password());
+            config.setMaximumPoolSize(properties.maximumPoolSize());
+            config.setConnectionTimeout(properties.connectionTimeoutMillis());
+            config.setReadOnly(true);
+            // Недоступная при старте реплика не должна мешать запуску приложения
+            config.setInitializationFailTimeout(-1);
+            pools.add(new HikariDataSource(config));
+        }
+
+        ReplicaDataSource dataSource = new ReplicaDataSource(
+                primary, pools, properties.healthCheckQuery(), properties.maxLagMillis());
+        dataSource.healthChecker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("replica-health-check").daemon().factory());
+        dataSource.healthChecker.scheduleWithFixedDelay(dataSource::checkHealth,
+                0, properties.healthCheckIntervalMillis(), TimeUnit.MILLISECONDS);
+        return dataSource;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!PrimaryRouting.isPinned() && !replicas.isEmpty()) {
+            int size = replicas.size();
+            int start = Math.floorMod(next.getAndIncrement(), size);
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException exception) {
+                    markUnhealthy(replica, exception.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Проверить все реплики и обновить их состояние.
+     */
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(healthCheckQuery)) {
+                long lagMillis = resultSet.next() ? resultSet.getLong(1) : 0;
+                if (lagMillis > maxLagMillis) {
+                    markUnhealthy(replica, String.format("отставание %d мс", lagMillis));
+                } else if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Реплика {} принимает чтение", replica.name);
+                }
+            } catch (SQLException | RuntimeException exception) {
+                markUnhealthy(replica, exception.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Число исправных реплик.
+     *
+     * @return число реплик
+     */
+    int healthyCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    /**
+     * Остановить проверки и закрыть пулы соединений реплик.
+     */
+    @Override
+    public void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception exception) {
+                    log.warn("Не удалось закрыть пул реплики {}: {}", replica.name, exception.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Исключить реплику из чтения до следующей успешной проверки.
+     *
+     * @param replica - реплика
+     * @param reason  - причина
+     */
+    private void markUnhealthy(final Replica replica, final String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Реплика {} исключена из чтения: {}", replica.name, reason);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package openschool.java.security.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Настройки чтения с реплик БД.
+ *
+ * @param enabled                    - направлять ли транзакции только для чтения на реплики
+ * @param instances                  - реплики
+ * @param maximumPoolSize            - размер пула соединений каждой реплики
+ * @param connectionTimeoutMillis    - максимальное время получения соединения с реплики в миллисекундах
+ * @param healthCheckIntervalMillis  - интервал проверки реплик в миллисекундах
+ * @param healthCheckQuery           - запрос, возвращающий отставание реплики в миллисекундах
+ * @param maxLagMillis               - максимальное отставание, при котором реплика принимает чтение
+ * @param readYourWritesWindowMillis - сколько миллисекунд после записи чтения пользователя идут на основную БД
+ */
+@ConfigurationProperties(prefix = "database.replica")
+public record ReplicaProperties(boolean enabled,
+                                List<Instance> instances,
+                                int maximumPoolSize,
+                                long connectionTimeoutMillis,
+                                long healthCheckIntervalMillis,
+                                String healthCheckQuery,
+                                long maxLagMillis,
+                                long readYourWritesWindowMillis) {
+
+    public ReplicaProperties {
+        instances = instances == null ? List.of() : List.copyOf(instances);
+    }
+
+    /**
+     * Реплика.
+     *
+     * @param url     - JDBC URL
+     * @param username- пользователь или null для пользователя основной БД
+     * @param password- пароль или null для пароля основной БД
+     */
+    public record Instance(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,37 @@
+package openschool.java.security.database;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource, направляющий транзакции только для чтения на реплики.
+ * <p>
+ * Физическое соединение берется при первом запросе, когда признак read-only транзакции уже выставлен:
+ * соединения только для чтения выдает {@link ReplicaDataSource}, остальные - основная БД.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+    /**
+     * Пул реплик.
+     */
+    private final ReplicaDataSource replicaDataSource;
+
+    public ReplicaRoutingDataSource(final DataSource primary, final ReplicaDataSource replicaDataSource) {
+        super(primary);
+        this.replicaDataSource = replicaDataSource;
+        setReadOnlyDataSource(replicaDataSource);
+    }
+
+    /**
+     * Закрыть пулы реплик и основной БД.
+     *
+     * @throws Exception если основную БД не удалось закрыть
+     */
+    @Override
+    public void close() throws Exception {
+        replicaDataSource.close();
+        if (obtainTargetDataSource() instanceof AutoCloseable primary) {
+            primary.close();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package openschool.java.security.database;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Идентификатор сущности, генерируемый {@link TimeOrderedUuidGenerator}.
+ * <p>
+ * В отличие от {@code @UuidGenerator} со случайными UUID версии 4, новые ключи упорядочены по времени и
+ * добавляются в правый край индекса первичного ключа.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedUuid {
+}
@@ -0,0 +1,86 @@
+package openschool.java.security.database;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Генератор UUID версии 7 (RFC 9562).
+ * <p>
+ * Старшие 48 бит - время в миллисекундах эпохи Unix, следующие 12 бит после версии - счетчик внутри миллисекунды,
+ * остальные 62 бита после варианта - случайные. Счетчик общий для всех потоков, поэтому идентификаторы одного
+ * экземпляра сервиса строго возрастают; при переполнении счетчика время идентификатора забегает вперед не больше
+ * чем на миллисекунду за 4096 идентификаторов. Случайная часть не криптостойкая: идентификаторы не являются секретом.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+    /**
+     * Число бит счетчика внутри миллисекунды.
+     */
+    private static final int COUNTER_BITS = 12;
+
+    /**
+     * Последнее выданное значение: время в миллисекундах, сдвинутое на {@link #COUNTER_BITS}, и счетчик.
+     */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    /**
+     * Сгенерировать UUID версии 7.
+     *
+     * @return идентификатор
+     */
+    public static UUID next() {
+        long candidate = System.currentTimeMillis() << COUNTER_BITS;
+        long previous = LAST.get();
+        while (true) {
+            long value = Math.max(candidate, previous + 1);
+            long witness = LAST.compareAndExchange(previous, value);
+            if (witness == previous) {
+                return fromTimestampAndCounter(value);
+            }
+            previous = witness;
+        }
+    }
+
+    /**
+     * Время создания идентификатора версии 7.
+     *
+     * @param uuid - идентификатор
+     * @return время в миллисекундах эпохи Unix
+     */
+    public static long timestampMillis(final UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    @Override
+    public Object generate(final SharedSessionContractImplementor session,
+                           final Object owner,
+                           final Object currentValue,
+                           final EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    /**
+     * Собрать UUID из времени со счетчиком и случайных бит.
+     *
+     * @param value - время в миллисекундах, сдвинутое на {@link #COUNTER_BITS}, и счетчик
+     * @return идентификатор
+     */
+    private static UUID fromTimestampAndCounter(final long value) {
+        long timestamp = value >>> COUNTER_BITS;
+        long counter = value & ((1L << COUNTER_BITS) - 1);
+        long mostSignificantBits = timestamp << 16 | 0x7000L | counter;
+        long leastSignificantBits = ThreadLocalRandom.current().nextLong() >>> 2 | 0x8000_0000_0000_0000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
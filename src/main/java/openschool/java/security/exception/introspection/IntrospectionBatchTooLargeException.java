@@ -0,0 +1,7 @@
+package openschool.java.security.exception.introspection;
+
+public class IntrospectionBatchTooLargeException extends RuntimeException {
+    public IntrospectionBatchTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,52 @@
+package openschool.java.security.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.RequiredArgsConstructor;
+import openschool.java.security.introspection.service.TokenIntrospectionService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Аутентификация вызовов gRPC по access токену вызывающего сервиса в метаданных {@code authorization}.
+ * <p>
+ * Токен проверяется так же, как токены в интроспекции, и с тем же кэшем. Без активного токена вызов
+ * завершается статусом {@code UNAUTHENTICATED}; для потокового вызова токен проверяется один раз при открытии.
+ */
+@Component
+@RequiredArgsConstructor
+public class GrpcAuthenticationInterceptor implements ServerInterceptor {
+    /**
+     * Ключ метаданных с access токеном.
+     */
+    static final Metadata.Key<String> AUTHORIZATION =
+            Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+    /**
+     * Префикс значения метаданных с токеном.
+     */
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * Сервис интроспекции токенов.
+     */
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(final ServerCall<Q, R> call,
+                                                      final Metadata headers,
+                                                      final ServerCallHandler<Q, R> next) {
+        String authorization = headers.get(AUTHORIZATION);
+        if (authorization == null
+                || !authorization.startsWith(BEARER_PREFIX)
+                || !tokenIntrospectionService.introspect(authorization.substring(BEARER_PREFIX.length())).active()) {
+            call.close(Status.UNAUTHENTICATED.withDescription("Требуется действительный access токен"),
+                    new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        return next.startCall(call, headers);
+    }
+}
@@ -0,0 +1,12 @@
+package openschool.java.security.grpc;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация gRPC-сервера.
+ */
+@Configuration
+@EnableConfigurationProperties(GrpcProperties.class)
+public class GrpcConfiguration {
+}
@@ -0,0 +1,14 @@
+package openschool.java.security.grpc;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки gRPC-сервера.
+ *
+ * @param enabled               - запускать ли сервер
+ * @param port                  - порт, 0 - любой свободный
+ * @param shutdownTimeoutMillis - время на завершение текущих вызовов при остановке
+ */
+@ConfigurationProperties(prefix = "grpc.server")
+public record GrpcProperties(boolean enabled, int port, long shutdownTimeoutMillis) {
+}
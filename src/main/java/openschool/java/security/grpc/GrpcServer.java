@@ -0,0 +1,99 @@
+package openschool.java.security.grpc;
+
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcServerInterceptor;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC-сервер рядом с HTTP-сервером приложения.
+ * <p>
+ * Запускается после старта приложения на порту {@code grpc.server.port}. Каждый вызов наблюдается так же, как
+ * HTTP-запрос (метрики и спаны {@code grpc.server}), затем аутентифицируется {@link GrpcAuthenticationInterceptor}.
+ * Сервер принимает соединения без TLS и рассчитан на внутреннюю сеть. Свойство {@code grpc.server.enabled}
+ * проверяется при запуске, а не условием бина, поэтому действует и в образе, собранном с Spring AOT.
+ */
+@Slf4j
+@Component
+public class GrpcServer {
+    /**
+     * Сервер.
+     */
+    private final Server server;
+
+    /**
+     * Время на завершение текущих вызовов при остановке в миллисекундах.
+     */
+    private final long shutdownTimeoutMillis;
+
+    /**
+     * Запускать ли сервер.
+     */
+    private final boolean enabled;
+
+    public GrpcServer(final GrpcProperties properties,
+                      final TokenValidationGrpcService tokenValidationService,
+                      final GrpcAuthenticationInterceptor authenticationInterceptor,
+                      final ObservationRegistry observationRegistry) {
+        // Перехватчики вызываются в обратном порядке: сначала наблюдение, затем аутентификация
+        this.server = Grpc.newServerBuilderForPort(properties.port(), InsecureServerCredentials.create())
+                .addService(ServerInterceptors.intercept(tokenValidationService,
+                        authenticationInterceptor,
+                        new ObservationGrpcServerInterceptor(observationRegistry)))
+                .build();
+        this.shutdownTimeoutMillis = properties.shutdownTimeoutMillis();
+        this.enabled = properties.enabled();
+    }
+
+    /**
+     * Запустить сервер после старта приложения, если он включен.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            server.start();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Не удалось запустить gRPC-сервер", exception);
+        }
+        log.info("gRPC-сервер слушает порт {}", server.getPort());
+    }
+
+    /**
+     * Порт, который слушает сервер.
+     *
+     * @return порт или -1, если сервер выключен
+     */
+    public int getPort() {
+        return enabled ? server.getPort() : -1;
+    }
+
+    /**
+     * Остановить сервер, дождавшись завершения текущих вызовов.
+     */
+    @PreDestroy
+    public void stop() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package openschool.java.security.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import openschool.java.security.exception.user.UserNotFoundException;
+import openschool.java.security.grpc.v1.GetUserRequest;
+import openschool.java.security.grpc.v1.Role;
+import openschool.java.security.grpc.v1.TokenValidationServiceGrpc;
+import openschool.java.security.grpc.v1.User;
+import openschool.java.security.grpc.v1.ValidateTokenRequest;
+import openschool.java.security.grpc.v1.ValidateTokenResponse;
+import openschool.java.security.introspection.dto.TokenIntrospection;
+import openschool.java.security.introspection.service.TokenIntrospectionService;
+import openschool.java.security.user.domain.UserRole;
+import openschool.java.security.user.dto.UserResponse;
+import openschool.java.security.user.service.UserFindUseCase;
+import org.springframework.stereotype.Component;
+
+/**
+ * gRPC-сервис проверки токенов и получения пользователей.
+ * <p>
+ * Токены проверяет {@link TokenIntrospectionService} - по тем же правилам и с тем же кэшем, что и
+ * {@code POST /api/v1/introspect}; пользователей возвращает {@link UserFindUseCase}.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenValidationGrpcService extends TokenValidationServiceGrpc.TokenValidationServiceImplBase {
+    /**
+     * Ответ для неактивного токена.
+     */
+    private static final ValidateTokenResponse INACTIVE = ValidateTokenResponse.getDefaultInstance();
+
+    /**
+     * Сервис интроспекции токенов.
+     */
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    /**
+     * Use case поиска пользователей.
+     */
+    private final UserFindUseCase userFindUseCase;
+
+    @Override
+    public void validateToken(final ValidateTokenRequest request,
+                              final StreamObserver<ValidateTokenResponse> responseObserver) {
+        responseObserver.onNext(validate(request));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<ValidateTokenRequest> validateTokens(
+            final StreamObserver<ValidateTokenResponse> responseObserver) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(final ValidateTokenRequest request) {
+                responseObserver.onNext(validate(request));
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                // Клиент отменил вызов, отвечать некому
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    @Override
+    public void getUser(final GetUserRequest request, final StreamObserver<User> responseObserver) {
+        UserResponse user;
+        try {
+            user = userFindUseCase.findUserByUsername(request.getUsername());
+        } catch (UserNotFoundException exception) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription(exception.getMessage()).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(toUser(user));
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Проверить токен.
+     *
+     * @param request - запрос
+     * @return ответ
+     */
+    private ValidateTokenResponse validate(final ValidateTokenRequest request) {
+        TokenIntrospection introspection = tokenIntrospectionService.introspect(request.getToken());
+        if (!introspection.active()) {
+            return INACTIVE;
+        }
+        ValidateTokenResponse.Builder response = ValidateTokenResponse.newBuilder()
+                .setActive(true)
+                .setSubject(introspection.subject())
+                .setRole(toRole(introspection.role()));
+        if (introspection.expiresAt() != null) {
+            response.setExpiresAt(introspection.expiresAt());
+        }
+        return response.build();
+    }
+
+    /**
+     * Преобразовать пользователя в сообщение gRPC.
+     *
+     * @param user - пользователь
+     * @return сообщение
+     */
+    private static User toUser(final UserResponse user) {
+        User.Builder builder = User.newBuilder()
+                .setId(user.id().toString())
+                .setUsername(user.username())
+                .setRole(toRole(user.role()))
+                .setAccountNonExpired(user.accountNonExpired())
+                .setAccountNonLocked(user.accountNonLocked())
+                .setCredentialsNonExpired(user.credentialsNonExpired())
+                .setEnabled(user.enabled());
+        if (user.firstName() != null) {
+            builder.setFirstName(user.firstName());
+        }
+        if (user.lastName() != null) {
+            builder.setLastName(user.lastName());
+        }
+        if (user.createdAt() != null) {
+            builder.setCreatedAtMillis(user.createdAt().toInstant().toEpochMilli());
+        }
+        if (user.updatedAt() != null) {
+            builder.setUpdatedAtMillis(user.updatedAt().toInstant().toEpochMilli());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Преобразовать роль в перечисление gRPC.
+     *
+     * @param role - роль или null
+     * @return роль gRPC
+     */
+    private static Role toRole(final UserRole role) {
+        if (role == null) {
+            return Role.ROLE_UNSPECIFIED;
+        }
+        return switch (role) {
+            case USER -> Role.USER;
+            case ADMIN -> Role.ADMIN;
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package openschool.java.security.introspection;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация интроспекции токенов.
+ */
+@Configuration
+@EnableConfigurationProperties(IntrospectionProperties.class)
+public class IntrospectionConfiguration {
+}
@@ -0,0 +1,14 @@
+package openschool.java.security.introspection;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки интроспекции токенов.
+ *
+ * @param maxBatchSize   - максимальное число токенов в одном запросе
+ * @param cacheTtlMillis - время жизни результата в кэше и верхняя граница {@code Cache-Control: max-age}
+ * @param cacheMaxSize   - максимальное число результатов в кэше
+ */
+@ConfigurationProperties(prefix = "introspection")
+public record IntrospectionProperties(int maxBatchSize, long cacheTtlMillis, int cacheMaxSize) {
+}
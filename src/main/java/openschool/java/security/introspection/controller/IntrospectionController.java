@@ -0,0 +1,50 @@
+package openschool.java.security.introspection.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import openschool.java.security.introspection.dto.IntrospectionRequest;
+import openschool.java.security.introspection.dto.IntrospectionResponse;
+import openschool.java.security.introspection.dto.TokenIntrospection;
+import openschool.java.security.introspection.service.TokenIntrospectionService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Контроллер интроспекции токенов для шлюза и других сервисов.
+ */
+@RestController
+@RequestMapping("/api/v1/introspect")
+@RequiredArgsConstructor
+@Tag(name = "IntrospectionController", description = "Контроллер интроспекции токенов")
+public class IntrospectionController {
+    /**
+     * Сервис интроспекции токенов.
+     */
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    /**
+     * Проверить пакет токенов за один запрос.
+     *
+     * @param request - токены
+     * @return результаты в порядке токенов с заголовком {@code Cache-Control}
+     */
+    @PostMapping
+    @Operation(summary = "Интроспекция пакета токенов")
+    public ResponseEntity<IntrospectionResponse> introspect(final @Valid @RequestBody IntrospectionRequest request) {
+        List<TokenIntrospection> results = tokenIntrospectionService.introspect(request.tokens());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl
+                        .maxAge(Duration.ofSeconds(tokenIntrospectionService.maxAgeSeconds(results)))
+                        .cachePrivate())
+                .body(new IntrospectionResponse(results));
+    }
+}
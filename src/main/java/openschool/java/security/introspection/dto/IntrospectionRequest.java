@@ -0,0 +1,14 @@
+package openschool.java.security.introspection.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Запрос интроспекции пакета токенов.
+ *
+ * @param tokens - access токены, JWT или непрозрачные
+ */
+public record IntrospectionRequest(@NotEmpty List<@NotNull String> tokens) {
+}
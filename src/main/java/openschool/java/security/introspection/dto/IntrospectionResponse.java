@@ -0,0 +1,11 @@
+package openschool.java.security.introspection.dto;
+
+import java.util.List;
+
+/**
+ * Ответ интроспекции пакета токенов.
+ *
+ * @param results - результаты в порядке токенов запроса
+ */
+public record IntrospectionResponse(List<TokenIntrospection> results) {
+}
@@ -0,0 +1,22 @@
+package openschool.java.security.introspection.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import openschool.java.security.user.domain.UserRole;
+
+/**
+ * Результат интроспекции одного токена. Для неактивного токена заполнено только {@code active}:
+ * причина отклонения не раскрывается.
+ *
+ * @param active    - принимается ли токен сервисом
+ * @param subject   - username владельца
+ * @param role      - роль владельца
+ * @param expiresAt - окончание времени жизни токена в секундах эпохи
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenIntrospection(boolean active, String subject, UserRole role, Long expiresAt) {
+
+    /**
+     * Результат для неактивного токена.
+     */
+    public static final TokenIntrospection INACTIVE = new TokenIntrospection(false, null, null, null);
+}
@@ -0,0 +1,353 @@
+package openschool.java.security.introspection.service;
+
+import io.jsonwebtoken.Claims;
+import openschool.java.security.exception.introspection.IntrospectionBatchTooLargeException;
+import openschool.java.security.introspection.IntrospectionProperties;
+import openschool.java.security.introspection.dto.TokenIntrospection;
+import openschool.java.security.invalidation.InvalidationEvent;
+import openschool.java.security.opaque.OpaqueSession;
+import openschool.java.security.opaque.OpaqueTokenStore;
+import openschool.java.security.revocation.service.TokenEpochService;
+import openschool.java.security.revocation.service.TokenRevocationService;
+import openschool.java.security.security.UserDetailsServiceImpl;
+import openschool.java.security.security.jwt.JwtTokenExtractor;
+import openschool.java.security.security.jwt.JwtTokenValidator;
+import openschool.java.security.security.jwt.TokenVerification;
+import openschool.java.security.user.domain.UserEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Сервис интроспекции access токенов для других сервисов.
+ * <p>
+ * Токен активен при тех же условиях, при которых его принимает {@code JwtAuthenticationFilter}: подпись и срок
+ * проверяет {@link JwtTokenExtractor}, затем учитываются отзыв, версия токенов пользователя и
+ * {@link JwtTokenValidator}. Результаты кэшируются на {@code introspection.cache-ttl-millis}, но не дольше срока
+ * действия токена. Для активного результата из кэша отзыв и версия токенов проверяются заново - это поиск в памяти,
+ * поэтому выход пользователя на этом экземпляре действует сразу; изменения на других экземплярах сбрасывают кэш
+ * событиями инвалидации.
+ */
+@Service
+public class TokenIntrospectionService {
+    /**
+     * Класс для извлечения данных из JWT-токенов.
+     */
+    private final JwtTokenExtractor tokenExtractor;
+
+    /**
+     * Класс для валидации JWT-токенов.
+     */
+    private final JwtTokenValidator tokenValidator;
+
+    /**
+     * Класс для получения данных о пользователях.
+     */
+    private final UserDetailsServiceImpl userDetailsService;
+
+    /**
+     * Сервис отзыва access токенов.
+     */
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Сервис версий токенов пользователей.
+     */
+    private final TokenEpochService tokenEpochService;
+
+    /**
+     * Хранилище непрозрачных access токенов.
+     */
+    private final OpaqueTokenStore opaqueTokenStore;
+
+    /**
+     * Максимальное число токенов в одном запросе.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * Время жизни результата в кэше в миллисекундах.
+     */
+    private final long cacheTtlMillis;
+
+    /**
+     * Максимальное число результатов в кэше.
+     */
+    private final int cacheMaxSize;
+
+    /**
+     * Источник текущего времени в миллисекундах эпохи.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Кэш результатов по токену.
+     */
+    private final Map<String, CachedIntrospection> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Результат интроспекции в кэше.
+     *
+     * @param result            - результат
+     * @param subject           - username владельца активного токена
+     * @param jti               - идентификатор активного JWT
+     * @param tokenVersion      - версия токенов пользователя из активного токена
+     * @param cachedUntilMillis - момент, до которого результат можно отдавать из кэша
+     */
+    private record CachedIntrospection(TokenIntrospection result,
+                                       String subject,
+                                       String jti,
+                                       int tokenVersion,
+                                       long cachedUntilMillis) {
+    }
+
+    @Autowired
+    public TokenIntrospectionService(final JwtTokenExtractor tokenExtractor,
+                                     final JwtTokenValidator tokenValidator,
+                                     final UserDetailsServiceImpl userDetailsService,
+                                     final TokenRevocationService tokenRevocationService,
+                                     final TokenEpochService tokenEpochService,
+                                     final OpaqueTokenStore opaqueTokenStore,
+                                     final IntrospectionProperties properties) {
+        this(tokenExtractor, tokenValidator, userDetailsService, tokenRevocationService, tokenEpochService,
+                opaqueTokenStore, properties, System::currentTimeMillis);
+    }
+
+    TokenIntrospectionService(final JwtTokenExtractor tokenExtractor,
+                              final JwtTokenValidator tokenValidator,
+                              final UserDetailsServiceImpl userDetailsService,
+                              final TokenRevocationService tokenRevocationService,
+                              final TokenEpochService tokenEpochService,
+                              final OpaqueTokenStore opaqueTokenStore,
+                              final IntrospectionProperties properties,
+                              final LongSupplier clock) {
+        this.tokenExtractor = tokenExtractor;
+        this.tokenValidator = tokenValidator;
+        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.tokenEpochService = tokenEpochService;
+        this.opaqueTokenStore = opaqueTokenStore;
+        this.maxBatchSize = properties.maxBatchSize();
+        this.cacheTtlMillis = properties.cacheTtlMillis();
+        this.cacheMaxSize = properties.cacheMaxSize();
+        this.clock = clock;
+    }
+
+    /**
+     * Проверить пакет токенов. Повторяющиеся в пакете токены проверяются один раз.
+     *
+     * @param tokens - токены
+     * @return результаты в порядке токенов
+     */
+    public List<TokenIntrospection> introspect(final List<String> tokens) {
+        if (tokens.size() > maxBatchSize) {
+            throw new IntrospectionBatchTooLargeException(
+                    String.format("В запросе больше %d токенов", maxBatchSize));
+        }
+        long now = clock.getAsLong();
+        Map<String, TokenIntrospection> resolved = new HashMap<>();
+        List<TokenIntrospection> results = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            results.add(resolved.computeIfAbsent(token, key -> introspect(key, now)));
+        }
+        return results;
+    }
+
+    /**
+     * Проверить один токен.
+     *
+     * @param token - токен
+     * @return результат
+     */
+    public TokenIntrospection introspect(final String token) {
+        return introspect(token, clock.getAsLong());
+    }
+
+    /**
+     * Сколько секунд вызывающий сервис может кэшировать результаты: не дольше времени жизни кэша
+     * и не дольше срока действия любого из активных токенов.
+     *
+     * @param results - результаты интроспекции
+     * @return время кэширования в секундах
+     */
+    public long maxAgeSeconds(final List<TokenIntrospection> results) {
+        long nowSeconds = TimeUnit.MILLISECONDS.toSeconds(clock.getAsLong());
+        long maxAge = TimeUnit.MILLISECONDS.toSeconds(cacheTtlMillis);
+        for (TokenIntrospection result : results) {
+            if (result.active() && result.expiresAt() != null) {
+                maxAge = Math.min(maxAge, result.expiresAt() - nowSeconds);
+            }
+        }
+        return Math.max(0, maxAge);
+    }
+
+    /**
+     * Сбросить кэш: изменились пользователь, версия его токенов, отзывы или ключ подписи.
+     *
+     * @param event - событие инвалидации
+     */
+    @EventListener
+    public void onInvalidation(final InvalidationEvent event) {
+        cache.clear();
+    }
+
+    /**
+     * Проверить токен, используя кэш.
+     *
+     * @param token - токен
+     * @param now   - текущее время в миллисекундах
+     * @return результат
+     */
+    private TokenIntrospection introspect(final String token, final long now) {
+        CachedIntrospection cached = cache.get(token);
+        if (cached != null && cached.cachedUntilMillis() > now) {
+            if (cached.result().active() && !isStillCurrent(token, cached)) {
+                cache.remove(token, cached);
+                return TokenIntrospection.INACTIVE;
+            }
+            return cached.result();
+        }
+
+        CachedIntrospection computed = OpaqueTokenStore.isOpaque(token)
+                ? introspectOpaque(token, now)
+                : introspectJwt(token, now);
+        put(token, computed, now);
+        return computed.result();
+    }
+
+    /**
+     * Проверить JWT-токен.
+     *
+     * @param token - токен
+     * @param now   - текущее время в миллисекундах
+     * @return результат
+     */
+    private CachedIntrospection introspectJwt(final String token, final long now) {
+        if (!(tokenExtractor.verify(token) instanceof TokenVerification.Valid valid)) {
+            return inactive(now);
+        }
+        Claims claims = valid.claims();
+        String subject = claims.getSubject();
+        int tokenVersion = JwtTokenExtractor.tokenVersion(claims);
+        if (subject == null
+                || tokenRevocationService.isRevoked(claims.getId())
+                || !tokenEpochService.isCurrent(subject, tokenVersion)) {
+            return inactive(now);
+        }
+        UserDetails userDetails = loadUser(subject);
+        if (userDetails == null || !tokenValidator.isValid(claims, userDetails)) {
+            return inactive(now);
+        }
+        return active(userDetails, claims.getId(), tokenVersion, JwtTokenExtractor.expirationMillis(claims), now);
+    }
+
+    /**
+     * Проверить непрозрачный токен.
+     *
+     * @param token - токен
+     * @param now   - текущее время в миллисекундах
+     * @return результат
+     */
+    private CachedIntrospection introspectOpaque(final String token, final long now) {
+        OpaqueSession session = opaqueTokenStore.resolve(token);
+        if (session == null || !tokenEpochService.isCurrent(session.username(), session.tokenVersion())) {
+            return inactive(now);
+        }
+        UserDetails userDetails = loadUser(session.username());
+        if (userDetails == null
+                || userDetails instanceof UserEntity userEntity
+                && session.tokenVersion() < userEntity.getTokenVersion()) {
+            return inactive(now);
+        }
+        return active(userDetails, null, session.tokenVersion(), session.expiresAtMillis(), now);
+    }
+
+    /**
+     * Принимается ли по-прежнему токен с активным результатом из кэша.
+     *
+     * @param token  - токен
+     * @param cached - результат из кэша
+     * @return false, если токен отозван или версия токенов пользователя увеличилась
+     */
+    private boolean isStillCurrent(final String token, final CachedIntrospection cached) {
+        boolean revoked = OpaqueTokenStore.isOpaque(token)
+                ? opaqueTokenStore.resolve(token) == null
+                : tokenRevocationService.isRevoked(cached.jti());
+        return !revoked && tokenEpochService.isCurrent(cached.subject(), cached.tokenVersion());
+    }
+
+    /**
+     * Загрузить пользователя.
+     *
+     * @param username - username
+     * @return данные пользователя или null, если пользователь не найден
+     */
+    private UserDetails loadUser(final String username) {
+        try {
+            return userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Результат для активного токена.
+     *
+     * @param userDetails     - данные владельца
+     * @param jti             - идентификатор JWT или null для непрозрачного токена
+     * @param tokenVersion    - версия токенов из токена
+     * @param expiresAtMillis - окончание времени жизни токена в миллисекундах
+     * @param now             - текущее время в миллисекундах
+     * @return результат для кэша
+     */
+    private CachedIntrospection active(final UserDetails userDetails,
+                                       final String jti,
+                                       final int tokenVersion,
+                                       final long expiresAtMillis,
+                                       final long now) {
+        TokenIntrospection result = new TokenIntrospection(
+                true,
+                userDetails.getUsername(),
+                userDetails instanceof UserEntity userEntity ? userEntity.getRole() : null,
+                expiresAtMillis == Long.MAX_VALUE ? null : TimeUnit.MILLISECONDS.toSeconds(expiresAtMillis));
+        return new CachedIntrospection(result, userDetails.getUsername(), jti, tokenVersion,
+                Math.min(now + cacheTtlMillis, expiresAtMillis));
+    }
+
+    /**
+     * Результат для неактивного токена.
+     *
+     * @param now - текущее время в миллисекундах
+     * @return результат для кэша
+     */
+    private CachedIntrospection inactive(final long now) {
+        return new CachedIntrospection(TokenIntrospection.INACTIVE, null, null, 0, now + cacheTtlMillis);
+    }
+
+    /**
+     * Положить результат в кэш. При переполнении сначала удаляются устаревшие записи, затем кэш очищается целиком.
+     *
+     * @param token  - токен
+     * @param cached - результат
+     * @param now    - текущее время в миллисекундах
+     */
+    private void put(final String token, final CachedIntrospection cached, final long now) {
+        if (cache.size() >= cacheMaxSize) {
+            cache.values().removeIf(entry -> entry.cachedUntilMillis() <= now);
+            if (cache.size() >= cacheMaxSize) {
+                cache.clear();
+            }
+        }
+        cache.put(token, cached);
+    }
+}
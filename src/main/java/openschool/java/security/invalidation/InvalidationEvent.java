@@ -0,0 +1,43 @@
+package openschool.java.security.invalidation;
+
+/**
+ * Событие инвалидации локальных кэшей, рассылаемое всем экземплярам сервиса.
+ *
+ * @param type            - тип события
+ * @param key             - ключ инвалидируемой записи: username или jti
+ * @param expiresAtMillis - окончание времени жизни отозванного токена в миллисекундах, только для TOKEN_REVOKED
+ */
+public record InvalidationEvent(Type type, String key, Long expiresAtMillis) {
+
+    /**
+     * Тип события инвалидации.
+     */
+    public enum Type {
+        /**
+         * Изменены данные пользователя или версия его токенов.
+         */
+        USER_CHANGED,
+
+        /**
+         * Отозван access токен.
+         */
+        TOKEN_REVOKED,
+
+        /**
+         * События могли быть потеряны, например при переподключении, и все кэши нужно сбросить.
+         */
+        RESYNC
+    }
+
+    public static InvalidationEvent userChanged(final String username) {
+        return new InvalidationEvent(Type.USER_CHANGED, username, null);
+    }
+
+    public static InvalidationEvent tokenRevoked(final String jti, final long expiresAtMillis) {
+        return new InvalidationEvent(Type.TOKEN_REVOKED, jti, expiresAtMillis);
+    }
+
+    public static InvalidationEvent resync() {
+        return new InvalidationEvent(Type.RESYNC, null, null);
+    }
+}
@@ -0,0 +1,223 @@
+package openschool.java.security.invalidation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Получение событий инвалидации через Postgres {@code LISTEN}.
+ * <p>
+ * Слушает канал на отдельном соединении с основной БД, которое удерживается все время подписки. Соединение
+ * открывается с настройками {@link HikariDataSource}, но вне пула: иначе подписка постоянно занимала бы одно
+ * соединение пула, которое семафор ограничения параллельного доступа считает свободным. Полученные события
+ * публикуются как события приложения Spring. После переподключения публикуется
+ * {@link InvalidationEvent.Type#RESYNC}, так как уведомления за время разрыва потеряны.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "invalidation.enabled", havingValue = "true")
+public class InvalidationListener {
+    /**
+     * Максимальное время ожидания уведомления за одну итерацию в миллисекундах.
+     */
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+
+    /**
+     * Максимальная пауза перед переподключением в миллисекундах.
+     */
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+
+    /**
+     * Основной DataSource.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * Публикация событий приложения.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Класс для чтения событий из JSON-формата.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Канал уведомлений.
+     */
+    private final String channel;
+
+    /**
+     * Поток, слушающий канал.
+     */
+    private volatile Thread thread;
+
+    public InvalidationListener(final DataSource dataSource,
+                                final ApplicationEventPublisher eventPublisher,
+                                final ObjectMapper objectMapper,
+                                @Value("${invalidation.channel}") final String channel) {
+        this.dataSource = dataSource;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    /**
+     * Запустить поток, слушающий канал, после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Поток назначается до запуска: listen() работает, пока thread не null
+        Thread listener = Thread.ofPlatform()
+                .name("invalidation-listener")
+                .daemon()
+                .unstarted(this::listen);
+        thread = listener;
+        listener.start();
+    }
+
+    /**
+     * Остановить поток, слушающий канал.
+     */
+    @PreDestroy
+    public void stop() {
+        Thread current = thread;
+        thread = null;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    /**
+     * Слушать канал, переподключаясь при ошибках.
+     */
+    private void listen() {
+        long reconnectDelayMillis = 1000;
+        boolean reconnect = false;
+        while (thread != null) {
+            Connection connection = null;
+            try {
+                connection = openConnection();
+                if (reconnect) {
+                    eventPublisher.publishEvent(InvalidationEvent.resync());
+                }
+                reconnect = true;
+                reconnectDelayMillis = 1000;
+                poll(connection.unwrap(PGConnection.class));
+            } catch (SQLException exception) {
+                log.warn("Соединение для событий инвалидации прервано: {}", exception.getMessage());
+            } finally {
+                release(connection);
+            }
+            try {
+                Thread.sleep(reconnectDelayMillis);
+            } catch (InterruptedException exception) {
+                return;
+            }
+            reconnectDelayMillis = Math.min(reconnectDelayMillis * 2, MAX_RECONNECT_DELAY_MILLIS);
+        }
+    }
+
+    /**
+     * Открыть соединение с основной БД и подписаться на канал.
+     *
+     * @return соединение
+     * @throws SQLException если соединение не удалось получить
+     */
+    private Connection openConnection() throws SQLException {
+        Connection connection = listenDataSource().getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN \"" + channel.replace("\"", "\"\"") + "\"");
+        } catch (SQLException exception) {
+            connection.close();
+            throw exception;
+        }
+        log.info("Подписка на события инвалидации в канале {}", channel);
+        return connection;
+    }
+
+    /**
+     * Источник соединения для подписки: отдельные соединения с основной БД с настройками ее пула Hikari.
+     *
+     * @return DataSource вне пула или исходный DataSource, если это не Hikari
+     * @throws SQLException если DataSource не удалось развернуть
+     */
+    DataSource listenDataSource() throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            return dataSource;
+        }
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        DriverManagerDataSource listenDataSource =
+                new DriverManagerDataSource(pool.getJdbcUrl(), pool.getUsername(), pool.getPassword());
+        listenDataSource.setConnectionProperties(pool.getDataSourceProperties());
+        return listenDataSource;
+    }
+
+    /**
+     * Отписаться от канала и закрыть соединение.
+     * <p>
+     * Подписка {@code LISTEN} живет в сессии Postgres: если DataSource не Hikari и соединение возвращается в пул,
+     * без {@code UNLISTEN} оно продолжало бы накапливать уведомления.
+     *
+     * @param connection - соединение или null
+     */
+    private void release(final Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try (connection; Statement statement = connection.createStatement()) {
+            statement.execute("UNLISTEN *");
+        } catch (SQLException exception) {
+            log.debug("Не удалось отписаться от событий инвалидации: {}", exception.getMessage());
+        }
+    }
+
+    /**
+     * Получать уведомления, пока поток не остановлен.
+     *
+     * @param connection - соединение с подпиской на канал
+     * @throws SQLException если соединение прервано
+     */
+    private void poll(final PGConnection connection) throws SQLException {
+        while (thread != null) {
+            PGNotification[] notifications = connection.getNotifications(POLL_TIMEOUT_MILLIS);
+            if (notifications == null) {
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                dispatch(notification.getParameter());
+            }
+        }
+    }
+
+    /**
+     * Опубликовать событие из уведомления как событие приложения.
+     *
+     * @param payload - содержимое уведомления
+     */
+    void dispatch(final String payload) {
+        try {
+            eventPublisher.publishEvent(objectMapper.readValue(payload, InvalidationEvent.class));
+        } catch (IOException exception) {
+            log.warn("Некорректное событие инвалидации {}: {}", payload, exception.getMessage());
+        } catch (RuntimeException exception) {
+            log.error("Ошибка обработки события инвалидации {}", payload, exception);
+        }
+    }
+}
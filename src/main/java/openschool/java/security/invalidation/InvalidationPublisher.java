@@ -0,0 +1,104 @@
+package openschool.java.security.invalidation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import openschool.java.security.database.AfterCommit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Публикация событий инвалидации через Postgres {@code NOTIFY}.
+ * <p>
+ * {@link #publish(InvalidationEvent)} отправляет уведомление в текущей транзакции, и слушатели получают его только
+ * после ее фиксации. {@link #publishAfterCommit(InvalidationEvent)} отправляет уведомление отдельной транзакцией
+ * после фиксации текущей, если вместе с событием нужно изменить состояние в памяти.
+ */
+@Slf4j
+@Service
+public class InvalidationPublisher {
+    /**
+     * Клиент JDBC.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Класс для записи событий в JSON-формат.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Менеджер транзакций для отправки уведомления после фиксации основной: ее соединение уже нельзя использовать.
+     * Получается при первом использовании, так как публикатор нужен слушателю сущностей, который создается
+     * вместе с EntityManagerFactory раньше менеджера транзакций.
+     */
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+
+    /**
+     * Включена ли рассылка событий.
+     */
+    private final boolean enabled;
+
+    /**
+     * Канал уведомлений.
+     */
+    private final String channel;
+
+    public InvalidationPublisher(final JdbcTemplate jdbcTemplate,
+                                 final ObjectMapper objectMapper,
+                                 final ObjectProvider<PlatformTransactionManager> transactionManager,
+                                 @Value("${invalidation.enabled}") final boolean enabled,
+                                 @Value("${invalidation.channel}") final String channel) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionManager = transactionManager;
+        this.enabled = enabled;
+        this.channel = channel;
+    }
+
+    /**
+     * Разослать событие всем экземплярам сервиса, включая текущий.
+     *
+     * @param event - событие
+     */
+    public void publish(final InvalidationEvent event) {
+        if (enabled) {
+            send(event);
+        }
+    }
+
+    /**
+     * Разослать событие всем экземплярам сервиса после фиксации текущей транзакции.
+     * При откате транзакции событие не рассылается.
+     *
+     * @param event - событие
+     */
+    public void publishAfterCommit(final InvalidationEvent event) {
+        if (enabled) {
+            AfterCommit.run(() -> {
+                TransactionTemplate notifyTransaction = new TransactionTemplate(transactionManager.getObject());
+                notifyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                notifyTransaction.executeWithoutResult(status -> send(event));
+            });
+        }
+    }
+
+    /**
+     * Отправить уведомление в текущей транзакции.
+     *
+     * @param event - событие
+     */
+    private void send(final InvalidationEvent event) {
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null,
+                    channel, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException exception) {
+            log.warn("Не удалось сериализовать событие инвалидации {}: {}", event, exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package openschool.java.security.invalidation;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import openschool.java.security.user.domain.UserEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA-слушатель изменений пользователя, рассылающий событие инвалидации.
+ * <p>
+ * Массовые JPQL-обновления слушатель не видит, их события публикуются явно.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserEntityChangeListener {
+    /**
+     * Публикация событий инвалидации.
+     */
+    private final InvalidationPublisher invalidationPublisher;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(final UserEntity userEntity) {
+        invalidationPublisher.publish(InvalidationEvent.userChanged(userEntity.getUsername()));
+    }
+}
@@ -0,0 +1,110 @@
+package openschool.java.security.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Конфигурация Jackson.
+ * <p>
+ * Кроме JSON сервис принимает и отдает {@code application/cbor} и {@code application/x-jackson-smile} для вызовов
+ * между сервисами. ObjectMapper для бинарных форматов строится тем же {@link Jackson2ObjectMapperBuilder}, что и
+ * JSON, поэтому модули и настройки Spring Boot действуют во всех форматах.
+ */
+@Configuration
+public class JsonConfiguration {
+    /**
+     * Тип содержимого Smile.
+     */
+    private static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    /**
+     * Модуль Blackbird: заменяет рефлексивный доступ к свойствам сгенерированными через LambdaMetafactory
+     * аксессорами. Spring Boot регистрирует его в ObjectMapper автоматически.
+     *
+     * @return модуль Blackbird
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Конвертер CBOR для Spring MVC.
+     *
+     * @param builder - построитель ObjectMapper Spring Boot
+     * @return конвертер CBOR
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+    }
+
+    /**
+     * Конвертер Smile для Spring MVC.
+     *
+     * @param builder - построитель ObjectMapper Spring Boot
+     * @return конвертер Smile
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(smileMapper(builder));
+    }
+
+    /**
+     * Кодеки CBOR и Smile для WebFlux.
+     * <p>
+     * Пользовательские кодеки WebFlux опрашиваются раньше стандартных, поэтому первым регистрируется JSON:
+     * если {@code Accept} допускает любой тип, ответ остается JSON. Типы содержимого бинарных кодеков задаются явно,
+     * иначе кодек с переданным ObjectMapper объявляет JSON. Smile заменяет стандартный кодек на его месте,
+     * CBOR пишется {@link ReactiveCborEncoder}.
+     *
+     * @param objectMapper - ObjectMapper для JSON
+     * @param builder      - построитель ObjectMapper Spring Boot
+     * @return настройка кодеков
+     */
+    @Bean
+    public CodecCustomizer binaryFormatCodecCustomizer(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = cborMapper(builder);
+        ObjectMapper smileMapper = smileMapper(builder);
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new ReactiveCborEncoder(cborMapper));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, APPLICATION_SMILE));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, APPLICATION_SMILE));
+        };
+    }
+
+    /**
+     * Построить ObjectMapper для CBOR.
+     *
+     * @param builder - построитель ObjectMapper Spring Boot
+     * @return ObjectMapper для CBOR
+     */
+    public static ObjectMapper cborMapper(final Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory()).build();
+    }
+
+    /**
+     * Построить ObjectMapper для Smile.
+     *
+     * @param builder - построитель ObjectMapper Spring Boot
+     * @return ObjectMapper для Smile
+     */
+    public static ObjectMapper smileMapper(final Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new SmileFactory()).build();
+    }
+}
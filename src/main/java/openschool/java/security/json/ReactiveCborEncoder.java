@@ -0,0 +1,45 @@
+package openschool.java.security.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Кодировщик CBOR для тел ответов WebFlux.
+ * <p>
+ * {@link Jackson2CborEncoder} кодирует только отдельное значение, а WebFlux пишет тело ответа через
+ * {@link #encode}. Mono кодируется как одно значение, Flux собирается в массив CBOR.
+ */
+public class ReactiveCborEncoder extends Jackson2CborEncoder {
+
+    public ReactiveCborEncoder(final ObjectMapper mapper) {
+        super(mapper, MediaType.APPLICATION_CBOR);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(final Publisher<?> inputStream,
+                                   final DataBufferFactory bufferFactory,
+                                   final ResolvableType elementType,
+                                   final @Nullable MimeType mimeType,
+                                   final @Nullable Map<String, Object> hints) {
+        if (inputStream instanceof Mono<?> mono) {
+            return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+        ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+        return Flux.from(inputStream)
+                .collectList()
+                .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+                .flux();
+    }
+}
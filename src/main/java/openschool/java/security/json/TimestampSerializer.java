@@ -0,0 +1,129 @@
+package openschool.java.security.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Сериализатор {@link ZonedDateTime} в формате {@value #PATTERN}.
+ * <p>
+ * Строка собирается в массиве символов без {@link DateTimeFormatter}: часть с датой кэшируется для последнего
+ * встреченного дня, время и смещение записываются арифметикой. Годы вне 0-9999 и смещения с секундами
+ * форматируются через {@link DateTimeFormatter}.
+ */
+public class TimestampSerializer extends StdSerializer<ZonedDateTime> {
+    /**
+     * Формат даты и времени.
+     */
+    public static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+
+    /**
+     * Форматтер для значений вне быстрого пути.
+     */
+    private static final DateTimeFormatter FALLBACK_FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+
+    /**
+     * Длина строки: yyyy-MM-ddTHH:mm:ss.SSS+HHMM.
+     */
+    private static final int LENGTH = 28;
+
+    /**
+     * Длина части с датой: yyyy-MM-ddT.
+     */
+    private static final int DATE_LENGTH = 11;
+
+    /**
+     * Последняя отформатированная дата.
+     */
+    private volatile CachedDate cachedDate = new CachedDate(Long.MIN_VALUE, new char[DATE_LENGTH]);
+
+    public TimestampSerializer() {
+        super(ZonedDateTime.class);
+    }
+
+    @Override
+    public void serialize(final ZonedDateTime value,
+                          final JsonGenerator generator,
+                          final SerializerProvider provider) throws IOException {
+        ZonedDateTime dateTime = provider.getConfig().hasExplicitTimeZone()
+                && provider.isEnabled(SerializationFeature.WRITE_DATES_WITH_CONTEXT_TIME_ZONE)
+                ? value.withZoneSameInstant(provider.getTimeZone().toZoneId())
+                : value;
+        int offsetSeconds = dateTime.getOffset().getTotalSeconds();
+        if (dateTime.getYear() < 0 || dateTime.getYear() > 9999 || offsetSeconds % 60 != 0) {
+            generator.writeString(FALLBACK_FORMATTER.format(dateTime));
+            return;
+        }
+
+        char[] buffer = new char[LENGTH];
+        System.arraycopy(dateChars(dateTime.toLocalDate()), 0, buffer, 0, DATE_LENGTH);
+        LocalTime time = dateTime.toLocalTime();
+        writeDigits(buffer, 11, time.getHour(), 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, time.getMinute(), 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, time.getSecond(), 2);
+        buffer[19] = '.';
+        writeDigits(buffer, 20, time.getNano() / 1_000_000, 3);
+        buffer[23] = offsetSeconds < 0 ? '-' : '+';
+        int offsetMinutes = Math.abs(offsetSeconds) / 60;
+        writeDigits(buffer, 24, offsetMinutes / 60, 2);
+        writeDigits(buffer, 26, offsetMinutes % 60, 2);
+        generator.writeString(buffer, 0, LENGTH);
+    }
+
+    /**
+     * Получить символы даты из кэша или отформатировать и закэшировать их.
+     *
+     * @param date - дата
+     * @return символы yyyy-MM-ddT
+     */
+    private char[] dateChars(final LocalDate date) {
+        long epochDay = date.toEpochDay();
+        CachedDate cached = cachedDate;
+        if (cached.epochDay() != epochDay) {
+            char[] chars = new char[DATE_LENGTH];
+            writeDigits(chars, 0, date.getYear(), 4);
+            chars[4] = '-';
+            writeDigits(chars, 5, date.getMonthValue(), 2);
+            chars[7] = '-';
+            writeDigits(chars, 8, date.getDayOfMonth(), 2);
+            chars[10] = 'T';
+            cached = new CachedDate(epochDay, chars);
+            cachedDate = cached;
+        }
+        return cached.chars();
+    }
+
+    /**
+     * Записать число с ведущими нулями.
+     *
+     * @param buffer - массив символов
+     * @param offset - позиция первой цифры
+     * @param value  - неотрицательное число
+     * @param digits - число цифр
+     */
+    private static void writeDigits(final char[] buffer, final int offset, final int value, final int digits) {
+        int remainder = value;
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + remainder % 10);
+            remainder /= 10;
+        }
+    }
+
+    /**
+     * Отформатированная дата.
+     *
+     * @param epochDay - номер дня от начала эпохи
+     * @param chars    - символы yyyy-MM-ddT
+     */
+    private record CachedDate(long epochDay, char[] chars) {
+    }
+}
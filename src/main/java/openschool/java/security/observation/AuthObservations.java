@@ -0,0 +1,101 @@
+package openschool.java.security.observation;
+
+/**
+ * Имена наблюдений (observations) и тегов этапов аутентификации.
+ * <p>
+ * По каждому наблюдению Micrometer строит таймер с тем же именем.
+ */
+public final class AuthObservations {
+    /**
+     * Разбор и проверка подписи JWT-токена.
+     */
+    public static final String TOKEN_VERIFY = "auth.token.verify";
+
+    /**
+     * Загрузка пользователя из БД.
+     */
+    public static final String USER_LOAD = "auth.user.load";
+
+    /**
+     * Проверка пароля.
+     */
+    public static final String PASSWORD_VERIFY = "auth.password.verify";
+
+    /**
+     * Хэширование пароля.
+     */
+    public static final String PASSWORD_ENCODE = "auth.password.encode";
+
+    /**
+     * Сохранение refresh токена.
+     */
+    public static final String REFRESH_TOKEN_PERSIST = "auth.refresh-token.persist";
+
+    /**
+     * Обработка запроса фильтром исключений, включая всю последующую цепочку.
+     */
+    public static final String EXCEPTION_HANDLER_FILTER = "auth.filter.exception-handler";
+
+    /**
+     * JWT-аутентификация запроса в фильтре.
+     */
+    public static final String JWT_FILTER = "auth.filter.jwt";
+
+    /**
+     * Вызов публичного метода use case.
+     */
+    public static final String USE_CASE_CALL = "use-case.call";
+
+    /**
+     * Вызов метода репозитория.
+     */
+    public static final String REPOSITORY_CALL = "repository.call";
+
+    /**
+     * Счетчик исходов обработки запроса фильтром исключений.
+     */
+    public static final String FILTER_OUTCOME = "auth.filter.outcome";
+
+    /**
+     * Тег исхода этапа.
+     */
+    public static final String OUTCOME = "outcome";
+
+    /**
+     * Тег причины отклонения токена.
+     */
+    public static final String REASON = "reason";
+
+    /**
+     * Значение тега для отсутствующего значения.
+     */
+    public static final String NONE = "none";
+
+    /**
+     * Тег стоимости BCrypt.
+     */
+    public static final String BCRYPT_COST = "bcrypt.cost";
+
+    /**
+     * Тег попадания в кэш проверенных токенов.
+     */
+    public static final String TOKEN_CACHE_HIT = "token.cache.hit";
+
+    /**
+     * Тег имени репозитория.
+     */
+    public static final String REPOSITORY = "repository";
+
+    /**
+     * Тег имени метода.
+     */
+    public static final String METHOD = "method";
+
+    /**
+     * Атрибут числа строк, возвращенных репозиторием.
+     */
+    public static final String DB_ROWS = "db.rows";
+
+    private AuthObservations() {
+    }
+}
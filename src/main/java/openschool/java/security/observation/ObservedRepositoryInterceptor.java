@@ -0,0 +1,73 @@
+package openschool.java.security.observation;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Перехватчик вызовов репозитория, оборачивающий каждый вызов в наблюдение
+ * с числом возвращенных строк.
+ */
+@RequiredArgsConstructor
+public class ObservedRepositoryInterceptor implements MethodInterceptor {
+    /**
+     * Реестр наблюдений. Получается лениво, чтобы не инициализировать его раньше репозиториев.
+     */
+    private final Supplier<ObservationRegistry> observationRegistry;
+
+    /**
+     * Имя интерфейса репозитория.
+     */
+    private final String repositoryName;
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+        String methodName = invocation.getMethod().getName();
+        Observation observation = Observation.createNotStarted(
+                        AuthObservations.REPOSITORY_CALL, observationRegistry.get())
+                .contextualName(repositoryName + "#" + methodName)
+                .lowCardinalityKeyValue(AuthObservations.REPOSITORY, repositoryName)
+                .lowCardinalityKeyValue(AuthObservations.METHOD, methodName);
+
+        return observation.observeChecked(() -> {
+            Object result = invocation.proceed();
+            Integer rows = countRows(result);
+            if (rows != null) {
+                observation.highCardinalityKeyValue(AuthObservations.DB_ROWS, String.valueOf(rows));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Посчитать число строк в результате вызова репозитория.
+     *
+     * @param result - результат вызова
+     * @return число строк или null, если результат не является выборкой сущностей
+     */
+    private static Integer countRows(final Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Boolean || result instanceof Number) {
+            return null;
+        }
+        return 1;
+    }
+}
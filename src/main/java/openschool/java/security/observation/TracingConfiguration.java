@@ -0,0 +1,60 @@
+package openschool.java.security.observation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Конфигурация трассировки.
+ */
+@Configuration
+public class TracingConfiguration {
+
+    /**
+     * Добавляет в каждый Spring Data репозиторий перехватчик, создающий наблюдение на каждый вызов.
+     *
+     * @param observationRegistry - реестр наблюдений
+     * @return BeanPostProcessor для фабрик репозиториев
+     */
+    @Bean
+    public static BeanPostProcessor observedRepositoryPostProcessor(
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    new ObservedRepositoryInterceptor(
+                                            () -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP),
+                                            repositoryInformation.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Экспортер спанов в локальный файл.
+     *
+     * @param path         - путь к файлу
+     * @param objectMapper - класс для записи спанов в JSON-формат
+     * @return FileSpanExporter
+     * @throws IOException если файл не удалось открыть
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter.file.path")
+    public FileSpanExporter fileSpanExporter(@Value("${tracing.exporter.file.path}") Path path,
+                                             ObjectMapper objectMapper) throws IOException {
+        return new FileSpanExporter(path, objectMapper);
+    }
+}
@@ -0,0 +1,45 @@
+package openschool.java.security.observation.jfr;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Событие JFR этапа аутентификации, построенное по наблюдению Micrometer.
+ * <p>
+ * Длительность события совпадает с длительностью наблюдения, поля заполняются из его тегов при фиксации.
+ */
+@Category({"OpenSchool", "Authentication"})
+@StackTrace(false)
+abstract class AuthStageEvent extends Event {
+    /**
+     * Класс исключения, завершившего этап.
+     */
+    @Label("Error")
+    String error;
+
+    /**
+     * Заполнить поля события из наблюдения.
+     *
+     * @param context - контекст наблюдения
+     */
+    void fill(final Observation.Context context) {
+        Throwable throwable = context.getError();
+        error = throwable == null ? null : throwable.getClass().getName();
+    }
+
+    /**
+     * Получить значение тега наблюдения.
+     *
+     * @param context - контекст наблюдения
+     * @param key     - имя тега
+     * @return значение тега или null
+     */
+    static String tag(final Observation.Context context, final String key) {
+        KeyValue keyValue = context.getLowCardinalityKeyValue(key);
+        return keyValue == null ? null : keyValue.getValue();
+    }
+}
@@ -0,0 +1,52 @@
+package openschool.java.security.observation.jfr;
+
+import io.micrometer.observation.Observation;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import openschool.java.security.observation.AuthObservations;
+
+/**
+ * Отклонение запроса фильтром безопасности.
+ * <p>
+ * Длительность - обработка запроса цепочкой фильтров до отклонения.
+ */
+@Name(FilterRejectionEvent.NAME)
+@Label("Filter Rejection")
+@Description("Запрос отклонен фильтром исключений")
+final class FilterRejectionEvent extends AuthStageEvent {
+    /**
+     * Имя события.
+     */
+    static final String NAME = "openschool.auth.FilterRejection";
+
+    /**
+     * Исход обработки запроса: invalid_jwt или error.
+     */
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Причина отклонения токена.
+     */
+    @Label("Reason")
+    String reason;
+
+    @Override
+    void fill(final Observation.Context context) {
+        super.fill(context);
+        outcome = tag(context, AuthObservations.OUTCOME);
+        reason = tag(context, AuthObservations.REASON);
+    }
+
+    /**
+     * Отклонен ли запрос.
+     *
+     * @param context - контекст наблюдения фильтра исключений
+     * @return true, если исход отличается от passed
+     */
+    static boolean isRejected(final Observation.Context context) {
+        String outcome = tag(context, AuthObservations.OUTCOME);
+        return outcome != null && !"passed".equals(outcome);
+    }
+}
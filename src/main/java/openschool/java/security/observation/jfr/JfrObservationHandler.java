@@ -0,0 +1,85 @@
+package openschool.java.security.observation.jfr;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import jdk.jfr.EventType;
+import openschool.java.security.observation.AuthObservations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Обработчик наблюдений, записывающий этапы аутентификации событиями JFR.
+ * <p>
+ * События попадают в ту же запись, что и события GC и блокировок JVM, поэтому всплески задержки можно
+ * сопоставить с ними по одной записи. Если запись не ведется или событие выключено в ее настройках,
+ * обработчик отказывается от наблюдения в {@link #supportsContext} и событие не создается.
+ */
+@Component
+public class JfrObservationHandler implements ObservationHandler<Observation.Context> {
+    private static final EventType TOKEN_VERIFY = EventType.getEventType(TokenVerifyEvent.class);
+    private static final EventType USER_LOAD = EventType.getEventType(UserLoadEvent.class);
+    private static final EventType PASSWORD_VERIFY = EventType.getEventType(PasswordVerifyEvent.class);
+    private static final EventType REFRESH_TOKEN_PERSIST = EventType.getEventType(RefreshTokenPersistEvent.class);
+    private static final EventType FILTER_REJECTION = EventType.getEventType(FilterRejectionEvent.class);
+
+    @Override
+    public boolean supportsContext(final Observation.Context context) {
+        EventType eventType = eventType(context.getName());
+        return eventType != null && eventType.isEnabled();
+    }
+
+    @Override
+    public void onStart(final Observation.Context context) {
+        AuthStageEvent event = newEvent(context.getName());
+        if (event != null) {
+            event.begin();
+            context.put(AuthStageEvent.class, event);
+        }
+    }
+
+    @Override
+    public void onStop(final Observation.Context context) {
+        if (!(context.remove(AuthStageEvent.class) instanceof AuthStageEvent event)) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()
+                && (!(event instanceof FilterRejectionEvent) || FilterRejectionEvent.isRejected(context))) {
+            event.fill(context);
+            event.commit();
+        }
+    }
+
+    /**
+     * Получить тип события по имени наблюдения.
+     *
+     * @param observationName - имя наблюдения
+     * @return тип события или null, если наблюдение не записывается в JFR
+     */
+    private static EventType eventType(final String observationName) {
+        return switch (observationName) {
+            case AuthObservations.TOKEN_VERIFY -> TOKEN_VERIFY;
+            case AuthObservations.USER_LOAD -> USER_LOAD;
+            case AuthObservations.PASSWORD_VERIFY -> PASSWORD_VERIFY;
+            case AuthObservations.REFRESH_TOKEN_PERSIST -> REFRESH_TOKEN_PERSIST;
+            case AuthObservations.EXCEPTION_HANDLER_FILTER -> FILTER_REJECTION;
+            case null, default -> null;
+        };
+    }
+
+    /**
+     * Создать событие по имени наблюдения.
+     *
+     * @param observationName - имя наблюдения
+     * @return событие или null, если наблюдение не записывается в JFR
+     */
+    private static AuthStageEvent newEvent(final String observationName) {
+        return switch (observationName) {
+            case AuthObservations.TOKEN_VERIFY -> new TokenVerifyEvent();
+            case AuthObservations.USER_LOAD -> new UserLoadEvent();
+            case AuthObservations.PASSWORD_VERIFY -> new PasswordVerifyEvent();
+            case AuthObservations.REFRESH_TOKEN_PERSIST -> new RefreshTokenPersistEvent();
+            case AuthObservations.EXCEPTION_HANDLER_FILTER -> new FilterRejectionEvent();
+            case null, default -> null;
+        };
+    }
+}
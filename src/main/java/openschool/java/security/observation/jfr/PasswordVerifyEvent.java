@@ -0,0 +1,40 @@
+package openschool.java.security.observation.jfr;
+
+import io.micrometer.observation.Observation;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import openschool.java.security.observation.AuthObservations;
+
+/**
+ * Проверка пароля.
+ */
+@Name(PasswordVerifyEvent.NAME)
+@Label("Password Verify")
+@Description("Проверка пароля BCrypt")
+final class PasswordVerifyEvent extends AuthStageEvent {
+    /**
+     * Имя события.
+     */
+    static final String NAME = "openschool.auth.PasswordVerify";
+
+    /**
+     * Стоимость BCrypt.
+     */
+    @Label("Cost")
+    int cost;
+
+    /**
+     * Совпал ли пароль.
+     */
+    @Label("Matched")
+    boolean matched;
+
+    @Override
+    void fill(final Observation.Context context) {
+        super.fill(context);
+        String costTag = tag(context, AuthObservations.BCRYPT_COST);
+        cost = costTag == null ? 0 : Integer.parseInt(costTag);
+        matched = "match".equals(tag(context, AuthObservations.OUTCOME));
+    }
+}
@@ -0,0 +1,18 @@
+package openschool.java.security.observation.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Сохранение refresh токена.
+ */
+@Name(RefreshTokenPersistEvent.NAME)
+@Label("Refresh Token Persist")
+@Description("Сохранение refresh токена в БД")
+final class RefreshTokenPersistEvent extends AuthStageEvent {
+    /**
+     * Имя события.
+     */
+    static final String NAME = "openschool.auth.RefreshTokenPersist";
+}
@@ -0,0 +1,39 @@
+package openschool.java.security.observation.jfr;
+
+import io.micrometer.observation.Observation;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import openschool.java.security.observation.AuthObservations;
+
+/**
+ * Проверка JWT-токена.
+ */
+@Name(TokenVerifyEvent.NAME)
+@Label("Token Verify")
+@Description("Разбор и проверка подписи JWT-токена")
+final class TokenVerifyEvent extends AuthStageEvent {
+    /**
+     * Имя события.
+     */
+    static final String NAME = "openschool.auth.TokenVerify";
+
+    /**
+     * Исход проверки: valid или причина отклонения.
+     */
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Найдены ли claims в кэше проверенных токенов.
+     */
+    @Label("Cache Hit")
+    boolean cacheHit;
+
+    @Override
+    void fill(final Observation.Context context) {
+        super.fill(context);
+        outcome = tag(context, AuthObservations.OUTCOME);
+        cacheHit = Boolean.parseBoolean(tag(context, AuthObservations.TOKEN_CACHE_HIT));
+    }
+}
@@ -0,0 +1,31 @@
+package openschool.java.security.observation.jfr;
+
+import io.micrometer.observation.Observation;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Загрузка пользователя.
+ */
+@Name(UserLoadEvent.NAME)
+@Label("User Load")
+@Description("Загрузка пользователя из БД")
+final class UserLoadEvent extends AuthStageEvent {
+    /**
+     * Имя события.
+     */
+    static final String NAME = "openschool.auth.UserLoad";
+
+    /**
+     * Найден ли пользователь.
+     */
+    @Label("Found")
+    boolean found;
+
+    @Override
+    void fill(final Observation.Context context) {
+        super.fill(context);
+        found = context.getError() == null;
+    }
+}
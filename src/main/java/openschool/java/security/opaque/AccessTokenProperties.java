@@ -0,0 +1,24 @@
+package openschool.java.security.opaque;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки выпуска access токенов.
+ *
+ * @param defaultType - тип токена, если клиент не запросил другой
+ * @param opaque      - настройки непрозрачных токенов
+ */
+@ConfigurationProperties(prefix = "access-token")
+public record AccessTokenProperties(AccessTokenType defaultType, Opaque opaque) {
+
+    /**
+     * Настройки непрозрачных токенов.
+     *
+     * @param ttlSeconds             - время жизни токена в секундах
+     * @param evictionIntervalMillis - период удаления истекших токенов и записи снимка
+     * @param snapshotPath           - файл снимка хранилища, пустое значение отключает снимки
+     * @param maxTokens              - наибольшее число токенов в хранилище
+     */
+    public record Opaque(long ttlSeconds, long evictionIntervalMillis, String snapshotPath, int maxTokens) {
+    }
+}
@@ -0,0 +1,36 @@
+package openschool.java.security.opaque;
+
+import java.util.Locale;
+
+/**
+ * Тип выпускаемого access токена.
+ */
+public enum AccessTokenType {
+    /**
+     * Подписанный JWT.
+     */
+    JWT,
+
+    /**
+     * Случайный непрозрачный токен, хранящийся в памяти сервиса.
+     */
+    OPAQUE;
+
+    /**
+     * Получить тип по значению заголовка без учета регистра.
+     *
+     * @param value - значение заголовка или null
+     * @return тип или null, если значение не задано
+     * @throws IllegalArgumentException если тип неизвестен
+     */
+    public static AccessTokenType fromHeader(final String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException(String.format("Неизвестный тип access токена %s", value));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package openschool.java.security.opaque;
+
+/**
+ * Сессия, на которую указывает непрозрачный токен.
+ *
+ * @param username        - username владельца
+ * @param tokenVersion    - версия токенов пользователя на момент выпуска
+ * @param expiresAtMillis - момент истечения в миллисекундах эпохи
+ */
+public record OpaqueSession(String username, int tokenVersion, long expiresAtMillis) {
+
+    /**
+     * Истекла ли сессия.
+     *
+     * @param nowMillis - текущее время в миллисекундах эпохи
+     * @return true, если сессия истекла
+     */
+    public boolean isExpired(final long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+}
@@ -0,0 +1,12 @@
+package openschool.java.security.opaque;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация непрозрачных access токенов.
+ */
+@Configuration
+@EnableConfigurationProperties(AccessTokenProperties.class)
+public class OpaqueTokenConfiguration {
+}
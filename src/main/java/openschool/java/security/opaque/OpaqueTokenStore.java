@@ -0,0 +1,348 @@
+package openschool.java.security.opaque;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import openschool.java.security.exception.ratelimit.TooManyRequestsException;
+import openschool.java.security.user.domain.UserEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Хранилище непрозрачных access токенов в памяти сервиса.
+ * <p>
+ * Токен - префикс {@value #TOKEN_PREFIX} и 128 случайных бит в base64url, он проверяется одним поиском
+ * в хэш-таблице по его SHA-256: сами токены не хранятся ни в памяти, ни в снимке. Число токенов ограничено,
+ * при заполненном хранилище новые токены не выпускаются до очистки. Истекшие токены удаляются периодически,
+ * а если задан файл снимка, хранилище записывается в него при каждой очистке и при остановке и восстанавливается
+ * при старте. Токены известны только выпустившему их экземпляру сервиса.
+ */
+@Slf4j
+@Service
+public class OpaqueTokenStore {
+    /**
+     * Длина токена в байтах.
+     */
+    private static final int TOKEN_LENGTH_BYTES = 16;
+
+    /**
+     * Префикс, по которому непрозрачный токен отличается от JWT.
+     */
+    public static final String TOKEN_PREFIX = "opq_";
+
+    /**
+     * Версия формата файла снимка.
+     */
+    private static final int SNAPSHOT_FORMAT_VERSION = 2;
+
+    /**
+     * Версия формата, в которой снимок хранил сами токены.
+     */
+    private static final int PLAIN_SNAPSHOT_FORMAT_VERSION = 1;
+
+    /**
+     * Алгоритм хэширования токенов.
+     */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * Источник случайных токенов.
+     */
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Кодировщик токенов.
+     */
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    /**
+     * Сессии по хэшу токена.
+     */
+    private final Map<TokenDigest, OpaqueSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Время жизни токена в миллисекундах.
+     */
+    private final long ttlMillis;
+
+    /**
+     * Наибольшее число токенов в хранилище.
+     */
+    private final int maxTokens;
+
+    /**
+     * Через сколько секунд повторить выпуск при заполненном хранилище.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Файл снимка или null, если снимки отключены.
+     */
+    private final Path snapshotPath;
+
+    /**
+     * Источник текущего времени в миллисекундах эпохи.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Изменилось ли хранилище с последнего снимка.
+     */
+    private volatile boolean dirty;
+
+    @Autowired
+    public OpaqueTokenStore(final AccessTokenProperties properties) {
+        this(properties.opaque(), System::currentTimeMillis);
+    }
+
+    OpaqueTokenStore(final AccessTokenProperties.Opaque properties, final LongSupplier clock) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(properties.ttlSeconds());
+        this.maxTokens = properties.maxTokens();
+        this.retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(properties.evictionIntervalMillis()));
+        this.snapshotPath = properties.snapshotPath() == null || properties.snapshotPath().isBlank()
+                ? null
+                : Path.of(properties.snapshotPath());
+        this.clock = clock;
+    }
+
+    /**
+     * Является ли токен непрозрачным, а не JWT.
+     *
+     * @param token - токен
+     * @return true, если токен начинается с префикса непрозрачного токена
+     */
+    public static boolean isOpaque(final String token) {
+        return token.startsWith(TOKEN_PREFIX);
+    }
+
+    /**
+     * Выпустить токен для пользователя.
+     *
+     * @param userEntity - сущность пользователя
+     * @return токен
+     * @throws TooManyRequestsException если хранилище заполнено
+     */
+    public String issue(final UserEntity userEntity) {
+        if (sessions.size() >= maxTokens) {
+            throw new TooManyRequestsException("Хранилище непрозрачных токенов заполнено, повторите позже",
+                    retryAfterSeconds);
+        }
+        byte[] bytes = new byte[TOKEN_LENGTH_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = TOKEN_PREFIX + ENCODER.encodeToString(bytes);
+        sessions.put(TokenDigest.of(token), new OpaqueSession(
+                userEntity.getUsername(), userEntity.getTokenVersion(), clock.getAsLong() + ttlMillis));
+        dirty = true;
+        return token;
+    }
+
+    /**
+     * Найти сессию по токену.
+     *
+     * @param token - токен
+     * @return сессия или null, если токен неизвестен или истек
+     */
+    public OpaqueSession resolve(final String token) {
+        OpaqueSession session = sessions.get(TokenDigest.of(token));
+        if (session == null || session.isExpired(clock.getAsLong())) {
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * Отозвать токен.
+     *
+     * @param token - токен
+     * @return true, если токен был выпущен и еще не отозван
+     */
+    public boolean revoke(final String token) {
+        boolean removed = sessions.remove(TokenDigest.of(token)) != null;
+        if (removed) {
+            dirty = true;
+        }
+        return removed;
+    }
+
+    /**
+     * Число токенов в хранилище.
+     *
+     * @return число токенов
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Удалить истекшие токены и записать снимок, если хранилище изменилось.
+     */
+    @Scheduled(fixedDelayString = "${access-token.opaque.eviction-interval-millis}")
+    public void evictExpired() {
+        long now = clock.getAsLong();
+        if (sessions.values().removeIf(session -> session.isExpired(now))) {
+            dirty = true;
+        }
+        if (dirty) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Восстановить хранилище из файла снимка.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        if (snapshotPath == null || !Files.exists(snapshotPath)) {
+            return;
+        }
+        long now = clock.getAsLong();
+        int restored = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            int version = input.readInt();
+            if (version != SNAPSHOT_FORMAT_VERSION && version != PLAIN_SNAPSHOT_FORMAT_VERSION) {
+                log.warn("Неизвестный формат снимка непрозрачных токенов {}", snapshotPath);
+                return;
+            }
+            while (input.readBoolean()) {
+                TokenDigest digest = version == SNAPSHOT_FORMAT_VERSION
+                        ? TokenDigest.read(input)
+                        : TokenDigest.of(input.readUTF());
+                OpaqueSession session = new OpaqueSession(input.readUTF(), input.readInt(), input.readLong());
+                if (!session.isExpired(now) && sessions.size() < maxTokens) {
+                    sessions.putIfAbsent(digest, session);
+                    restored++;
+                }
+            }
+        } catch (IOException exception) {
+            log.warn("Не удалось прочитать снимок непрозрачных токенов {}: {}", snapshotPath, exception.getMessage());
+        }
+        log.info("Восстановлено непрозрачных токенов: {}", restored);
+    }
+
+    /**
+     * Записать снимок хранилища при остановке.
+     */
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        if (dirty) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Записать снимок хранилища во временный файл и атомарно заменить им файл снимка.
+     */
+    void snapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        dirty = false;
+        Path directory = snapshotPath.toAbsolutePath().getParent();
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            temporary = FileSystems.getDefault().supportedFileAttributeViews().contains("posix")
+                    ? Files.createTempFile(directory, "opaque-tokens", ".tmp",
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")))
+                    : Files.createTempFile(directory, "opaque-tokens", ".tmp");
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(SNAPSHOT_FORMAT_VERSION);
+                for (Map.Entry<TokenDigest, OpaqueSession> entry : sessions.entrySet()) {
+                    OpaqueSession session = entry.getValue();
+                    output.writeBoolean(true);
+                    entry.getKey().write(output);
+                    output.writeUTF(session.username());
+                    output.writeInt(session.tokenVersion());
+                    output.writeLong(session.expiresAtMillis());
+                }
+                output.writeBoolean(false);
+            }
+            Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            dirty = true;
+            log.warn("Не удалось записать снимок непрозрачных токенов {}: {}", snapshotPath, exception.getMessage());
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                    // Оставшийся временный файл не мешает следующему снимку.
+                }
+            }
+        }
+    }
+
+    /**
+     * SHA-256 токена, ключ хранилища.
+     *
+     * @param first  - байты 0-7 хэша
+     * @param second - байты 8-15 хэша
+     * @param third  - байты 16-23 хэша
+     * @param fourth - байты 24-31 хэша
+     */
+    private record TokenDigest(long first, long second, long third, long fourth) {
+
+        /**
+         * Вычислить хэш токена.
+         *
+         * @param token - токен
+         * @return хэш токена
+         */
+        static TokenDigest of(final String token) {
+            try {
+                ByteBuffer digest = ByteBuffer.wrap(MessageDigest.getInstance(DIGEST_ALGORITHM)
+                        .digest(token.getBytes(StandardCharsets.US_ASCII)));
+                return new TokenDigest(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+            } catch (NoSuchAlgorithmException exception) {
+                throw new IllegalStateException("Не удалось инициализировать " + DIGEST_ALGORITHM, exception);
+            }
+        }
+
+        /**
+         * Прочитать хэш из снимка.
+         *
+         * @param input - поток снимка
+         * @return хэш токена
+         * @throws IOException если поток не удалось прочитать
+         */
+        static TokenDigest read(final DataInputStream input) throws IOException {
+            return new TokenDigest(input.readLong(), input.readLong(), input.readLong(), input.readLong());
+        }
+
+        /**
+         * Записать хэш в снимок.
+         *
+         * @param output - поток снимка
+         * @throws IOException если поток не удалось записать
+         */
+        void write(final DataOutputStream output) throws IOException {
+            output.writeLong(first);
+            output.writeLong(second);
+            output.writeLong(third);
+            output.writeLong(fourth);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package openschool.java.security.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import openschool.java.security.exception.ratelimit.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничение частоты запросов к эндпоинтам аутентификации по IP-адресу и по username.
+ * <p>
+ * Проверки выполняются до хэширования паролей, поэтому отклоненный запрос не тратит время BCrypt.
+ */
+@Slf4j
+@Service
+public class AuthRateLimiter {
+    /**
+     * Эндпоинт аутентификации.
+     */
+    public static final String AUTHENTICATE = "authenticate";
+
+    /**
+     * Эндпоинт регистрации.
+     */
+    public static final String REGISTER = "register";
+
+    /**
+     * Включено ли ограничение.
+     */
+    private final boolean enabled;
+
+    /**
+     * Лимиты на IP-адрес по пути эндпоинта.
+     */
+    private final Map<String, TokenBucketLimiter> ipLimiters = new HashMap<>();
+
+    /**
+     * Лимиты на username по имени эндпоинта.
+     */
+    private final Map<String, TokenBucketLimiter> usernameLimiters = new HashMap<>();
+
+    @Autowired
+    public AuthRateLimiter(final RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    AuthRateLimiter(final RateLimitProperties properties, final LongSupplier clock) {
+        this.enabled = properties.enabled();
+        if (properties.endpoints() == null) {
+            return;
+        }
+        properties.endpoints().forEach((endpoint, limit) -> {
+            if (limit.perIp() != null) {
+                ipLimiters.put(limit.path(), new TokenBucketLimiter(limit.perIp(), clock));
+            }
+            if (limit.perUsername() != null) {
+                usernameLimiters.put(endpoint, new TokenBucketLimiter(limit.perUsername(), clock));
+            }
+        });
+    }
+
+    /**
+     * Проверить лимит на IP-адрес для пути запроса.
+     *
+     * @param path      - путь запроса
+     * @param ipAddress - IP-адрес клиента
+     * @throws TooManyRequestsException если лимит исчерпан
+     */
+    public void checkIpAddress(final String path, final String ipAddress) {
+        check(ipLimiters.get(path), ipAddress);
+    }
+
+    /**
+     * Проверить лимит на username для эндпоинта.
+     *
+     * @param endpoint - имя эндпоинта
+     * @param username - username
+     * @throws TooManyRequestsException если лимит исчерпан
+     */
+    public void checkUsername(final String endpoint, final String username) {
+        check(usernameLimiters.get(endpoint), username);
+    }
+
+    /**
+     * Удалить полные корзины, чтобы число ключей не росло неограниченно.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.idle-eviction-interval-millis}")
+    public void evictIdleBuckets() {
+        int evicted = 0;
+        for (TokenBucketLimiter limiter : ipLimiters.values()) {
+            evicted += limiter.evictIdle();
+        }
+        for (TokenBucketLimiter limiter : usernameLimiters.values()) {
+            evicted += limiter.evictIdle();
+        }
+        if (evicted > 0) {
+            log.debug("Удалено простаивающих корзин ограничения частоты: {}", evicted);
+        }
+    }
+
+    /**
+     * Взять токен из корзины ключа.
+     *
+     * @param limiter - набор корзин или null, если лимит не задан
+     * @param key     - ключ
+     */
+    private void check(final TokenBucketLimiter limiter, final String key) {
+        if (!enabled || limiter == null || key == null) {
+            return;
+        }
+        long waitNanos = limiter.tryAcquire(key);
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException("Слишком много запросов, повторите позже",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+}
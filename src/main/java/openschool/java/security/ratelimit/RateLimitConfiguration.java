@@ -0,0 +1,29 @@
+package openschool.java.security.ratelimit;
+
+import openschool.java.security.security.filter.RateLimitFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация ограничения частоты запросов.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfiguration {
+
+    /**
+     * Отключает автоматическую регистрацию {@link RateLimitFilter} в сервлет-контейнере:
+     * фильтр работает только в цепочке Spring Security.
+     *
+     * @param filter - фильтр ограничения частоты запросов
+     * @return отключенная регистрация фильтра
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -0,0 +1,37 @@
+package openschool.java.security.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Настройки ограничения частоты запросов к эндпоинтам аутентификации.
+ *
+ * @param enabled                    - включено ли ограничение
+ * @param idleEvictionIntervalMillis - период удаления простаивающих корзин
+ * @param endpoints                  - лимиты по эндпоинтам
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitProperties(boolean enabled,
+                                  long idleEvictionIntervalMillis,
+                                  Map<String, EndpointLimit> endpoints) {
+
+    /**
+     * Лимиты эндпоинта.
+     *
+     * @param path        - путь эндпоинта
+     * @param perIp       - лимит на IP-адрес
+     * @param perUsername - лимит на username
+     */
+    public record EndpointLimit(String path, BucketLimit perIp, BucketLimit perUsername) {
+    }
+
+    /**
+     * Лимит одной корзины: не более capacity запросов за refillPeriodSeconds.
+     *
+     * @param capacity            - емкость корзины
+     * @param refillPeriodSeconds - время полного пополнения корзины в секундах
+     */
+    public record BucketLimit(int capacity, long refillPeriodSeconds) {
+    }
+}
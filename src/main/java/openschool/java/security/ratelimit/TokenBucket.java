@@ -0,0 +1,63 @@
+package openschool.java.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Неблокирующий token bucket.
+ * <p>
+ * Состояние хранится в одном {@link AtomicLong} как теоретическое время, к которому корзина снова станет полной
+ * (алгоритм GCRA). Запрос берет один токен, сдвигая это время на интервал пополнения, если корзина не пуста.
+ */
+final class TokenBucket {
+    /**
+     * Интервал пополнения одного токена в наносекундах.
+     */
+    private final long emissionIntervalNanos;
+
+    /**
+     * Допустимый выход за пределы текущего времени: емкость корзины минус один токен.
+     */
+    private final long burstToleranceNanos;
+
+    /**
+     * Момент, к которому корзина будет полной.
+     */
+    private final AtomicLong fullAt;
+
+    TokenBucket(final long emissionIntervalNanos, final int capacity, final long now) {
+        this.emissionIntervalNanos = emissionIntervalNanos;
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Взять токен.
+     *
+     * @param now - текущее время в наносекундах
+     * @return 0, если токен получен, иначе время до появления токена в наносекундах
+     */
+    long tryConsume(final long now) {
+        while (true) {
+            long current = fullAt.get();
+            long base = Math.max(current, now);
+            long next = base + emissionIntervalNanos;
+            long waitNanos = next - burstToleranceNanos - emissionIntervalNanos - now;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Полна ли корзина. Полную корзину можно удалить: новая корзина для того же ключа ведет себя так же.
+     *
+     * @param now - текущее время в наносекундах
+     * @return true, если корзина полна
+     */
+    boolean isFull(final long now) {
+        return fullAt.get() <= now;
+    }
+}
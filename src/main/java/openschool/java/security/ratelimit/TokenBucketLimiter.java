@@ -0,0 +1,65 @@
+package openschool.java.security.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Набор token bucket по ключу (IP-адресу или username) с общим лимитом.
+ */
+final class TokenBucketLimiter {
+    /**
+     * Емкость корзины.
+     */
+    private final int capacity;
+
+    /**
+     * Интервал пополнения одного токена в наносекундах.
+     */
+    private final long emissionIntervalNanos;
+
+    /**
+     * Источник времени в наносекундах.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Корзины по ключу.
+     */
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    TokenBucketLimiter(final RateLimitProperties.BucketLimit limit, final LongSupplier clock) {
+        this.capacity = limit.capacity();
+        this.emissionIntervalNanos = TimeUnit.SECONDS.toNanos(limit.refillPeriodSeconds()) / limit.capacity();
+        this.clock = clock;
+    }
+
+    /**
+     * Взять токен из корзины ключа.
+     *
+     * @param key - ключ
+     * @return 0, если токен получен, иначе время до появления токена в наносекундах
+     */
+    long tryAcquire(final String key) {
+        long now = clock.getAsLong();
+        return buckets.computeIfAbsent(key, ignored -> new TokenBucket(emissionIntervalNanos, capacity, now))
+                .tryConsume(now);
+    }
+
+    /**
+     * Удалить полные корзины.
+     *
+     * @return число удаленных корзин
+     */
+    int evictIdle() {
+        long now = clock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        return before - buckets.size();
+    }
+
+    int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,39 @@
+package openschool.java.security.reactive;
+
+import openschool.java.security.exception.api.GlobalExceptionHandler;
+import openschool.java.security.json.JsonConfiguration;
+import openschool.java.security.observation.jfr.JfrObservationHandler;
+import openschool.java.security.security.jwt.JwtTokenExtractor;
+import openschool.java.security.user.mapping.UserMapper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.ComponentScan;
+
+/**
+ * Реактивный вариант сервиса на WebFlux и R2DBC.
+ * <p>
+ * Запускается отдельно от {@link openschool.java.security.SecurityApplication} и переиспользует
+ * логику токенов из пакета {@code security.jwt}. Класс намеренно не помечен
+ * {@code @SpringBootApplication}, чтобы не попадать в component scan сервлетного приложения.
+ */
+@EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+@ComponentScan(basePackageClasses = {
+        ReactiveSecurityApplication.class,
+        JwtTokenExtractor.class,
+        UserMapper.class,
+        GlobalExceptionHandler.class,
+        JsonConfiguration.class,
+        JfrObservationHandler.class
+})
+public class ReactiveSecurityApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveSecurityApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+}
@@ -0,0 +1,47 @@
+package openschool.java.security.reactive.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import openschool.java.security.reactive.service.ReactiveUserFindUseCase;
+import openschool.java.security.user.dto.UserResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Реактивный контроллер для взаимодействия с пользователями.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/api/v1/user")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+    /**
+     * Реактивный use case поиска пользователей.
+     */
+    private final ReactiveUserFindUseCase userFindUseCase;
+
+    /**
+     * Получение пользователя по username.
+     *
+     * @param username - username
+     * @return найденный пользователь
+     */
+    @GetMapping("/{username}")
+    @Operation(summary = "Получение пользователя по username")
+    public Mono<UserResponse> findUserByUsername(final @PathVariable String username) {
+        return userFindUseCase.findUserByUsername(username);
+    }
+
+    @GetMapping
+    @Operation(summary = "Получение всех пользователей")
+    public Flux<UserResponse> findAllUsers() {
+        return userFindUseCase.findAll();
+    }
+}
@@ -0,0 +1,38 @@
+package openschool.java.security.reactive.domain;
+
+import lombok.RequiredArgsConstructor;
+import openschool.java.security.database.TimeOrderedUuidGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Реактивный репозиторий для refresh токенов поверх таблицы {@code refresh_token_entity}.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRefreshTokenRepository {
+    /**
+     * Клиент R2DBC.
+     */
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Сохранить refresh токен пользователя.
+     *
+     * @param userId - идентификатор пользователя
+     * @param value  - значение refresh токена
+     * @return сигнал завершения
+     */
+    public Mono<Void> save(final UUID userId, final String value) {
+        return databaseClient.sql("INSERT INTO refresh_token_entity (id, user_id, value) VALUES (:id, :userId, :value)")
+                .bind("id", TimeOrderedUuidGenerator.next())
+                .bind("userId", userId)
+                .bind("value", value)
+                .then();
+    }
+}
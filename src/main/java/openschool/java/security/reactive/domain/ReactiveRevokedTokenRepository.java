@@ -0,0 +1,36 @@
+package openschool.java.security.reactive.domain;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Реактивный репозиторий для отозванных access токенов поверх таблицы {@code revoked_token_entity}.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRevokedTokenRepository {
+    /**
+     * Клиент R2DBC.
+     */
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Отозван ли токен, срок действия которого еще не истек.
+     *
+     * @param jti - идентификатор токена
+     * @return true, если токен отозван
+     */
+    public Mono<Boolean> isRevoked(final UUID jti) {
+        return databaseClient.sql("SELECT 1 FROM revoked_token_entity WHERE jti = :jti AND expires_at > now()")
+                .bind("jti", jti)
+                .map(row -> Boolean.TRUE)
+                .one()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+}
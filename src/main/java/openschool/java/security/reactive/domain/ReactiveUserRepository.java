@@ -0,0 +1,145 @@
+package openschool.java.security.reactive.domain;
+
+import io.r2dbc.spi.Parameter;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import openschool.java.security.database.TimeOrderedUuidGenerator;
+import openschool.java.security.user.domain.UserEntity;
+import openschool.java.security.user.domain.UserRole;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Реактивный репозиторий для пользователей поверх таблицы {@code user_entity}.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserRepository {
+    /**
+     * Список колонок пользователя.
+     */
+    private static final String COLUMNS = "id, username, password, role, first_name, last_name, "
+            + "account_non_expired, account_non_locked, credentials_non_expired, enabled, token_version, "
+            + "created_at, updated_at";
+
+    /**
+     * Клиент R2DBC.
+     */
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Поиск пользователя по username.
+     *
+     * @param username - username
+     * @return найденный пользователь или пустой Mono
+     */
+    public Mono<UserEntity> findByUsername(final String username) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM user_entity WHERE username = :username")
+                .bind("username", username)
+                .map(ReactiveUserRepository::mapRow)
+                .one();
+    }
+
+    /**
+     * Существует ли пользователь по username.
+     *
+     * @param username - username
+     * @return true, если существует, иначе false
+     */
+    public Mono<Boolean> existsByUsername(final String username) {
+        return databaseClient.sql("SELECT 1 FROM user_entity WHERE username = :username LIMIT 1")
+                .bind("username", username)
+                .map(row -> Boolean.TRUE)
+                .one()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    /**
+     * Получение всех пользователей.
+     *
+     * @return пользователи
+     */
+    public Flux<UserEntity> findAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM user_entity")
+                .map(ReactiveUserRepository::mapRow)
+                .all();
+    }
+
+    /**
+     * Сохранение нового пользователя. Идентификатор генерируется, если не задан.
+     *
+     * @param userEntity - сущность пользователя
+     * @return сохраненная сущность
+     */
+    public Mono<UserEntity> insert(final UserEntity userEntity) {
+        UserEntity toSave = userEntity.getId() == null
+                ? userEntity.toBuilder().id(TimeOrderedUuidGenerator.next()).build()
+                : userEntity;
+
+        return databaseClient.sql("INSERT INTO user_entity (" + COLUMNS + ") VALUES (:id, :username, :password, "
+                        + ":role, :firstName, :lastName, :accountNonExpired, :accountNonLocked, "
+                        + ":credentialsNonExpired, :enabled, :tokenVersion, :createdAt, :updatedAt)")
+                .bind("id", toSave.getId())
+                .bind("username", toSave.getUsername())
+                .bind("password", toSave.getPassword())
+                .bind("role", toSave.getRole().name())
+                .bind("firstName", nullable(toSave.getFirstName()))
+                .bind("lastName", nullable(toSave.getLastName()))
+                .bind("accountNonExpired", toSave.isAccountNonExpired())
+                .bind("accountNonLocked", toSave.isAccountNonLocked())
+                .bind("credentialsNonExpired", toSave.isCredentialsNonExpired())
+                .bind("enabled", toSave.isEnabled())
+                .bind("tokenVersion", toSave.getTokenVersion())
+                .bind("createdAt", toSave.getCreatedAt().toOffsetDateTime())
+                .bind("updatedAt", toSave.getUpdatedAt().toOffsetDateTime())
+                .then()
+                .thenReturn(toSave);
+    }
+
+    /**
+     * Преобразовать строку результата в сущность пользователя.
+     *
+     * @param row - строка результата
+     * @return сущность пользователя
+     */
+    private static UserEntity mapRow(final Readable row) {
+        OffsetDateTime createdAt = row.get("created_at", OffsetDateTime.class);
+        OffsetDateTime updatedAt = row.get("updated_at", OffsetDateTime.class);
+        Integer tokenVersion = row.get("token_version", Integer.class);
+
+        return UserEntity.builder()
+                .id(row.get("id", UUID.class))
+                .username(row.get("username", String.class))
+                .password(row.get("password", String.class))
+                .role(UserRole.valueOf(row.get("role", String.class)))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .accountNonExpired(Boolean.TRUE.equals(row.get("account_non_expired", Boolean.class)))
+                .accountNonLocked(Boolean.TRUE.equals(row.get("account_non_locked", Boolean.class)))
+                .credentialsNonExpired(Boolean.TRUE.equals(row.get("credentials_non_expired", Boolean.class)))
+                .enabled(Boolean.TRUE.equals(row.get("enabled", Boolean.class)))
+                .tokenVersion(tokenVersion == null ? 0 : tokenVersion)
+                .createdAt(createdAt == null ? null : createdAt.toZonedDateTime())
+                .updatedAt(updatedAt == null ? null : updatedAt.toZonedDateTime())
+                .build();
+    }
+
+    /**
+     * Обернуть строковое значение для привязки параметра, допускающего null.
+     *
+     * @param value - значение
+     * @return значение для привязки
+     */
+    private static Parameter nullable(final String value) {
+        return Parameters.in(R2dbcType.VARCHAR, value);
+    }
+}
@@ -0,0 +1,83 @@
+package openschool.java.security.reactive.security;
+
+import lombok.RequiredArgsConstructor;
+import openschool.java.security.reactive.domain.ReactiveRevokedTokenRepository;
+import openschool.java.security.reactive.domain.ReactiveUserRepository;
+import openschool.java.security.security.jwt.JwtTokenExtractor;
+import openschool.java.security.security.jwt.JwtTokenValidator;
+import openschool.java.security.security.jwt.TokenVerification;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Реактивный менеджер аутентификации по JWT-токену.
+ * <p>
+ * Принимает неаутентифицированный токен, в credentials которого лежит JWT,
+ * и возвращает аутентификацию с данными пользователя.
+ * <p>
+ * Как и сервлетный фильтр, отклоняет отозванные токены и токены устаревшей версии. Индексов в памяти
+ * у реактивного приложения нет: отзыв проверяется запросом к {@code revoked_token_entity}, а версия токена
+ * сравнивается с {@code token_version} пользователя, который и так читается из БД на каждом запросе.
+ */
+@RequiredArgsConstructor
+public class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+    /**
+     * Класс для извлечения данных из JWT-токенов.
+     */
+    private final JwtTokenExtractor tokenExtractor;
+
+    /**
+     * Класс для валидации JWT-токенов.
+     */
+    private final JwtTokenValidator tokenValidator;
+
+    /**
+     * Реактивный репозиторий для пользователей.
+     */
+    private final ReactiveUserRepository userRepository;
+
+    /**
+     * Реактивный репозиторий для отозванных токенов.
+     */
+    private final ReactiveRevokedTokenRepository revokedTokenRepository;
+
+    @Override
+    public Mono<Authentication> authenticate(final Authentication authentication) {
+        String token = (String) authentication.getCredentials();
+
+        if (!(tokenExtractor.verify(token) instanceof TokenVerification.Valid valid)) {
+            return Mono.error(new BadCredentialsException("Invalid JWT"));
+        }
+
+        return isRevoked(valid.claims().getId())
+                .flatMap(revoked -> revoked
+                        ? Mono.error(new BadCredentialsException("Revoked JWT"))
+                        : userRepository.findByUsername(valid.claims().getSubject()))
+                .filter(userEntity -> tokenValidator.isValid(valid.claims(), userEntity))
+                .switchIfEmpty(Mono.error(() -> new BadCredentialsException("Invalid JWT")))
+                .map(userEntity -> UsernamePasswordAuthenticationToken.authenticated(
+                        userEntity, null, userEntity.getAuthorities()));
+    }
+
+    /**
+     * Отозван ли токен. Токен без jti или с jti не в формате UUID отозвать нельзя.
+     *
+     * @param jti - идентификатор токена
+     * @return true, если токен отозван
+     */
+    private Mono<Boolean> isRevoked(final String jti) {
+        if (jti == null) {
+            return Mono.just(Boolean.FALSE);
+        }
+        try {
+            return revokedTokenRepository.isRevoked(UUID.fromString(jti));
+        } catch (IllegalArgumentException exception) {
+            return Mono.just(Boolean.FALSE);
+        }
+    }
+}
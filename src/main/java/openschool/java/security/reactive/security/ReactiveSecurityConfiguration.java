@@ -0,0 +1,119 @@
+package openschool.java.security.reactive.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import openschool.java.security.exception.ExceptionResponse;
+import openschool.java.security.reactive.domain.ReactiveRevokedTokenRepository;
+import openschool.java.security.reactive.domain.ReactiveUserRepository;
+import openschool.java.security.security.jwt.JwtTokenExtractor;
+import openschool.java.security.security.jwt.JwtTokenValidator;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Конфигурация Spring Security для реактивного приложения.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfiguration {
+
+    /**
+     * Конфигурация реактивной цепочки фильтров.
+     *
+     * @param http                  - объект ServerHttpSecurity
+     * @param authenticationManager - менеджер аутентификации по JWT
+     * @param objectMapper          - класс для записи ошибок в JSON-формат
+     * @return сконфигурированная цепочка фильтров
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         ReactiveAuthenticationManager authenticationManager,
+                                                         ObjectMapper objectMapper) {
+        AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(authenticationManager);
+        jwtFilter.setServerAuthenticationConverter(new BearerTokenServerAuthenticationConverter());
+        jwtFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+        jwtFilter.setAuthenticationFailureHandler((exchange, exception) ->
+                writeInvalidJwt(exchange.getExchange().getResponse(), objectMapper));
+
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(registry -> registry
+                        .pathMatchers("/api/v1/auth/**", "/swagger-ui/**", "/v3/api-docs/**")
+                        .permitAll()
+                        .matchers(EndpointRequest.to("health", "prometheus"))
+                        .permitAll()
+                        .anyExchange()
+                        .authenticated())
+                .exceptionHandling(spec -> spec
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+                .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * Бин реактивного AuthenticationManager по JWT.
+     *
+     * @param tokenExtractor         - класс для извлечения данных из JWT-токенов
+     * @param tokenValidator         - класс для валидации JWT-токенов
+     * @param userRepository         - реактивный репозиторий для пользователей
+     * @param revokedTokenRepository - реактивный репозиторий для отозванных токенов
+     * @return ReactiveAuthenticationManager
+     */
+    @Bean
+    public ReactiveAuthenticationManager jwtReactiveAuthenticationManager(
+            JwtTokenExtractor tokenExtractor,
+            JwtTokenValidator tokenValidator,
+            ReactiveUserRepository userRepository,
+            ReactiveRevokedTokenRepository revokedTokenRepository) {
+        return new JwtReactiveAuthenticationManager(tokenExtractor, tokenValidator, userRepository,
+                revokedTokenRepository);
+    }
+
+    /**
+     * Бин для шифрования паролей пользователей.
+     *
+     * @return BCryptPasswordEncoder
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    /**
+     * Записать в ответ ошибку некорректного JWT.
+     *
+     * @param response     - ответ
+     * @param objectMapper - класс для записи ошибок в JSON-формат
+     * @return сигнал завершения записи
+     */
+    @SneakyThrows
+    private static Mono<Void> writeInvalidJwt(ServerHttpResponse response, ObjectMapper objectMapper) {
+        byte[] body = objectMapper.writeValueAsBytes(new ExceptionResponse("Invalid JWT"));
+
+        response.setStatusCode(HttpStatus.BAD_REQUEST);
+        response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,172 @@
+package openschool.java.security.reactive.service;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import openschool.java.security.authentication.dto.AuthenticationOperationResultTo;
+import openschool.java.security.exception.auth.InvalidUsernameOrPasswordException;
+import openschool.java.security.exception.auth.UserAlreadyExistsException;
+import openschool.java.security.exception.jwt.InvalidJwtToken;
+import openschool.java.security.exception.user.UserNotFoundException;
+import openschool.java.security.reactive.domain.ReactiveRefreshTokenRepository;
+import openschool.java.security.reactive.domain.ReactiveUserRepository;
+import openschool.java.security.security.jwt.JwtTokenExtractor;
+import openschool.java.security.security.jwt.JwtTokenGenerator;
+import openschool.java.security.security.jwt.JwtTokenValidator;
+import openschool.java.security.security.jwt.RefreshTokenRotationPolicy;
+import openschool.java.security.user.domain.UserEntity;
+import openschool.java.security.user.dto.UserTo;
+import openschool.java.security.user.mapping.UserMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Реактивный сервис для управления аутентификацией и регистрацией пользователей.
+ * <p>
+ * Повторяет контракт {@link openschool.java.security.authentication.service.AuthenticationUseCase}.
+ * Хэширование паролей выполняется на boundedElastic, чтобы не блокировать event loop.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthenticationUseCase {
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveRefreshTokenRepository refreshTokenRepository;
+    private final UserMapper userMapper;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtTokenExtractor jwtTokenExtractor;
+    private final JwtTokenGenerator jwtTokenGenerator;
+    private final JwtTokenValidator jwtTokenValidator;
+    private final RefreshTokenRotationPolicy refreshTokenRotationPolicy;
+
+    /**
+     * Аутентифицирует пользователя на основе предоставленных данных.
+     *
+     * @param userTo данные пользователя для аутентификации
+     * @return результат операции аутентификации, включающий JWT токен
+     */
+    public Mono<ResponseEntity<AuthenticationOperationResultTo>> authenticate(final UserTo userTo) {
+        return userRepository.findByUsername(userTo.getUsername())
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(
+                        String.format("Пользователь с username %s не найден", userTo.getUsername()))))
+                .flatMap(userEntity -> Mono.fromCallable(() -> isAuthenticated(userTo, userEntity))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .filter(Boolean::booleanValue)
+                        .switchIfEmpty(Mono.error(() -> new InvalidUsernameOrPasswordException(
+                                "Некорректный логин или пароль")))
+                        .thenReturn(userEntity))
+                .flatMap(this::issueTokens);
+    }
+
+    /**
+     * Регистрирует нового пользователя на основе предоставленных данных.
+     *
+     * @param userTo данные пользователя для регистрации
+     * @return результат операции регистрации, включающий JWT токен
+     */
+    public Mono<ResponseEntity<AuthenticationOperationResultTo>> register(final UserTo userTo) {
+        return userRepository.existsByUsername(userTo.getUsername())
+                .flatMap(exists -> exists
+                        ? Mono.error(new UserAlreadyExistsException(String.format(
+                        "Пользователь с данным username %s уже существует в системе", userTo.getUsername())))
+                        : Mono.fromCallable(() -> userMapper.mapForRegistration(userTo))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(userRepository::insert)
+                .flatMap(this::issueTokens);
+    }
+
+    /**
+     * Выпускает новый access токен по refresh токену. Refresh токен заменяется новым, только если
+     * это требует {@link RefreshTokenRotationPolicy}; иначе в cookie возвращается прежний.
+     *
+     * @param oldRefreshToken старый refresh token
+     * @return результат операции обновления токена
+     */
+    public Mono<ResponseEntity<AuthenticationOperationResultTo>> refreshToken(final String oldRefreshToken) {
+        return Mono.fromCallable(() -> jwtTokenExtractor.extractRefreshClaims(oldRefreshToken))
+                .flatMap(claims -> userRepository.findByUsername(claims.getSubject())
+                        .filter(userEntity -> jwtTokenValidator.isValid(claims, userEntity))
+                        .switchIfEmpty(Mono.error(() -> new InvalidJwtToken("Некорректный JWT токен")))
+                        .flatMap(userEntity -> refreshTokens(userEntity, oldRefreshToken, claims)));
+    }
+
+    /**
+     * Заменяет refresh токен, если этого требует политика ротации, иначе возвращает прежний.
+     *
+     * @param userEntity      сущность пользователя
+     * @param oldRefreshToken старый refresh token
+     * @param claims          claims проверенного refresh токена
+     * @return ResponseEntity с результатом операции
+     */
+    private Mono<ResponseEntity<AuthenticationOperationResultTo>> refreshTokens(final UserEntity userEntity,
+                                                                               final String oldRefreshToken,
+                                                                               final Claims claims) {
+        Date expiresAt = claims.getExpiration();
+        long now = System.currentTimeMillis();
+        Date issuedAt = claims.getIssuedAt();
+        if (refreshTokenRotationPolicy.shouldRotate(issuedAt, expiresAt, now)) {
+            return issueTokens(userEntity);
+        }
+        return Mono.fromSupplier(() -> buildResponseEntity(userEntity, jwtTokenGenerator.createRefreshTokenCookie(
+                oldRefreshToken, TimeUnit.MILLISECONDS.toSeconds(expiresAt.getTime() - now))));
+    }
+
+    /**
+     * Проверяет пароль и состояние учетной записи пользователя.
+     *
+     * @param userTo     данные пользователя для аутентификации
+     * @param userEntity сущность пользователя
+     * @return true, если пользователь аутентифицирован
+     */
+    private boolean isAuthenticated(final UserTo userTo, final UserEntity userEntity) {
+        return userEntity.isEnabled()
+                && userEntity.isAccountNonLocked()
+                && userEntity.isAccountNonExpired()
+                && userEntity.isCredentialsNonExpired()
+                && passwordEncoder.matches(userTo.getPassword(), userEntity.getPassword());
+    }
+
+    /**
+     * Создает и сохраняет refresh токен, формирует ResponseEntity с access токеном.
+     *
+     * @param userEntity сущность пользователя
+     * @return ResponseEntity с результатом операции
+     */
+    private Mono<ResponseEntity<AuthenticationOperationResultTo>> issueTokens(final UserEntity userEntity) {
+        String refreshToken = jwtTokenGenerator.generateRefreshToken(userEntity);
+
+        return refreshTokenRepository.save(userEntity.getId(), refreshToken)
+                .then(Mono.fromSupplier(() -> buildResponseEntity(
+                        userEntity, jwtTokenGenerator.createRefreshTokenCookie(refreshToken))));
+    }
+
+    /**
+     * Формирует ResponseEntity с результатом аутентификации или регистрации.
+     *
+     * @param userEntity сущность пользователя
+     * @param cookie     cookie с refresh токеном
+     * @return ResponseEntity с результатом операции
+     */
+    private ResponseEntity<AuthenticationOperationResultTo> buildResponseEntity(
+            final UserEntity userEntity,
+            final ResponseCookie cookie) {
+        var response = AuthenticationOperationResultTo.builder()
+                .userId(userEntity.getId())
+                .token(jwtTokenGenerator.generate(userEntity))
+                .build();
+
+        var headers = new HttpHeaders();
+        headers.add(HttpHeaders.SET_COOKIE, cookie.toString());
+
+        return new ResponseEntity<>(response, headers, HttpStatus.CREATED);
+    }
+}
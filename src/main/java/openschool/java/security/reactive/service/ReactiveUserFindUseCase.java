@@ -0,0 +1,52 @@
+package openschool.java.security.reactive.service;
+
+import lombok.RequiredArgsConstructor;
+import openschool.java.security.exception.user.UserNotFoundException;
+import openschool.java.security.reactive.domain.ReactiveUserRepository;
+import openschool.java.security.user.dto.UserResponse;
+import openschool.java.security.user.mapping.UserMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Реактивный use case поиска пользователей.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserFindUseCase {
+    /**
+     * Реактивный репозиторий для пользователей.
+     */
+    private final ReactiveUserRepository userRepository;
+
+    /**
+     * Маппер для пользователей.
+     */
+    private final UserMapper userMapper;
+
+    /**
+     * Получение пользователя по username.
+     *
+     * @param username - username
+     * @return найденный пользователь
+     */
+    public Mono<UserResponse> findUserByUsername(final String username) {
+        return userRepository.findByUsername(username)
+                .map(userMapper::mapToResponse)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(
+                        String.format("Пользователь с username %s не найден", username))));
+    }
+
+    /**
+     * Получение списка всех пользователей.
+     *
+     * @return найденные пользователи
+     */
+    public Flux<UserResponse> findAll() {
+        return userRepository.findAll()
+                .map(userMapper::mapToResponse);
+    }
+}
@@ -0,0 +1,43 @@
+package openschool.java.security.revocation.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Отозванный access токен.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@Table(name = "revoked_token_entity", indexes = {
+        @Index(name = "idx_revoked_token_entity_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_revoked_token_entity_revoked_at", columnList = "revoked_at")
+})
+public class RevokedTokenEntity {
+    /**
+     * Идентификатор токена (claim jti).
+     */
+    @Id
+    private UUID jti;
+
+    /**
+     * Окончание времени жизни токена.
+     */
+    private ZonedDateTime expiresAt;
+
+    /**
+     * Время отзыва.
+     */
+    private ZonedDateTime revokedAt;
+}
@@ -0,0 +1,43 @@
+package openschool.java.security.revocation.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Репозиторий для отозванных токенов.
+ */
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, UUID> {
+    /**
+     * Найти еще не истекшие отозванные токены.
+     *
+     * @param now - текущее время
+     * @return отозванные токены
+     */
+    List<RevokedTokenEntity> findAllByExpiresAtAfter(ZonedDateTime now);
+
+    /**
+     * Найти токены, отозванные начиная с указанного момента.
+     *
+     * @param since - момент, начиная с которого ищутся отзывы
+     * @return отозванные токены
+     */
+    List<RevokedTokenEntity> findAllByRevokedAtGreaterThanEqual(ZonedDateTime since);
+
+    /**
+     * Удалить истекшие токены.
+     *
+     * @param now - текущее время
+     * @return число удаленных строк
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedTokenEntity t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") ZonedDateTime now);
+}
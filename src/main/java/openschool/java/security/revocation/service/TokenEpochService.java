@@ -0,0 +1,127 @@
+package openschool.java.security.revocation.service;
+
+import openschool.java.security.database.AfterCommit;
+import openschool.java.security.database.PrimaryRouting;
+import openschool.java.security.invalidation.InvalidationEvent;
+import openschool.java.security.invalidation.InvalidationPublisher;
+import openschool.java.security.user.domain.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис версий токенов пользователей.
+ * <p>
+ * Версия хранится в {@code user_entity.token_version} и попадает в claim {@code ver} при выпуске токена.
+ * Увеличение версии одним UPDATE делает недействительными все токены пользователя. Текущие версии кэшируются,
+ * чтобы фильтр отклонял устаревшие токены без загрузки пользователя. Изменения других экземпляров сервиса
+ * приходят событиями инвалидации, а запись кэша в любом случае живет не дольше
+ * {@code jwt.revocation.epoch-cache-ttl-millis}.
+ */
+@Service
+public class TokenEpochService {
+    /**
+     * Репозиторий для пользователей.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * Публикация событий инвалидации для других экземпляров сервиса.
+     */
+    private final InvalidationPublisher invalidationPublisher;
+
+    /**
+     * Время жизни записи кэша в миллисекундах.
+     */
+    private final long cacheTtlMillis;
+
+    /**
+     * Кэш текущих версий токенов по username.
+     */
+    private final Map<String, Epoch> epochs = new ConcurrentHashMap<>();
+
+    /**
+     * Версия токенов пользователя и момент ее загрузки.
+     *
+     * @param version  - версия токенов
+     * @param loadedAt - момент загрузки в миллисекундах
+     */
+    private record Epoch(int version, long loadedAt) {
+    }
+
+    public TokenEpochService(final UserRepository userRepository,
+                             final InvalidationPublisher invalidationPublisher,
+                             @Value("${jwt.revocation.epoch-cache-ttl-millis}") final long cacheTtlMillis) {
+        this.userRepository = userRepository;
+        this.invalidationPublisher = invalidationPublisher;
+        this.cacheTtlMillis = cacheTtlMillis;
+    }
+
+    /**
+     * Актуальна ли версия токена.
+     *
+     * @param username     - username
+     * @param tokenVersion - версия из токена
+     * @return true, если версия токена не меньше текущей версии токенов пользователя
+     */
+    public boolean isCurrent(final String username, final int tokenVersion) {
+        long now = System.currentTimeMillis();
+        Epoch epoch = epochs.get(username);
+        if (epoch == null || now - epoch.loadedAt() > cacheTtlMillis) {
+            // Версия читается с основной БД, чтобы отставание реплики не вернуло отозванные токены
+            epoch = PrimaryRouting.call(() -> userRepository.findTokenVersionByUsername(username))
+                    .map(version -> new Epoch(version, now))
+                    .orElse(null);
+            if (epoch == null) {
+                epochs.remove(username);
+                return false;
+            }
+            epochs.put(username, epoch);
+        }
+        return tokenVersion >= epoch.version();
+    }
+
+    /**
+     * Увеличить версию токенов пользователя, сделав недействительными все выпущенные ему токены.
+     * Кэш и другие экземпляры сервиса узнают новую версию только после фиксации транзакции.
+     *
+     * @param username - username
+     * @return новая версия токенов
+     */
+    @Transactional
+    public int increment(final String username) {
+        userRepository.incrementTokenVersion(username);
+        int version = userRepository.findTokenVersionByUsername(username).orElseThrow();
+        AfterCommit.run(() -> epochs.put(username, new Epoch(version, System.currentTimeMillis())));
+        invalidationPublisher.publishAfterCommit(InvalidationEvent.userChanged(username));
+        return version;
+    }
+
+    /**
+     * Удалить версию пользователя из кэша.
+     *
+     * @param username - username
+     */
+    public void evict(final String username) {
+        epochs.remove(username);
+    }
+
+    /**
+     * Применить событие инвалидации от другого экземпляра сервиса.
+     *
+     * @param event - событие инвалидации
+     */
+    @EventListener
+    public void onInvalidation(final InvalidationEvent event) {
+        switch (event.type()) {
+            case USER_CHANGED -> evict(event.key());
+            case RESYNC -> epochs.clear();
+            default -> {
+            }
+        }
+    }
+}
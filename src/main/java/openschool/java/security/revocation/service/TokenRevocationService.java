@@ -0,0 +1,158 @@
+package openschool.java.security.revocation.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import openschool.java.security.database.AfterCommit;
+import openschool.java.security.database.PrimaryRouting;
+import openschool.java.security.invalidation.InvalidationEvent;
+import openschool.java.security.invalidation.InvalidationPublisher;
+import openschool.java.security.revocation.domain.RevokedTokenEntity;
+import openschool.java.security.revocation.domain.RevokedTokenRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис отзыва access токенов.
+ * <p>
+ * Отозванные идентификаторы токенов (jti) хранятся в таблице {@code revoked_token_entity} и в индексе в памяти,
+ * который проверяется на каждом запросе без обращения к БД. Записи удаляются после истечения срока действия токена:
+ * истекший токен отклоняется при проверке подписи и без индекса.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+    /**
+     * Перекрытие окна синхронизации, чтобы не пропустить отзывы, зафиксированные с задержкой.
+     */
+    private static final long SYNCHRONIZATION_OVERLAP_SECONDS = 10;
+
+    /**
+     * Репозиторий для отозванных токенов.
+     */
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    /**
+     * Публикация событий инвалидации для других экземпляров сервиса.
+     */
+    private final InvalidationPublisher invalidationPublisher;
+
+    /**
+     * Индекс отозванных токенов: jti - окончание времени жизни токена в миллисекундах.
+     */
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    /**
+     * Момент последней синхронизации индекса с БД.
+     */
+    private volatile ZonedDateTime lastSynchronizedAt;
+
+    /**
+     * Отозван ли токен.
+     *
+     * @param jti - идентификатор токена
+     * @return true, если токен отозван
+     */
+    public boolean isRevoked(final String jti) {
+        return jti != null && revokedTokens.containsKey(jti);
+    }
+
+    /**
+     * Отозвать токен до окончания срока его действия.
+     * <p>
+     * Индекс этого экземпляра и другие экземпляры узнают об отзыве только после фиксации текущей транзакции,
+     * чтобы неудачная запись не оставила отзыв только в памяти.
+     *
+     * @param jti       - идентификатор токена
+     * @param expiresAt - окончание времени жизни токена
+     */
+    public void revoke(final String jti, final Date expiresAt) {
+        long expiresAtMillis = expiresAt.getTime();
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedTokenEntity.builder()
+                .jti(UUID.fromString(jti))
+                .expiresAt(expiresAt.toInstant().atZone(ZoneOffset.UTC))
+                .revokedAt(ZonedDateTime.now(ZoneOffset.UTC))
+                .build());
+        AfterCommit.run(() -> revokedTokens.put(jti, expiresAtMillis));
+        invalidationPublisher.publishAfterCommit(InvalidationEvent.tokenRevoked(jti, expiresAtMillis));
+    }
+
+    /**
+     * Применить событие инвалидации от другого экземпляра сервиса.
+     *
+     * @param event - событие инвалидации
+     */
+    @EventListener
+    public void onInvalidation(final InvalidationEvent event) {
+        switch (event.type()) {
+            case TOKEN_REVOKED -> {
+                if (event.expiresAtMillis() != null && event.expiresAtMillis() > System.currentTimeMillis()) {
+                    revokedTokens.put(event.key(), event.expiresAtMillis());
+                }
+            }
+            case RESYNC -> load();
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Загрузить еще не истекшие отзывы из БД после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        // Отзывы читаются с основной БД: отставание реплики пропустило бы их навсегда
+        PrimaryRouting.run(() -> revokedTokenRepository.findAllByExpiresAtAfter(now).forEach(this::index));
+        lastSynchronizedAt = now;
+        log.info("Загружено отозванных токенов: {}", revokedTokens.size());
+    }
+
+    /**
+     * Удалить истекшие отзывы из индекса и БД и подгрузить отзывы, сделанные другими экземплярами сервиса.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.synchronization-interval-millis}")
+    public void synchronize() {
+        ZonedDateTime since = lastSynchronizedAt;
+        if (since == null) {
+            return;
+        }
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        long nowMillis = now.toInstant().toEpochMilli();
+
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+        PrimaryRouting.run(() -> revokedTokenRepository
+                .findAllByRevokedAtGreaterThanEqual(since.minusSeconds(SYNCHRONIZATION_OVERLAP_SECONDS))
+                .forEach(this::index));
+        int deleted = revokedTokenRepository.deleteExpired(now);
+        lastSynchronizedAt = now;
+
+        if (deleted > 0) {
+            log.debug("Удалено истекших отозванных токенов: {}", deleted);
+        }
+    }
+
+    /**
+     * Добавить отзыв в индекс, если токен еще не истек.
+     *
+     * @param entity - отозванный токен
+     */
+    private void index(final RevokedTokenEntity entity) {
+        long expiresAt = entity.getExpiresAt().toInstant().toEpochMilli();
+        if (expiresAt > System.currentTimeMillis()) {
+            revokedTokens.put(entity.getJti().toString(), expiresAt);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package openschool.java.security.security;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import openschool.java.security.observation.AuthObservations;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder, замеряющий время хэширования и проверки паролей.
+ */
+@RequiredArgsConstructor
+public class ObservedPasswordEncoder implements PasswordEncoder {
+    /**
+     * Исходный PasswordEncoder.
+     */
+    private final PasswordEncoder delegate;
+
+    /**
+     * Стоимость хэширования (log2 числа раундов BCrypt).
+     */
+    private final int cost;
+
+    /**
+     * Реестр наблюдений для метрик этапов аутентификации.
+     */
+    private final ObservationRegistry observationRegistry;
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return Observation.createNotStarted(AuthObservations.PASSWORD_ENCODE, observationRegistry)
+                .lowCardinalityKeyValue(AuthObservations.BCRYPT_COST, String.valueOf(cost))
+                .observe(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+        Observation observation = Observation.createNotStarted(AuthObservations.PASSWORD_VERIFY, observationRegistry)
+                .lowCardinalityKeyValue(AuthObservations.BCRYPT_COST, String.valueOf(cost))
+                .start();
+        try {
+            boolean matches = delegate.matches(rawPassword, encodedPassword);
+            observation.lowCardinalityKeyValue(AuthObservations.OUTCOME, matches ? "match" : "mismatch");
+            return matches;
+        } catch (RuntimeException exception) {
+            observation.error(exception);
+            throw exception;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
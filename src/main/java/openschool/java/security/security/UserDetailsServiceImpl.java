@@ -1,12 +1,20 @@
 package openschool.java.security.security;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
+import openschool.java.security.database.ReadYourWrites;
+import openschool.java.security.observation.AuthObservations;
+import openschool.java.security.user.domain.UserEntity;
 import openschool.java.security.user.domain.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+import java.util.function.Function;
+
 /**
  * Класс для получения данных о пользователях.
  */
@@ -16,6 +24,15 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    private final ObservationRegistry observationRegistry;
+
+    private final ReadYourWrites readYourWrites;
+
+    /**
+     * Поиск пользователя, созданный один раз, чтобы не выделять лямбду на каждый запрос.
+     */
+    private final Function<String, Optional<UserEntity>> findByUsername = this::findByUsername;
+
     /**
      * Получить данные о пользователе по его username.
      *
@@ -24,6 +41,12 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) {
-        return userRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException(username));
+        return Observation.createNotStarted(AuthObservations.USER_LOAD, observationRegistry)
+                .observe(() -> readYourWrites.read(username, findByUsername)
+                        .orElseThrow(() -> new UsernameNotFoundException(username)));
+    }
+
+    private Optional<UserEntity> findByUsername(final String username) {
+        return userRepository.findByUsername(username);
     }
 }
@@ -0,0 +1,27 @@
+package openschool.java.security.security.authorization;
+
+import openschool.java.security.user.domain.UserRole;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Доступ к методу только для пользователей с одной из перечисленных ролей.
+ * <p>
+ * Аннотация на методе заменяет аннотацию на классе. Правило компилируется в {@link RoleAuthorizationManager}
+ * при создании прокси бина, поэтому при вызове проверяется только роль пользователя, без разбора выражений.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequiresRole {
+    /**
+     * Допустимые роли.
+     *
+     * @return роли, любой из которых достаточно для доступа
+     */
+    UserRole[] value();
+}
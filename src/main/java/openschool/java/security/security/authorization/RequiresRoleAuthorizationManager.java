@@ -0,0 +1,82 @@
+package openschool.java.security.security.authorization;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Проверка ролей для методов с {@link RequiresRole}.
+ * <p>
+ * Правила компилируются в {@link #pointcut()}: Spring сопоставляет его с методами каждого бина при создании прокси,
+ * то есть при старте приложения, и для аннотированного метода сохраняется готовый {@link RoleAuthorizationManager}.
+ * При вызове остается поиск правила по методу и проверка роли. Вызов метода без скомпилированного правила
+ * запрещается.
+ */
+public class RequiresRoleAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    /**
+     * Скомпилированные правила по методам.
+     */
+    private final Map<Method, RoleAuthorizationManager<MethodInvocation>> rules = new ConcurrentHashMap<>();
+
+    /**
+     * Точки среза для методов с {@link RequiresRole} на методе или классе; сопоставление компилирует правило.
+     */
+    private final Pointcut pointcut = new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(final Method method, final Class<?> targetClass) {
+            return compile(method, targetClass);
+        }
+    };
+
+    /**
+     * Получить точки среза для перехватчика авторизации.
+     *
+     * @return точки среза, компилирующие правила при сопоставлении
+     */
+    public Pointcut pointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public AuthorizationDecision check(final Supplier<Authentication> authentication,
+                                       final MethodInvocation invocation) {
+        RoleAuthorizationManager<MethodInvocation> rule = rules.get(invocation.getMethod());
+        return rule == null ? DENIED : rule.check(authentication, invocation);
+    }
+
+    /**
+     * Скомпилировать правило метода, если у метода или его класса есть {@link RequiresRole}.
+     *
+     * @param method      - метод
+     * @param targetClass - класс бина, может быть null
+     * @return true, если правило есть
+     */
+    boolean compile(final Method method, final Class<?> targetClass) {
+        if (rules.containsKey(method)) {
+            return true;
+        }
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        RequiresRole annotation = AnnotatedElementUtils.findMergedAnnotation(specificMethod, RequiresRole.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(
+                    targetClass != null ? targetClass : method.getDeclaringClass(), RequiresRole.class);
+        }
+        if (annotation == null) {
+            return false;
+        }
+        rules.put(method, RoleAuthorizationManager.hasAnyRole(annotation.value()));
+        return true;
+    }
+}
@@ -0,0 +1,91 @@
+package openschool.java.security.security.authorization;
+
+import openschool.java.security.user.domain.UserEntity;
+import openschool.java.security.user.domain.UserRole;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Проверка, что у аутентифицированного пользователя одна из заданных ролей.
+ * <p>
+ * Множество ролей и права этих ролей вычисляются один раз при создании. Для {@link UserEntity} проверяется
+ * вхождение роли в {@link EnumSet}, для прочих principal - вхождение прав в заранее собранное множество.
+ * Решения неизменяемы и общие для всех вызовов.
+ *
+ * @param <T> тип защищаемого объекта: запрос или вызов метода
+ */
+public final class RoleAuthorizationManager<T> implements AuthorizationManager<T> {
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    /**
+     * Допустимые роли.
+     */
+    private final Set<UserRole> roles;
+
+    /**
+     * Права допустимых ролей.
+     */
+    private final Set<String> authorities;
+
+    private RoleAuthorizationManager(final Set<UserRole> roles) {
+        this.roles = roles;
+        this.authorities = roles.stream()
+                .flatMap(role -> role.authorities().stream())
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Создать проверку наличия любой из ролей.
+     *
+     * @param roles - допустимые роли
+     * @param <T>   тип защищаемого объекта
+     * @return проверка ролей
+     */
+    public static <T> RoleAuthorizationManager<T> hasAnyRole(final UserRole... roles) {
+        if (roles.length == 0) {
+            throw new IllegalArgumentException("Не указано ни одной роли");
+        }
+        return new RoleAuthorizationManager<>(EnumSet.copyOf(Arrays.asList(roles)));
+    }
+
+    @Override
+    public AuthorizationDecision check(final Supplier<Authentication> authentication, final T object) {
+        return isGranted(authentication.get()) ? GRANTED : DENIED;
+    }
+
+    /**
+     * Есть ли у пользователя одна из допустимых ролей.
+     *
+     * @param authentication - аутентификация, может быть null
+     * @return true, если доступ разрешен
+     */
+    public boolean isGranted(final Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        if (authentication.getPrincipal() instanceof UserEntity userEntity) {
+            return roles.contains(userEntity.getRole());
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (authorities.contains(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "hasAnyRole" + roles;
+    }
+}
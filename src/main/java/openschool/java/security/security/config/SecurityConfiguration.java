@@ -1,16 +1,31 @@
 package openschool.java.security.security.config;
 
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import openschool.java.security.security.ObservedPasswordEncoder;
 import openschool.java.security.security.UserDetailsServiceImpl;
+import openschool.java.security.security.authorization.RequiresRoleAuthorizationManager;
+import openschool.java.security.security.authorization.RoleAuthorizationManager;
 import openschool.java.security.security.filter.ExceptionHandlerFilter;
 import openschool.java.security.security.filter.JwtAuthenticationFilter;
+import openschool.java.security.security.filter.RateLimitFilter;
+import openschool.java.security.user.domain.UserRole;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.method.AuthorizationInterceptorsOrder;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -19,14 +34,45 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
 /**
  * Конфигурация Spring Security.
+ * <p>
+ * Публичные маршруты обслуживает отдельная цепочка без JWT-фильтров, поэтому заголовок Authorization
+ * на них не разбирается. Эндпоинты мониторинга открыты только на порту {@code management.server.port}.
+ * Остальные запросы проходят полную цепочку с JWT-аутентификацией.
+ * <p>
+ * Авторизация по ролям не использует SpEL: правила маршрутов и методов с
+ * {@link openschool.java.security.security.authorization.RequiresRole} компилируются при старте
+ * в {@link RoleAuthorizationManager}.
  */
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity(prePostEnabled = false)
 @RequiredArgsConstructor
 public class SecurityConfiguration {
+    /**
+     * Стоимость хэширования паролей BCrypt.
+     */
+    private static final int BCRYPT_STRENGTH = 10;
+
+    /**
+     * Публичные маршруты: аутентификация и документация API.
+     */
+    public static final RequestMatcher PUBLIC_ROUTES = new OrRequestMatcher(
+            antMatcher("/api/v1/auth/**"),
+            antMatcher("/swagger-ui/**"),
+            antMatcher("/v3/api-docs/**"));
+
+    /**
+     * Маршруты администратора.
+     */
+    public static final RequestMatcher ADMIN_ROUTES = antMatcher("/api/v1/admin/**");
+
     /**
      * Фильтр JWT-аутентификации.
      */
@@ -37,25 +83,86 @@ public class SecurityConfiguration {
      */
     private final ExceptionHandlerFilter exceptionHandlerFilter;
 
+    /**
+     * Фильтр ограничения частоты запросов к эндпоинтам аутентификации.
+     */
+    private final RateLimitFilter rateLimitFilter;
+
     /**
      * Класс для получения данных о пользователях.
      */
     private final UserDetailsServiceImpl userDetailsService;
 
     /**
-     * Конфигурация httpSecurity
+     * Реестр наблюдений для метрик этапов аутентификации.
+     */
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Цепочка фильтров для эндпоинтов мониторинга без аутентификации.
+     * <p>
+     * Если порт управления отличается от основного, сопоставитель срабатывает только на порту управления,
+     * поэтому на основном порту эндпоинты закрыты цепочкой с JWT-аутентификацией.
+     *
+     * @param httpSecurity - объект httpSecurity
+     * @return сконфигурированная цепочка фильтров
+     */
+    @Bean
+    @Order(0)
+    @SneakyThrows
+    public SecurityFilterChain managementSecurityFilterChain(HttpSecurity httpSecurity) {
+        return httpSecurity
+                .securityMatcher(EndpointRequest.to("health", "prometheus"))
+                .csrf(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(registry -> registry
+                        .anyRequest()
+                        .permitAll())
+                .sessionManagement(configurer -> configurer
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .build();
+    }
+
+    /**
+     * Цепочка фильтров для публичных маршрутов: только ограничение частоты запросов, без JWT.
+     *
+     * @param httpSecurity - объект httpSecurity
+     * @return сконфигурированная цепочка фильтров
+     */
+    @Bean
+    @Order(1)
+    @SneakyThrows
+    public SecurityFilterChain publicSecurityFilterChain(HttpSecurity httpSecurity) {
+        return httpSecurity
+                .securityMatcher(PUBLIC_ROUTES)
+                .csrf(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(registry -> registry
+                        .anyRequest()
+                        .permitAll())
+                .sessionManagement(configurer -> configurer
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
+                .build();
+    }
+
+    /**
+     * Цепочка фильтров для защищенных API с JWT-аутентификацией.
      *
      * @param httpSecurity - объект httpSecurity
      * @return сконфигурированная цепочка фильтров
      */
     @Bean
+    @Order(2)
     @SneakyThrows
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) {
         return httpSecurity
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(registry -> registry
-                        .requestMatchers("/api/v1/auth/**", "/swagger-ui/**", "/v3/api-docs/**")
-                        .permitAll()
+                        .requestMatchers(ADMIN_ROUTES)
+                        .access(RoleAuthorizationManager.hasAnyRole(UserRole.ADMIN))
                         .anyRequest()
                         .authenticated())
                 .sessionManagement(configurer -> configurer
@@ -66,6 +173,51 @@ public class SecurityConfiguration {
                 .build();
     }
 
+    /**
+     * Перехватчик методов с {@link openschool.java.security.security.authorization.RequiresRole}.
+     *
+     * @return советник, проверяющий роль перед вызовом метода
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor requiresRoleAuthorizationAdvisor() {
+        RequiresRoleAuthorizationManager authorizationManager = new RequiresRoleAuthorizationManager();
+        AuthorizationManagerBeforeMethodInterceptor interceptor = new AuthorizationManagerBeforeMethodInterceptor(
+                authorizationManager.pointcut(), authorizationManager);
+        interceptor.setOrder(AuthorizationInterceptorsOrder.PRE_AUTHORIZE.getOrder());
+        return interceptor;
+    }
+
+    /**
+     * Отключает автоматическую регистрацию {@link JwtAuthenticationFilter} в сервлет-контейнере:
+     * фильтр работает только в цепочке защищенных API.
+     *
+     * @param filter - фильтр JWT-аутентификации
+     * @return отключенная регистрация фильтра
+     */
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(
+            JwtAuthenticationFilter filter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    /**
+     * Отключает автоматическую регистрацию {@link ExceptionHandlerFilter} в сервлет-контейнере:
+     * фильтр работает только в цепочке защищенных API.
+     *
+     * @param filter - фильтр для обработки исключений
+     * @return отключенная регистрация фильтра
+     */
+    @Bean
+    public FilterRegistrationBean<ExceptionHandlerFilter> exceptionHandlerFilterRegistration(
+            ExceptionHandlerFilter filter) {
+        FilterRegistrationBean<ExceptionHandlerFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     /**
      * Бин AuthenticationProvider.
      *
@@ -94,10 +246,11 @@ public class SecurityConfiguration {
     /**
      * Бин для шифрования паролей пользователей.
      *
-     * @return BCryptPasswordEncoder
+     * @return BCryptPasswordEncoder с замером времени хэширования и проверки
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new ObservedPasswordEncoder(
+                new BCryptPasswordEncoder(BCRYPT_STRENGTH), BCRYPT_STRENGTH, observationRegistry);
     }
 }
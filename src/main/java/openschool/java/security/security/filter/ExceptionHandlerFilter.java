@@ -1,25 +1,35 @@
 package openschool.java.security.security.filter;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import openschool.java.security.exception.jwt.InvalidJwtToken;
+import openschool.java.security.exception.ExceptionResponse;
+import openschool.java.security.observation.AuthObservations;
+import openschool.java.security.security.jwt.TokenVerification;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import java.io.IOException;
+
 /**
  * Фильтр для обработки исключений, возникающий в фильтрах Spring.
+ * <p>
+ * Также отвечает на запросы, токен которых отклонен {@link JwtAuthenticationFilter} без исключения.
+ * Тело ответа на некорректный JWT сериализуется один раз при создании фильтра.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ExceptionHandlerFilter extends OncePerRequestFilter {
     /**
@@ -27,6 +37,42 @@ public class ExceptionHandlerFilter extends OncePerRequestFilter {
      */
     private final ObjectMapper objectMapper;
 
+    /**
+     * Сериализованное тело ответа на некорректный JWT.
+     */
+    private final byte[] invalidJwtBody;
+
+    /**
+     * Реестр наблюдений для трассировки запроса.
+     */
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Счетчик запросов, прошедших цепочку фильтров без исключений.
+     */
+    private final Counter passedCounter;
+
+    /**
+     * Счетчик запросов, отклоненных из-за некорректного JWT.
+     */
+    private final Counter invalidJwtCounter;
+
+    /**
+     * Счетчик запросов, завершившихся прочими исключениями.
+     */
+    private final Counter errorCounter;
+
+    public ExceptionHandlerFilter(final ObjectMapper objectMapper,
+                                  final MeterRegistry meterRegistry,
+                                  final ObservationRegistry observationRegistry) {
+        this.objectMapper = objectMapper;
+        this.invalidJwtBody = serialize(objectMapper, new ExceptionResponse("Invalid JWT"));
+        this.observationRegistry = observationRegistry;
+        this.passedCounter = outcomeCounter(meterRegistry, "passed");
+        this.invalidJwtCounter = outcomeCounter(meterRegistry, "invalid_jwt");
+        this.errorCounter = outcomeCounter(meterRegistry, "error");
+    }
+
     /**
      * Метод для обработки исключений.
      *
@@ -39,26 +85,80 @@ public class ExceptionHandlerFilter extends OncePerRequestFilter {
     protected void doFilterInternal(final @NonNull HttpServletRequest request,
                                     final @NonNull HttpServletResponse response,
                                     final @NonNull FilterChain filterChain) {
-        try {
-            filterChain.doFilter(request, response);
-        } catch (JwtException exception) {
-            log.error("Поймано JwtException с сообщением: {}", exception.getMessage());
+        Observation observation = Observation.createNotStarted(
+                AuthObservations.EXCEPTION_HANDLER_FILTER, observationRegistry);
+        observation.observeChecked(() -> {
+            try {
+                filterChain.doFilter(request, response);
+                if (request.getAttribute(JwtAuthenticationFilter.REJECTION_REASON_ATTRIBUTE)
+                        instanceof TokenVerification.Reason reason) {
+                    invalidJwtCounter.increment();
+                    observation.lowCardinalityKeyValue(AuthObservations.OUTCOME, "invalid_jwt")
+                            .lowCardinalityKeyValue(AuthObservations.REASON, reason.tag());
+                    log.debug("Отклонен JWT: {}", reason);
+                    writeInvalidJwt(response);
+                } else {
+                    passedCounter.increment();
+                    observation.lowCardinalityKeyValue(AuthObservations.OUTCOME, "passed")
+                            .lowCardinalityKeyValue(AuthObservations.REASON, AuthObservations.NONE);
+                }
+            } catch (Exception exception) {
+                errorCounter.increment();
+                observation.lowCardinalityKeyValue(AuthObservations.OUTCOME, "error")
+                        .lowCardinalityKeyValue(AuthObservations.REASON, AuthObservations.NONE);
+                observation.error(exception);
+                log.error("Поймано {} с сообщением: {}", exception.getClass().getSimpleName(),
+                        exception.getMessage());
 
-            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
-            response.setStatus(HttpStatus.BAD_REQUEST.value());
-            response.getWriter().write(objectMapper
-                    .writeValueAsString(new InvalidJwtToken(
-                            "Invalid JWT")));
-        } catch (Exception exception) {
-            log.error("Поймано {} с сообщением: {}", exception.getClass().getSimpleName(),
-                    exception.getMessage());
+                response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                response.getWriter().write(objectMapper
+                        .writeValueAsString(new ExceptionResponse(
+                                String.format("thrown exception %s with message: %s",
+                                        exception.getClass().getSimpleName(), exception.getMessage()))));
+            }
+        });
+    }
 
-            response.setHeader(HttpHeaders.CONTENT_TYPE, "application/json");
-            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
-            response.getWriter().write(objectMapper
-                    .writeValueAsString(new InvalidJwtToken(
-                            String.format("thrown exception %s with message: %s",
-                                    exception.getClass().getSimpleName(), exception.getMessage()))));
+    /**
+     * Записать ответ на некорректный JWT.
+     *
+     * @param response - ответ
+     * @throws IOException при ошибке записи ответа
+     */
+    private void writeInvalidJwt(final HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(invalidJwtBody.length);
+        response.getOutputStream().write(invalidJwtBody);
+    }
+
+    /**
+     * Сериализовать тело ответа.
+     *
+     * @param objectMapper - класс для записи в JSON
+     * @param body         - тело ответа
+     * @return сериализованное тело
+     */
+    private static byte[] serialize(final ObjectMapper objectMapper, final ExceptionResponse body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Не удалось сериализовать тело ответа", exception);
         }
     }
+
+    /**
+     * Зарегистрировать счетчик исхода обработки запроса.
+     *
+     * @param meterRegistry - реестр метрик
+     * @param outcome       - исход
+     * @return счетчик
+     */
+    private static Counter outcomeCounter(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder(AuthObservations.FILTER_OUTCOME)
+                .description("Исходы обработки запросов фильтром исключений")
+                .tag(AuthObservations.OUTCOME, outcome)
+                .register(meterRegistry);
+    }
 }
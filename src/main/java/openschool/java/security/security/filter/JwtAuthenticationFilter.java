@@ -1,13 +1,23 @@
 package openschool.java.security.security.filter;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import openschool.java.security.observation.AuthObservations;
+import openschool.java.security.opaque.OpaqueSession;
+import openschool.java.security.opaque.OpaqueTokenStore;
+import openschool.java.security.revocation.service.TokenEpochService;
+import openschool.java.security.revocation.service.TokenRevocationService;
 import openschool.java.security.security.UserDetailsServiceImpl;
 import openschool.java.security.security.jwt.JwtTokenExtractor;
 import openschool.java.security.security.jwt.JwtTokenValidator;
+import openschool.java.security.security.jwt.TokenVerification;
+import openschool.java.security.user.domain.UserEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,6 +30,11 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 /**
  * Фильтр для JWT-аутентификации.
+ * <p>
+ * Непрозрачные токены проверяются поиском в {@link OpaqueTokenStore} без криптографии.
+ * <p>
+ * Некорректный токен не приводит к исключению: причина отклонения сохраняется в атрибуте запроса
+ * {@link #REJECTION_REASON_ATTRIBUTE}, а ответ формирует {@link ExceptionHandlerFilter}.
  */
 @Component
 @RequiredArgsConstructor
@@ -29,6 +44,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     private static final String BEARER_PREFIX = "Bearer ";
 
+    /**
+     * Атрибут запроса с причиной отклонения токена.
+     */
+    public static final String REJECTION_REASON_ATTRIBUTE =
+            JwtAuthenticationFilter.class.getName() + ".REJECTION_REASON";
+
+    /**
+     * Источник деталей аутентификации. Не хранит состояния, поэтому создается один раз.
+     */
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
     /**
      * Класс для работы с JWT-токенами.
      */
@@ -44,6 +70,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     private final UserDetailsServiceImpl userDetailsService;
 
+    /**
+     * Сервис отзыва access токенов.
+     */
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Сервис версий токенов пользователей.
+     */
+    private final TokenEpochService tokenEpochService;
+
+    /**
+     * Хранилище непрозрачных access токенов.
+     */
+    private final OpaqueTokenStore opaqueTokenStore;
+
+    /**
+     * Реестр наблюдений для трассировки запроса.
+     */
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Имя атрибута, которым {@link OncePerRequestFilter} отмечает обработанный запрос.
+     */
+    private volatile String alreadyFilteredAttributeName;
+
+    /**
+     * Имя атрибута обработанного запроса. Вычисляется один раз, а не склеивается на каждом запросе.
+     *
+     * @return имя атрибута
+     */
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        String name = alreadyFilteredAttributeName;
+        if (name == null) {
+            name = super.getAlreadyFilteredAttributeName();
+            alreadyFilteredAttributeName = name;
+        }
+        return name;
+    }
+
     /**
      * Метод для фильтрации запросов по JWT-токенам.
      *
@@ -63,22 +129,87 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authorizationHeader.substring(BEARER_PREFIX.length());
-        String subject = tokenExtractor.extractSubject(token);
-        if (subject != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        TokenVerification.Reason rejection = Observation
+                .createNotStarted(AuthObservations.JWT_FILTER, observationRegistry)
+                .observe(() -> OpaqueTokenStore.isOpaque(token)
+                        ? authenticateOpaque(token, request)
+                        : authenticate(token, request));
+        if (rejection != null) {
+            request.setAttribute(REJECTION_REASON_ATTRIBUTE, rejection);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Аутентифицировать запрос по JWT-токену, если он валиден и не отозван.
+     *
+     * @param token   - токен
+     * @param request - запрос
+     * @return причина отклонения токена или null, если токен не отклонен
+     */
+    private TokenVerification.Reason authenticate(final String token, final HttpServletRequest request) {
+        TokenVerification verification = tokenExtractor.verify(token);
+        if (!(verification instanceof TokenVerification.Valid valid)) {
+            return ((TokenVerification.Invalid) verification).reason();
+        }
+
+        Claims claims = valid.claims();
+        if (tokenRevocationService.isRevoked(claims.getId())) {
+            return TokenVerification.Reason.REVOKED;
+        }
+
+        String subject = claims.getSubject();
+        if (subject != null
+                && SecurityContextHolder.getContext().getAuthentication() == null
+                && tokenEpochService.isCurrent(subject, JwtTokenExtractor.tokenVersion(claims))) {
             UserDetails userDetails = userDetailsService.loadUserByUsername(subject);
-            if (tokenValidator.isValid(token, userDetails)) {
-                var authenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
-                );
+            if (tokenValidator.isValid(claims, userDetails)) {
+                setAuthentication(userDetails, request);
+            }
+        }
+        return null;
+    }
 
-                WebAuthenticationDetails details = new WebAuthenticationDetailsSource()
-                        .buildDetails(request);
-                authenticationToken.setDetails(details);
+    /**
+     * Аутентифицировать запрос по непрозрачному токену, если он выпущен этим экземпляром и не отозван.
+     *
+     * @param token   - токен
+     * @param request - запрос
+     * @return причина отклонения токена или null, если токен не отклонен
+     */
+    private TokenVerification.Reason authenticateOpaque(final String token, final HttpServletRequest request) {
+        OpaqueSession session = opaqueTokenStore.resolve(token);
+        if (session == null) {
+            return TokenVerification.Reason.UNKNOWN_TOKEN;
+        }
 
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+        if (SecurityContextHolder.getContext().getAuthentication() == null
+                && tokenEpochService.isCurrent(session.username(), session.tokenVersion())) {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(session.username());
+            if (!(userDetails instanceof UserEntity userEntity)
+                    || session.tokenVersion() >= userEntity.getTokenVersion()) {
+                setAuthentication(userDetails, request);
             }
         }
+        return null;
+    }
 
-        filterChain.doFilter(request, response);
+    /**
+     * Установить аутентификацию пользователя в контекст безопасности.
+     *
+     * @param userDetails - данные пользователя
+     * @param request     - запрос
+     */
+    private static void setAuthentication(final UserDetails userDetails, final HttpServletRequest request) {
+        var authenticationToken = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities()
+        );
+
+        WebAuthenticationDetails details = DETAILS_SOURCE.buildDetails(request);
+        authenticationToken.setDetails(details);
+
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
     }
 }
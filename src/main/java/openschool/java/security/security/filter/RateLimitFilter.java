@@ -0,0 +1,60 @@
+package openschool.java.security.security.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import openschool.java.security.exception.ExceptionResponse;
+import openschool.java.security.exception.ratelimit.TooManyRequestsException;
+import openschool.java.security.ratelimit.AuthRateLimiter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Фильтр ограничения частоты запросов к эндпоинтам аутентификации по IP-адресу клиента.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+    /**
+     * Ограничение частоты запросов.
+     */
+    private final AuthRateLimiter rateLimiter;
+
+    /**
+     * Класс для записи ответа в JSON-формат.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Метод для проверки лимита запросов.
+     *
+     * @param request     - запрос
+     * @param response    - ответ
+     * @param filterChain - цепочка фильтров
+     */
+    @Override
+    @SneakyThrows
+    protected void doFilterInternal(final @NonNull HttpServletRequest request,
+                                    final @NonNull HttpServletResponse response,
+                                    final @NonNull FilterChain filterChain) {
+        try {
+            rateLimiter.checkIpAddress(request.getServletPath(), request.getRemoteAddr());
+        } catch (TooManyRequestsException exception) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(objectMapper.writeValueAsString(
+                    new ExceptionResponse(exception.getMessage())));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
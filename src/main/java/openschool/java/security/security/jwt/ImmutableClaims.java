@@ -0,0 +1,152 @@
+package openschool.java.security.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Неизменяемое представление claims проверенного токена.
+ * <p>
+ * Один и тот же объект из кэша проверенных токенов получают все запросы с этим токеном, поэтому изменение claims
+ * одним вызывающим не должно быть видно другим. Чтение делегируется исходным claims без копирования.
+ */
+final class ImmutableClaims extends AbstractMap<String, Object> implements Claims {
+    /**
+     * Исходные claims.
+     */
+    private final Claims delegate;
+
+    /**
+     * Неизменяемое представление исходных claims.
+     */
+    private final Map<String, Object> view;
+
+    private ImmutableClaims(final Claims delegate) {
+        this.delegate = delegate;
+        this.view = Collections.unmodifiableMap(delegate);
+    }
+
+    /**
+     * Получить неизменяемое представление claims.
+     *
+     * @param claims - claims
+     * @return неизменяемые claims
+     */
+    static Claims of(final Claims claims) {
+        return claims instanceof ImmutableClaims ? claims : new ImmutableClaims(claims);
+    }
+
+    @Override
+    public String getIssuer() {
+        return delegate.getIssuer();
+    }
+
+    @Override
+    public String getSubject() {
+        return delegate.getSubject();
+    }
+
+    @Override
+    public String getAudience() {
+        return delegate.getAudience();
+    }
+
+    @Override
+    public Date getExpiration() {
+        return delegate.getExpiration();
+    }
+
+    @Override
+    public Date getNotBefore() {
+        return delegate.getNotBefore();
+    }
+
+    @Override
+    public Date getIssuedAt() {
+        return delegate.getIssuedAt();
+    }
+
+    @Override
+    public String getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public <T> T get(final String claimName, final Class<T> requiredType) {
+        return delegate.get(claimName, requiredType);
+    }
+
+    @Override
+    public Object get(final Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return delegate.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return view.keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return view.values();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return view.entrySet();
+    }
+
+    @Override
+    public Claims setIssuer(final String iss) {
+        throw unsupported();
+    }
+
+    @Override
+    public Claims setSubject(final String sub) {
+        throw unsupported();
+    }
+
+    @Override
+    public Claims setAudience(final String aud) {
+        throw unsupported();
+    }
+
+    @Override
+    public Claims setExpiration(final Date exp) {
+        throw unsupported();
+    }
+
+    @Override
+    public Claims setNotBefore(final Date nbf) {
+        throw unsupported();
+    }
+
+    @Override
+    public Claims setIssuedAt(final Date iat) {
+        throw unsupported();
+    }
+
+    @Override
+    public Claims setId(final String jti) {
+        throw unsupported();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Claims проверенного токена не изменяются");
+    }
+}
@@ -1,37 +1,204 @@
 package openschool.java.security.security.jwt;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import openschool.java.security.exception.jwt.InvalidJwtToken;
+import openschool.java.security.invalidation.InvalidationEvent;
+import openschool.java.security.observation.AuthObservations;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Mac;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.util.Base64;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Класс для извлечения данных из JWT-токенов.
+ * <p>
+ * Подпись HS256 проверяется собственной реализацией, которая сообщает об ошибке результатом
+ * {@link TokenVerification}, а не исключением: отклонение некорректного токена не заполняет стек вызовов.
+ * Методы извлечения claims используют ту же проверку и выбрасывают {@link InvalidJwtToken} для отклоненного
+ * токена, поэтому все пути сервиса принимают одни и те же токены. Все методы, кроме
+ * {@link #extractRefreshClaims(String)}, принимают только access токены.
  */
 @Service
-@RequiredArgsConstructor
 public class JwtTokenExtractor {
+    /**
+     * Максимальное число токенов в кэше проверенных claims.
+     */
+    private static final int CLAIMS_CACHE_MAX_SIZE = 10_000;
+
+    /**
+     * Максимальное число закэшированных допустимых заголовков токенов.
+     */
+    private static final int ACCEPTED_HEADERS_MAX_SIZE = 16;
+
+    /**
+     * Алгоритм подписи в заголовке JWS.
+     */
+    private static final String JWS_ALGORITHM = "HS256";
+
+    /**
+     * Алгоритм HMAC для проверки подписи.
+     */
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    /**
+     * Значение тега исхода для валидного токена.
+     */
+    private static final String VALID_OUTCOME = "valid";
+
+    /**
+     * Класс для чтения заголовка и payload токена.
+     */
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * Тип payload токена.
+     */
+    private static final TypeReference<Map<String, Object>> CLAIMS_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * Реестр наблюдений для метрик этапов аутентификации.
+     */
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Кэш claims токенов, подпись которых уже проверена.
+     */
+    private final VerifiedClaimsCache claimsCache =
+            new VerifiedClaimsCache(CLAIMS_CACHE_MAX_SIZE, System::currentTimeMillis);
+
+    /**
+     * Закодированные заголовки токенов, уже признанные допустимыми.
+     */
+    private final Set<String> acceptedHeaders = ConcurrentHashMap.newKeySet();
+
     /**
      * Секретный ключ.
      */
-    @Value("${jwt.secret}")
-    private String secret;
+    private final Key signingKey;
+
+    /**
+     * Инициализированный секретным ключом HMAC, копии которого используются для проверки подписи.
+     */
+    private final Mac macPrototype;
+
+    public JwtTokenExtractor(final ObservationRegistry observationRegistry,
+                             @Value("${jwt.secret}") final String secret) {
+        this.observationRegistry = observationRegistry;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.macPrototype = newMac(signingKey);
+    }
 
     /**
      * Извлечь subject из токена.
      *
      * @param token - токен
      * @return subject
+     * @throws InvalidJwtToken если токен отклонен или не является access токеном
      */
     public String extractSubject(final String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verifiedClaims(token).getSubject();
+    }
+
+    /**
+     * Извлечь идентификатор (jti) из токена.
+     *
+     * @param token - токен
+     * @return идентификатор токена или null, если токен выпущен без jti
+     * @throws InvalidJwtToken если токен отклонен или не является access токеном
+     */
+    public String extractId(final String token) {
+        return verifiedClaims(token).getId();
+    }
+
+    /**
+     * Извлечь версию токенов пользователя из токена.
+     *
+     * @param token - токен
+     * @return версия токенов, 0 для токенов, выпущенных без версии
+     * @throws InvalidJwtToken если токен отклонен или не является access токеном
+     */
+    public int extractTokenVersion(final String token) {
+        return tokenVersion(verifiedClaims(token));
+    }
+
+    /**
+     * Получить версию токенов пользователя из claims.
+     *
+     * @param claims - claims токена
+     * @return версия токенов, 0 для токенов, выпущенных без версии
+     */
+    public static int tokenVersion(final Claims claims) {
+        Integer version = claims.get(JwtTokenGenerator.TOKEN_VERSION_CLAIM, Integer.class);
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Получить окончание времени жизни токена из claims без создания {@link Date}.
+     *
+     * @param claims - claims токена
+     * @return окончание времени жизни в миллисекундах эпохи или {@link Long#MAX_VALUE}, если оно не задано
+     */
+    public static long expirationMillis(final Claims claims) {
+        Object expiration = claims.get(Claims.EXPIRATION);
+        if (expiration instanceof Number seconds) {
+            return seconds.longValue() * 1000;
+        }
+        return expiration == null ? Long.MAX_VALUE : claims.getExpiration().getTime();
+    }
+
+    /**
+     * Проверить access токен без выбрасывания исключений.
+     *
+     * @param token - токен
+     * @return неизменяемые claims валидного access токена или причина отклонения
+     */
+    public TokenVerification verify(final String token) {
+        return verify(token, JwtTokenGenerator.ACCESS_TOKEN_TYPE);
+    }
+
+    /**
+     * Извлечь claims refresh токена.
+     *
+     * @param token - refresh токен
+     * @return claims
+     * @throws InvalidJwtToken если токен отклонен или не является refresh токеном
+     */
+    public Claims extractRefreshClaims(final String token) {
+        if (verify(token, JwtTokenGenerator.REFRESH_TOKEN_TYPE) instanceof TokenVerification.Valid valid) {
+            return valid.claims();
+        }
+        throw new InvalidJwtToken("Некорректный JWT токен");
+    }
+
+    /**
+     * Извлечь момент выпуска из токена.
+     *
+     * @param token - токен
+     * @return момент выпуска или null, если токен выпущен без iat
+     * @throws InvalidJwtToken если токен отклонен или не является access токеном
+     */
+    public Date extractIssuedAt(final String token) {
+        return verifiedClaims(token).getIssuedAt();
     }
 
     /**
@@ -39,46 +206,234 @@ public class JwtTokenExtractor {
      *
      * @param token - токен
      * @return окончание времени жизни токена
+     * @throws InvalidJwtToken если токен отклонен или не является access токеном
      */
     public Date extractExpiration(final String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verifiedClaims(token).getExpiration();
+    }
+
+    /**
+     * Сбросить кэш проверенных claims при потере событий инвалидации.
+     *
+     * @param event - событие инвалидации
+     */
+    @EventListener
+    public void onInvalidation(final InvalidationEvent event) {
+        if (event.type() == InvalidationEvent.Type.RESYNC) {
+            claimsCache.clear();
+        }
     }
 
     /**
-     * Извлечь claim из токена.
+     * Проверить токен ожидаемого типа без выбрасывания исключений.
      *
-     * @param token          - токен
-     * @param claimsResolver - функция для преобразования claim
-     * @param <T>            - параметр
-     * @return claim
+     * @param token     - токен
+     * @param tokenType - ожидаемое значение {@link JwtTokenGenerator#TOKEN_TYPE_CLAIM}
+     * @return неизменяемые claims валидного токена или причина отклонения
      */
-    private <T> T extractClaim(final String token,
-                               Function<Claims, T> claimsResolver) {
-        Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    private TokenVerification verify(final String token, final String tokenType) {
+        Observation observation = Observation.createNotStarted(AuthObservations.TOKEN_VERIFY, observationRegistry);
+        return observation.observe(() -> {
+            Claims cached = claimsCache.get(token);
+            observation.lowCardinalityKeyValue(AuthObservations.TOKEN_CACHE_HIT, String.valueOf(cached != null));
+            TokenVerification verification;
+            if (cached != null) {
+                verification = new TokenVerification.Valid(cached);
+            } else {
+                verification = verifySignedToken(token);
+                if (verification instanceof TokenVerification.Valid valid) {
+                    claimsCache.put(token, valid.claims());
+                }
+            }
+            if (verification instanceof TokenVerification.Valid valid
+                    && !tokenType.equals(valid.claims().get(JwtTokenGenerator.TOKEN_TYPE_CLAIM))) {
+                verification = TokenVerification.Invalid.of(TokenVerification.Reason.WRONG_TOKEN_TYPE);
+            }
+            observation.lowCardinalityKeyValue(AuthObservations.OUTCOME,
+                    verification instanceof TokenVerification.Invalid invalid ? invalid.reason().tag() : VALID_OUTCOME);
+            return verification;
+        });
     }
 
     /**
-     * Извлечь все claims из токена.
+     * Получить claims access токена, прошедшего {@link #verify(String)}.
      *
      * @param token - токен
      * @return claims
+     * @throws InvalidJwtToken если токен отклонен или не является access токеном
+     */
+    private Claims verifiedClaims(final String token) {
+        if (verify(token) instanceof TokenVerification.Valid valid) {
+            return valid.claims();
+        }
+        throw new InvalidJwtToken("Некорректный JWT токен");
+    }
+
+    /**
+     * Проверить структуру, заголовок, подпись и срок действия токена.
+     *
+     * @param token - токен
+     * @return claims валидного токена или причина отклонения
+     */
+    private TokenVerification verifySignedToken(final String token) {
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (payloadEnd < 0
+                || !isBase64Url(token, 0, headerEnd)
+                || !isBase64Url(token, headerEnd + 1, payloadEnd)
+                || !isBase64Url(token, payloadEnd + 1, token.length())) {
+            return TokenVerification.Invalid.of(TokenVerification.Reason.MALFORMED);
+        }
+
+        // Заголовок разбирается только у токена с верной подписью: произвольный заголовок не доходит до JSON-парсера
+        byte[] signature = Base64.getUrlDecoder().decode(token.substring(payloadEnd + 1));
+        if (!hasZeroPaddingBits(token, payloadEnd + 1) || !MessageDigest.isEqual(sign(token, payloadEnd), signature)) {
+            return TokenVerification.Invalid.of(TokenVerification.Reason.BAD_SIGNATURE);
+        }
+        if (!isAcceptedHeader(token.substring(0, headerEnd))) {
+            return TokenVerification.Invalid.of(TokenVerification.Reason.UNSUPPORTED_ALGORITHM);
+        }
+
+        Claims claims = readClaims(token.substring(headerEnd + 1, payloadEnd));
+        if (claims == null) {
+            return TokenVerification.Invalid.of(TokenVerification.Reason.MALFORMED);
+        }
+        long now = System.currentTimeMillis();
+        if (isExpired(claims, now) || (claims.getNotBefore() != null && claims.getNotBefore().getTime() > now)) {
+            return TokenVerification.Invalid.of(TokenVerification.Reason.EXPIRED);
+        }
+        return new TokenVerification.Valid(ImmutableClaims.of(claims));
+    }
+
+    /**
+     * Является ли часть строки непустым значением base64url без дополнения.
+     *
+     * @param value - строка
+     * @param start - начало части
+     * @param end   - конец части, не включительно
+     * @return true, если часть строки можно декодировать
+     */
+    private static boolean isBase64Url(final String value, final int start, final int end) {
+        int length = end - start;
+        if (length <= 0 || length % 4 == 1) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            boolean valid = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_';
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Равны ли нулю неиспользуемые младшие биты последнего символа base64url.
+     * <p>
+     * Декодер их игнорирует, поэтому без проверки у подписи было бы несколько допустимых записей.
+     *
+     * @param value - строка, оканчивающаяся значением base64url
+     * @param start - начало значения
+     * @return true, если запись значения каноническая
+     */
+    private static boolean hasZeroPaddingBits(final String value, final int start) {
+        char last = value.charAt(value.length() - 1);
+        int sextet = last >= 'A' && last <= 'Z' ? last - 'A'
+                : last >= 'a' && last <= 'z' ? last - 'a' + 26
+                : last >= '0' && last <= '9' ? last - '0' + 52
+                : last == '-' ? 62 : 63;
+        return switch ((value.length() - start) % 4) {
+            case 2 -> (sextet & 0x0F) == 0;
+            case 3 -> (sextet & 0x03) == 0;
+            default -> true;
+        };
+    }
+
+    /**
+     * Допустим ли заголовок токена с верной подписью: только HS256 без сжатия и критических расширений.
+     *
+     * @param encodedHeader - закодированный заголовок
+     * @return true, если заголовок допустим
+     */
+    private boolean isAcceptedHeader(final String encodedHeader) {
+        if (acceptedHeaders.contains(encodedHeader)) {
+            return true;
+        }
+        JsonNode header;
+        try {
+            header = JSON.readTree(Base64.getUrlDecoder().decode(encodedHeader));
+        } catch (IOException exception) {
+            return false;
+        }
+        boolean accepted = header != null
+                && JWS_ALGORITHM.equals(header.path("alg").asText(null))
+                && !header.has("zip")
+                && !header.has("crit");
+        if (accepted && acceptedHeaders.size() < ACCEPTED_HEADERS_MAX_SIZE) {
+            acceptedHeaders.add(encodedHeader);
+        }
+        return accepted;
+    }
+
+    /**
+     * Вычислить подпись HS256 заголовка и payload токена.
+     *
+     * @param token      - токен
+     * @param payloadEnd - позиция точки перед подписью
+     * @return подпись
+     */
+    private byte[] sign(final String token, final int payloadEnd) {
+        Mac mac;
+        try {
+            mac = (Mac) macPrototype.clone();
+        } catch (CloneNotSupportedException exception) {
+            mac = newMac(signingKey);
+        }
+        mac.update(token.getBytes(StandardCharsets.US_ASCII), 0, payloadEnd);
+        return mac.doFinal();
+    }
+
+    /**
+     * Создать HMAC, инициализированный секретным ключом.
+     *
+     * @param key - секретный ключ
+     * @return HMAC
+     */
+    private static Mac newMac(final Key key) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException("Не удалось инициализировать " + MAC_ALGORITHM, exception);
+        }
+    }
+
+    /**
+     * Прочитать claims из закодированного payload.
+     *
+     * @param encodedPayload - закодированный payload
+     * @return claims или null, если payload не является JSON-объектом
      */
-    private Claims extractAllClaims(final String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static Claims readClaims(final String encodedPayload) {
+        try {
+            Map<String, Object> claims = JSON.readValue(Base64.getUrlDecoder().decode(encodedPayload), CLAIMS_TYPE);
+            return claims == null ? null : Jwts.claims(claims);
+        } catch (IOException exception) {
+            return null;
+        }
     }
 
     /**
-     * Получить закодированный секретный ключ.
+     * Истек ли срок действия токена.
      *
-     * @return закодированный секретный ключ
+     * @param claims - claims токена
+     * @param now    - текущее время в миллисекундах
+     * @return true, если срок истек
      */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    private static boolean isExpired(final Claims claims, final long now) {
+        return expirationMillis(claims) <= now;
     }
 }
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Service;
 import java.security.Key;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -21,6 +22,26 @@ import java.util.concurrent.TimeUnit;
 @Service
 @RequiredArgsConstructor
 public class JwtTokenGenerator {
+    /**
+     * Claim с версией токенов пользователя.
+     */
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
+    /**
+     * Claim с типом токена: access и refresh токены подписаны одним ключом и различаются только им.
+     */
+    public static final String TOKEN_TYPE_CLAIM = "token_type";
+
+    /**
+     * Значение {@link #TOKEN_TYPE_CLAIM} access токена.
+     */
+    public static final String ACCESS_TOKEN_TYPE = "access";
+
+    /**
+     * Значение {@link #TOKEN_TYPE_CLAIM} refresh токена.
+     */
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+
     /**
      * Время действия access токена в секундах.
      */
@@ -52,7 +73,7 @@ public class JwtTokenGenerator {
      * @return токен
      */
     public String generate(final UserEntity userEntity) {
-        return generateToken(Map.of(), userEntity, accessTokenExpirationTimeSeconds);
+        return generateToken(tokenClaims(userEntity, ACCESS_TOKEN_TYPE), userEntity, accessTokenExpirationTimeSeconds);
     }
 
     /**
@@ -62,7 +83,8 @@ public class JwtTokenGenerator {
      * @return сгенерированный refresh-токен
      */
     public String generateRefreshToken(final UserEntity userEntity) {
-        return generateToken(Map.of(), userEntity, refreshTokenExpirationTimeSeconds);
+        return generateToken(tokenClaims(userEntity, REFRESH_TOKEN_TYPE), userEntity,
+                refreshTokenExpirationTimeSeconds);
     }
 
     /**
@@ -72,14 +94,36 @@ public class JwtTokenGenerator {
      * @return созданная куки
      */
     public ResponseCookie createRefreshTokenCookie(String refreshToken) {
+        return createRefreshTokenCookie(refreshToken, refreshTokenExpirationTimeSeconds);
+    }
+
+    /**
+     * Метод для создания куки с refresh-токеном, выпущенным ранее.
+     *
+     * @param refreshToken  - значение refresh-токена
+     * @param maxAgeSeconds - оставшееся время жизни токена в секундах
+     * @return созданная куки
+     */
+    public ResponseCookie createRefreshTokenCookie(String refreshToken, long maxAgeSeconds) {
         return ResponseCookie.from(refreshTokenNameCookie, refreshToken)
                 .httpOnly(true)
-                .maxAge(refreshTokenExpirationTimeSeconds)
+                .maxAge(maxAgeSeconds)
                 .secure(true)
                 .path("/api/v1/auth")
                 .build();
     }
 
+    /**
+     * Claims с версией токенов пользователя и типом токена.
+     *
+     * @param userEntity - данные пользователя
+     * @param tokenType  - тип токена
+     * @return claims
+     */
+    private static Map<String, Object> tokenClaims(final UserEntity userEntity, final String tokenType) {
+        return Map.of(TOKEN_VERSION_CLAIM, userEntity.getTokenVersion(), TOKEN_TYPE_CLAIM, tokenType);
+    }
+
     /**
      * Сгенерировать токен.
      *
@@ -93,6 +137,7 @@ public class JwtTokenGenerator {
         return Jwts
                 .builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userEntity.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis()
@@ -1,11 +1,11 @@
 package openschool.java.security.security.jwt;
 
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
+import openschool.java.security.user.domain.UserEntity;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.util.Date;
-
 /**
  * Класс для валидации JWT-токенов.
  */
@@ -18,7 +18,8 @@ public class JwtTokenValidator {
     private final JwtTokenExtractor extractor;
 
     /**
-     * Является ли токен валидным для пользователя.
+     * Является ли access токен валидным для пользователя.
+     * Токен проверяется {@link JwtTokenExtractor#verify(String)}, затем claims - {@link #isValid(Claims, UserDetails)}.
      *
      * @param token       - токен
      * @param userDetails - данные пользователя
@@ -26,17 +27,23 @@ public class JwtTokenValidator {
      */
     public boolean isValid(final String token,
                            final UserDetails userDetails) {
-        String extractedUsername = extractor.extractSubject(token);
-        return extractedUsername.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return extractor.verify(token) instanceof TokenVerification.Valid valid
+                && isValid(valid.claims(), userDetails);
     }
 
     /**
-     * Истекло ли время жизни токена.
+     * Является ли проверенный токен валидным для пользователя.
+     * Для {@link UserEntity} также проверяется, что версия токена не меньше текущей версии токенов пользователя.
      *
-     * @param token - токен
-     * @return true, если время жизни истекло, иначе false
+     * @param claims      - claims токена с проверенной подписью
+     * @param userDetails - данные пользователя
+     * @return является ли токен валидным
      */
-    private boolean isTokenExpired(final String token) {
-        return extractor.extractExpiration(token).before(new Date(System.currentTimeMillis()));
+    public boolean isValid(final Claims claims,
+                           final UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject())
+                && JwtTokenExtractor.expirationMillis(claims) >= System.currentTimeMillis()
+                && !(userDetails instanceof UserEntity userEntity
+                && JwtTokenExtractor.tokenVersion(claims) < userEntity.getTokenVersion());
     }
 }
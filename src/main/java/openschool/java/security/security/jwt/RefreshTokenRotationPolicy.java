@@ -0,0 +1,44 @@
+package openschool.java.security.security.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * Политика ротации refresh токенов.
+ * <p>
+ * Новый refresh токен выпускается и записывается в БД, только когда прошла доля
+ * {@code jwt.refresh.rotation-threshold} времени жизни текущего; до этого обновление возвращает новый access токен
+ * с тем же refresh токеном. Порог 0 включает ротацию при каждом обновлении.
+ */
+@Component
+public class RefreshTokenRotationPolicy {
+    /**
+     * Доля времени жизни refresh токена, после которой он заменяется.
+     */
+    private final double rotationThreshold;
+
+    public RefreshTokenRotationPolicy(@Value("${jwt.refresh.rotation-threshold}") final double rotationThreshold) {
+        if (rotationThreshold < 0 || rotationThreshold > 1) {
+            throw new IllegalArgumentException("jwt.refresh.rotation-threshold должен быть от 0 до 1");
+        }
+        this.rotationThreshold = rotationThreshold;
+    }
+
+    /**
+     * Нужно ли заменить refresh токен.
+     *
+     * @param issuedAt  - момент выпуска токена
+     * @param expiresAt - окончание времени жизни токена
+     * @param nowMillis - текущее время в миллисекундах
+     * @return true, если прошла заданная доля времени жизни или время выпуска неизвестно
+     */
+    public boolean shouldRotate(final Date issuedAt, final Date expiresAt, final long nowMillis) {
+        if (issuedAt == null || expiresAt == null) {
+            return true;
+        }
+        long lifetimeMillis = expiresAt.getTime() - issuedAt.getTime();
+        return lifetimeMillis <= 0 || nowMillis - issuedAt.getTime() >= rotationThreshold * lifetimeMillis;
+    }
+}
@@ -0,0 +1,98 @@
+package openschool.java.security.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Locale;
+
+/**
+ * Результат проверки JWT-токена без исключений.
+ */
+public sealed interface TokenVerification {
+
+    /**
+     * Токен валиден.
+     *
+     * @param claims - claims токена
+     */
+    record Valid(Claims claims) implements TokenVerification {
+    }
+
+    /**
+     * Токен отклонен.
+     *
+     * @param reason - причина отклонения
+     */
+    record Invalid(Reason reason) implements TokenVerification {
+        private static final Invalid[] INSTANCES = new Invalid[Reason.values().length];
+
+        static {
+            for (Reason reason : Reason.values()) {
+                INSTANCES[reason.ordinal()] = new Invalid(reason);
+            }
+        }
+
+        /**
+         * Получить результат отклонения без создания нового объекта.
+         *
+         * @param reason - причина отклонения
+         * @return результат отклонения
+         */
+        public static Invalid of(final Reason reason) {
+            return INSTANCES[reason.ordinal()];
+        }
+    }
+
+    /**
+     * Причина отклонения токена.
+     */
+    enum Reason {
+        /**
+         * Токен не является JWS в компактной форме.
+         */
+        MALFORMED,
+
+        /**
+         * Алгоритм подписи не поддерживается.
+         */
+        UNSUPPORTED_ALGORITHM,
+
+        /**
+         * Подпись не совпадает.
+         */
+        BAD_SIGNATURE,
+
+        /**
+         * Срок действия токена истек или еще не начался.
+         */
+        EXPIRED,
+
+        /**
+         * Токен другого типа: refresh токен вместо access или наоборот.
+         */
+        WRONG_TOKEN_TYPE,
+
+        /**
+         * Access токен отозван при выходе.
+         */
+        REVOKED,
+
+        /**
+         * Непрозрачный токен неизвестен, отозван или истек.
+         */
+        UNKNOWN_TOKEN;
+
+        /**
+         * Значение тега наблюдения.
+         */
+        private final String tag = name().toLowerCase(Locale.ROOT);
+
+        /**
+         * Получить значение тега наблюдения без создания новой строки.
+         *
+         * @return имя причины в нижнем регистре
+         */
+        public String tag() {
+            return tag;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package openschool.java.security.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Кэш claims токенов, подпись и срок действия которых уже проверены.
+ * <p>
+ * Запись живет не дольше срока действия токена, токены без {@code exp} не кэшируются. Записи упорядочены по
+ * окончанию срока действия: при добавлении удаляются истекшие, а при переполнении - те, что истекают раньше всех.
+ * Хранятся неизменяемые claims, так как одна запись отдается всем запросам с этим токеном.
+ */
+final class VerifiedClaimsCache {
+    /**
+     * Максимальное число записей.
+     */
+    private final int maxSize;
+
+    /**
+     * Источник текущего времени в миллисекундах.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Записи по токену.
+     */
+    private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Записи в порядке окончания срока действия.
+     */
+    private final ConcurrentNavigableMap<CacheEntry, String> byExpiry = new ConcurrentSkipListMap<>();
+
+    /**
+     * Порядковый номер записи, различающий записи с одинаковым сроком действия.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    VerifiedClaimsCache(final int maxSize, final LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Размер кэша claims должен быть положительным: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Получить claims токена, если срок его действия не истек.
+     *
+     * @param token - токен
+     * @return неизменяемые claims или null
+     */
+    Claims get(final String token) {
+        CacheEntry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= clock.getAsLong()) {
+            remove(entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    /**
+     * Положить claims проверенного токена в кэш.
+     *
+     * @param token  - токен
+     * @param claims - claims
+     */
+    void put(final String token, final Claims claims) {
+        long expiresAtMillis = JwtTokenExtractor.expirationMillis(claims);
+        if (expiresAtMillis == Long.MAX_VALUE) {
+            return;
+        }
+        CacheEntry entry = new CacheEntry(token, ImmutableClaims.of(claims), expiresAtMillis,
+                sequence.incrementAndGet());
+        CacheEntry previous = entries.put(token, entry);
+        if (previous != null) {
+            byExpiry.remove(previous);
+        }
+        byExpiry.put(entry, token);
+        evict();
+    }
+
+    /**
+     * Удалить все записи.
+     */
+    void clear() {
+        entries.clear();
+        byExpiry.clear();
+    }
+
+    /**
+     * Число записей.
+     *
+     * @return число записей
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Удалить истекшие записи и, пока кэш переполнен, записи с самым ранним окончанием срока действия.
+     */
+    private void evict() {
+        long now = clock.getAsLong();
+        Map.Entry<CacheEntry, String> first;
+        while ((first = byExpiry.firstEntry()) != null
+                && (first.getKey().expiresAtMillis() <= now || entries.size() > maxSize)) {
+            remove(first.getKey());
+        }
+    }
+
+    /**
+     * Удалить запись, если она еще не заменена новой записью того же токена.
+     *
+     * @param entry - запись
+     */
+    private void remove(final CacheEntry entry) {
+        byExpiry.remove(entry);
+        entries.remove(entry.token(), entry);
+    }
+
+    /**
+     * Запись кэша.
+     *
+     * @param token           - токен
+     * @param claims          - неизменяемые claims
+     * @param expiresAtMillis - окончание срока действия токена в миллисекундах
+     * @param sequence        - порядковый номер записи
+     */
+    private record CacheEntry(String token, Claims claims, long expiresAtMillis, long sequence)
+            implements Comparable<CacheEntry> {
+
+        @Override
+        public int compareTo(final CacheEntry other) {
+            int byExpiration = Long.compare(expiresAtMillis, other.expiresAtMillis);
+            return byExpiration != 0 ? byExpiration : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -2,7 +2,7 @@ package openschool.java.security.user.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
-import openschool.java.security.user.dto.UserTo;
+import openschool.java.security.user.dto.UserResponse;
 import openschool.java.security.user.service.UserFindUseCase;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -33,13 +33,13 @@ public class UserController {
      */
     @GetMapping("/{username}")
     @Operation(summary = "Получение пользователя по username")
-    public UserTo findUserByUsername(final @PathVariable String username) {
+    public UserResponse findUserByUsername(final @PathVariable String username) {
         return userFindUseCase.findUserByUsername(username);
     }
 
     @GetMapping
     @Operation(summary = "Получение всех пользователей")
-    public List<UserTo> findAllUsers() {
+    public List<UserResponse> findAllUsers() {
         return userFindUseCase.findAll();
     }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
@@ -12,14 +13,13 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.UuidGenerator;
+import openschool.java.security.database.TimeOrderedUuid;
+import openschool.java.security.invalidation.UserEntityChangeListener;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.ZonedDateTime;
 import java.util.Collection;
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -30,13 +30,14 @@ import java.util.UUID;
 @AllArgsConstructor
 @Builder(toBuilder = true)
 @Entity
+@EntityListeners(UserEntityChangeListener.class)
 @Table(name = "user_entity")
 public final class UserEntity implements UserDetails {
     /**
      * Идентификатор.
      */
     @Id
-    @UuidGenerator
+    @TimeOrderedUuid
     private UUID id;
 
     /**
@@ -92,6 +93,13 @@ public final class UserEntity implements UserDetails {
     @Builder.Default
     private boolean enabled = true;
 
+    /**
+     * Версия токенов. Токены с меньшей версией недействительны.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private int tokenVersion = 0;
+
     /**
      * Дата и время создания.
      */
@@ -107,6 +115,6 @@ public final class UserEntity implements UserDetails {
     @Override
     @JsonIgnore
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority(role.name()));
+        return role.authorities();
     }
 }
@@ -1,6 +1,9 @@
 package openschool.java.security.user.domain;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -34,4 +37,23 @@ public interface UserRepository extends JpaRepository<UserEntity, UUID> {
      * @return пользователи
      */
     List<UserEntity> findAllByIdIn(Set<UUID> ids);
+
+    /**
+     * Получить версию токенов пользователя.
+     *
+     * @param username - username
+     * @return версия токенов или пустой Optional, если пользователь не найден
+     */
+    @Query("SELECT u.tokenVersion FROM UserEntity u WHERE u.username = :username")
+    Optional<Integer> findTokenVersionByUsername(@Param("username") String username);
+
+    /**
+     * Увеличить версию токенов пользователя.
+     *
+     * @param username - username
+     * @return число обновленных строк
+     */
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.username = :username")
+    int incrementTokenVersion(@Param("username") String username);
 }
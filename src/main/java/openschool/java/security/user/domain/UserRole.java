@@ -1,5 +1,10 @@
 package openschool.java.security.user.domain;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
 /**
  * Роль пользователя.
  */
@@ -12,5 +17,19 @@ public enum UserRole {
     /**
      * Администратор.
      */
-    ADMIN
+    ADMIN;
+
+    /**
+     * Права роли, создаются один раз на роль.
+     */
+    private final List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(name()));
+
+    /**
+     * Получить права роли.
+     *
+     * @return неизменяемый список прав
+     */
+    public List<GrantedAuthority> authorities() {
+        return authorities;
+    }
 }
@@ -0,0 +1,45 @@
+package openschool.java.security.user.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Builder;
+import openschool.java.security.json.TimestampSerializer;
+import openschool.java.security.user.domain.UserRole;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Ответ с данными пользователя.
+ * <p>
+ * В отличие от {@link UserTo} не реализует {@code UserDetails} и не содержит пароля, поэтому Jackson
+ * сериализует только перечисленные поля.
+ *
+ * @param id                    - идентификатор
+ * @param username              - уникальное имя пользователя
+ * @param role                  - роль
+ * @param firstName             - имя
+ * @param lastName              - фамилия
+ * @param accountNonExpired     - не истекло ли время действия аккаунта
+ * @param accountNonLocked      - не заблокирован ли аккаунт
+ * @param credentialsNonExpired - не истекло ли время жизни credentials
+ * @param enabled               - активен ли аккаунт
+ * @param createdAt             - дата и время создания
+ * @param updatedAt             - дата и время последнего обновления
+ */
+@Builder
+public record UserResponse(
+        UUID id,
+        String username,
+        UserRole role,
+        String firstName,
+        String lastName,
+        boolean accountNonExpired,
+        boolean accountNonLocked,
+        boolean credentialsNonExpired,
+        boolean enabled,
+        @JsonSerialize(using = TimestampSerializer.class)
+        ZonedDateTime createdAt,
+        @JsonSerialize(using = TimestampSerializer.class)
+        ZonedDateTime updatedAt
+) {
+}
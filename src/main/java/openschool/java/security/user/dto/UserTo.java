@@ -2,18 +2,17 @@ package openschool.java.security.user.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import openschool.java.security.user.domain.UserRole;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.ZonedDateTime;
 import java.util.Collection;
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -32,6 +31,7 @@ public class UserTo implements UserDetails {
     /**
      * Уникальное имя пользователя.
      */
+    @Size(max = 255)
     private String username;
 
     /**
@@ -95,6 +95,6 @@ public class UserTo implements UserDetails {
 
     @JsonIgnore
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority(role.name()));
+        return role.authorities();
     }
 }
@@ -3,6 +3,7 @@ package openschool.java.security.user.mapping;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import openschool.java.security.user.domain.UserEntity;
+import openschool.java.security.user.dto.UserResponse;
 import openschool.java.security.user.dto.UserTo;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -30,6 +31,14 @@ public abstract class UserMapper {
     @Mapping(target = "password", ignore = true)
     public abstract UserTo mapFromEntity(UserEntity entity);
 
+    /**
+     * Маппинг из entity в ответ.
+     *
+     * @param entity - сущность
+     * @return ответ с данными пользователя
+     */
+    public abstract UserResponse mapToResponse(UserEntity entity);
+
     /**
      * Маппинг из to в entity.
      *
@@ -37,6 +46,7 @@ public abstract class UserMapper {
      * @return сущность с проставленными полями
      */
     @Mapping(target = "password", ignore = true)
+    @Mapping(target = "tokenVersion", ignore = true)
     public abstract UserEntity mapFromTo(UserTo to);
 
     /**
@@ -50,6 +60,7 @@ public abstract class UserMapper {
     @Mapping(target = "accountNonLocked", ignore = true)
     @Mapping(target = "credentialsNonExpired", ignore = true)
     @Mapping(target = "enabled", ignore = true)
+    @Mapping(target = "tokenVersion", ignore = true)
     @Mapping(target = "password", expression = "java(getEncoder().encode(to.getPassword()))")
     @Mapping(target = "createdAt", expression = "java(java.time.ZonedDateTime.now())")
     @Mapping(target = "updatedAt", expression = "java(java.time.ZonedDateTime.now())")
@@ -1,12 +1,18 @@
 package openschool.java.security.user.service;
 
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
+import openschool.java.security.database.ReadYourWrites;
 import openschool.java.security.exception.user.UserNotFoundException;
+import openschool.java.security.observation.AuthObservations;
 import openschool.java.security.user.domain.UserRepository;
-import openschool.java.security.user.dto.UserTo;
+import openschool.java.security.user.dto.UserResponse;
 import openschool.java.security.user.mapping.UserMapper;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -16,7 +22,13 @@ import java.util.stream.Collectors;
  */
 @Service
 @RequiredArgsConstructor
+@Observed(name = AuthObservations.USE_CASE_CALL)
 public class UserFindUseCase {
+    /**
+     * Транзакция поиска пользователя только для чтения.
+     */
+    private static final TransactionDefinition FIND_READ = readOnlyTransaction();
+
     /**
      * Репозиторий для пользователей.
      */
@@ -27,16 +39,27 @@ public class UserFindUseCase {
      */
     private final UserMapper userMapper;
 
+    /**
+     * Чтение своих записей при чтении с реплик.
+     */
+    private final ReadYourWrites readYourWrites;
+
+    /**
+     * Менеджер транзакций.
+     */
+    private final PlatformTransactionManager transactionManager;
+
     /**
      * Получение пользователя по username.
+     * <p>
+     * Транзакция только для чтения открывается после решения о закреплении чтения за основной БД.
      *
      * @param username - username
      * @return найденный пользователь или пустота
      */
-    @Transactional(readOnly = true)
-    public UserTo findUserByUsername(final String username) {
-        return userRepository.findByUsername(username)
-                .map(userMapper::mapFromEntity)
+    public UserResponse findUserByUsername(final String username) {
+        return readYourWrites.read(username, name -> new TransactionTemplate(transactionManager, FIND_READ)
+                        .execute(status -> userRepository.findByUsername(name).map(userMapper::mapToResponse)))
                 .orElseThrow(() -> new UserNotFoundException(
                         String.format("Пользователь с username %s не найден", username)));
     }
@@ -44,11 +67,22 @@ public class UserFindUseCase {
     /**
      * Получение списка всех пользователей.
      *
-     * @return to-модели найденных пользователей
+     * @return найденные пользователи
      */
-    public List<UserTo> findAll() {
+    public List<UserResponse> findAll() {
         return userRepository.findAll().stream()
-                .map(userMapper::mapFromEntity)
+                .map(userMapper::mapToResponse)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Создает описание транзакции только для чтения.
+     *
+     * @return описание транзакции
+     */
+    private static TransactionDefinition readOnlyTransaction() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        return definition;
+    }
 }
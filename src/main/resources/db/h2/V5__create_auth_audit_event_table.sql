@@ -0,0 +1,12 @@
+-- Журнал аудита аутентификации для H2 (профиль loadtest): без секций и триггера, они есть только в PostgreSQL.
+CREATE TABLE auth_audit_event
+(
+    id          UUID                        NOT NULL,
+    occurred_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    event_type  VARCHAR(32)                 NOT NULL,
+    username    VARCHAR(255)                NOT NULL,
+    user_id     UUID,
+    CONSTRAINT pk_auth_audit_event PRIMARY KEY (id, occurred_at)
+);
+
+CREATE INDEX idx_auth_audit_event_username_occurred_at ON auth_audit_event (username, occurred_at);
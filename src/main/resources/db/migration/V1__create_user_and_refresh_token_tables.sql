@@ -0,0 +1,26 @@
+CREATE TABLE user_entity
+(
+    id                      UUID         NOT NULL,
+    username                VARCHAR(255) NOT NULL,
+    password                VARCHAR(255) NOT NULL,
+    role                    VARCHAR(255),
+    first_name              VARCHAR(255),
+    last_name               VARCHAR(255),
+    account_non_expired     BOOLEAN      NOT NULL,
+    account_non_locked      BOOLEAN      NOT NULL,
+    credentials_non_expired BOOLEAN      NOT NULL,
+    enabled                 BOOLEAN      NOT NULL,
+    created_at              TIMESTAMP(6) WITH TIME ZONE,
+    updated_at              TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_user_entity PRIMARY KEY (id),
+    CONSTRAINT uk_user_entity_username UNIQUE (username),
+    CONSTRAINT ck_user_entity_role CHECK (role IN ('USER', 'ADMIN'))
+);
+
+CREATE TABLE refresh_token_entity
+(
+    id      UUID NOT NULL,
+    user_id UUID,
+    value   VARCHAR(255),
+    CONSTRAINT pk_refresh_token_entity PRIMARY KEY (id)
+);
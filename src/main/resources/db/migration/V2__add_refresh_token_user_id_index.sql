@@ -0,0 +1,3 @@
+-- Запросы по username обслуживает индекс уникального ограничения uk_user_entity_username,
+-- запросы по id - первичные ключи. Refresh токены выбираются и удаляются по пользователю.
+CREATE INDEX IF NOT EXISTS idx_refresh_token_entity_user_id ON refresh_token_entity (user_id);
@@ -0,0 +1,11 @@
+-- Отозванные access токены. Строка нужна только до истечения срока действия токена (expires_at).
+CREATE TABLE revoked_token_entity
+(
+    jti        UUID                        NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_revoked_token_entity PRIMARY KEY (jti)
+);
+
+CREATE INDEX idx_revoked_token_entity_expires_at ON revoked_token_entity (expires_at);
+CREATE INDEX idx_revoked_token_entity_revoked_at ON revoked_token_entity (revoked_at);
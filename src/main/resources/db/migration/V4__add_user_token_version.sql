@@ -0,0 +1,3 @@
+-- Версия токенов пользователя. Увеличение версии делает недействительными все ранее выпущенные токены.
+ALTER TABLE user_entity
+    ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,79 @@
+-- Журнал аудита аутентификации: только вставка, месячные секции по occurred_at.
+-- Секции на текущий и следующие месяцы создает ensure_auth_audit_event_partitions (вызывается приложением
+-- по расписанию), события вне созданных секций попадают в секцию по умолчанию и переносятся в секцию месяца
+-- при ее создании.
+-- Старые секции удаляются или отсоединяются целиком (DROP TABLE / DETACH PARTITION).
+CREATE TABLE auth_audit_event
+(
+    id          UUID                        NOT NULL,
+    occurred_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    event_type  VARCHAR(32)                 NOT NULL,
+    username    VARCHAR(255)                NOT NULL,
+    user_id     UUID,
+    CONSTRAINT pk_auth_audit_event PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+CREATE INDEX idx_auth_audit_event_username_occurred_at ON auth_audit_event (username, occurred_at);
+
+CREATE TABLE auth_audit_event_default PARTITION OF auth_audit_event DEFAULT;
+
+CREATE FUNCTION ensure_auth_audit_event_partitions(months_ahead INTEGER) RETURNS VOID
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    month_start    TIMESTAMP;
+    partition_name TEXT;
+    range_start    TIMESTAMP WITH TIME ZONE;
+    range_end      TIMESTAMP WITH TIME ZONE;
+BEGIN
+    FOR i IN 0..months_ahead
+        LOOP
+            month_start := date_trunc('month', now() AT TIME ZONE 'UTC') + make_interval(months => i);
+            partition_name := 'auth_audit_event_' || to_char(month_start, 'YYYY_MM');
+            range_start := month_start AT TIME ZONE 'UTC';
+            range_end := (month_start + INTERVAL '1 month') AT TIME ZONE 'UTC';
+            CONTINUE WHEN to_regclass(partition_name) IS NOT NULL;
+
+            IF NOT EXISTS(SELECT 1
+                          FROM auth_audit_event_default
+                          WHERE occurred_at >= range_start
+                            AND occurred_at < range_end) THEN
+                EXECUTE format('CREATE TABLE %I PARTITION OF auth_audit_event FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, range_start, range_end);
+                CONTINUE;
+            END IF;
+
+            -- Секцию месяца нельзя создать, пока его строки лежат в секции по умолчанию: секция по умолчанию
+            -- отсоединяется, строки переносятся в новую секцию, и секция по умолчанию присоединяется обратно
+            ALTER TABLE auth_audit_event DETACH PARTITION auth_audit_event_default;
+            EXECUTE format('CREATE TABLE %I PARTITION OF auth_audit_event FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, range_start, range_end);
+            INSERT INTO auth_audit_event
+            SELECT *
+            FROM auth_audit_event_default
+            WHERE occurred_at >= range_start
+              AND occurred_at < range_end;
+            DELETE
+            FROM auth_audit_event_default
+            WHERE occurred_at >= range_start
+              AND occurred_at < range_end;
+            ALTER TABLE auth_audit_event ATTACH PARTITION auth_audit_event_default DEFAULT;
+        END LOOP;
+END;
+$$;
+
+SELECT ensure_auth_audit_event_partitions(2);
+
+CREATE FUNCTION reject_auth_audit_event_change() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    RAISE EXCEPTION 'auth_audit_event допускает только вставку';
+END;
+$$;
+
+CREATE TRIGGER auth_audit_event_append_only
+    BEFORE UPDATE OR DELETE
+    ON auth_audit_event
+    FOR EACH STATEMENT
+EXECUTE FUNCTION reject_auth_audit_event_change();
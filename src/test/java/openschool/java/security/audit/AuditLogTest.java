@@ -0,0 +1,184 @@
+package openschool.java.security.audit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogTest {
+
+    @Mock
+    private AuditEventWriter writer;
+
+    private MeterRegistry meterRegistry;
+    private List<List<AuditEvent>> batches;
+    private AuditLog auditLog;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        batches = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (auditLog != null) {
+            auditLog.stop();
+        }
+    }
+
+    @Test
+    void record_BeforeStart_IsWrittenOnStopInBatches() {
+        captureBatches();
+        auditLog = auditLog(8, 3, AuditProperties.OverflowPolicy.DROP);
+        for (int i = 0; i < 7; i++) {
+            auditLog.record(AuditEventType.LOGIN_SUCCESS, "user" + i, UUID.randomUUID());
+        }
+
+        auditLog.stop();
+
+        assertEquals(List.of(3, 3, 1), batches.stream().map(List::size).toList());
+        assertEquals("user6", batches.get(2).get(0).username());
+        assertEquals(7.0, count("written"));
+    }
+
+    @Test
+    void record_WhenBatchIsFull_IsWrittenByBackgroundThread() {
+        captureBatches();
+        auditLog = auditLog(64, 4, 60_000, AuditProperties.OverflowPolicy.DROP);
+        // События записываются до старта: иначе поток может забрать неполный пакет и ждать flush interval
+        for (int i = 0; i < 4; i++) {
+            auditLog.record(AuditEventType.REGISTRATION, "user" + i, UUID.randomUUID());
+        }
+        auditLog.start();
+
+        verify(writer, timeout(5_000)).write(anyList());
+        assertEquals(4, batches.get(0).size());
+        assertEquals(0, auditLog.backlog());
+    }
+
+    @Test
+    void record_WhenBufferIsFullAndPolicyIsDrop_DropsEvent() {
+        auditLog = auditLog(2, 2, AuditProperties.OverflowPolicy.DROP);
+        for (int i = 0; i < 3; i++) {
+            auditLog.record(AuditEventType.LOGIN_FAILURE, "user", null);
+        }
+
+        verifyNoInteractions(writer);
+        assertEquals(1.0, count("dropped"));
+        assertEquals(2, auditLog.backlog());
+    }
+
+    @Test
+    void record_WhenBufferIsFullAndPolicyIsSynchronous_WritesInCallerThread() {
+        captureBatches();
+        auditLog = auditLog(2, 2, AuditProperties.OverflowPolicy.SYNCHRONOUS);
+        for (int i = 0; i < 3; i++) {
+            auditLog.record(AuditEventType.LOGIN_FAILURE, "user" + i, null);
+        }
+
+        assertEquals(1, batches.size());
+        assertEquals("user2", batches.get(0).get(0).username());
+        assertEquals(1.0, count("synchronous"));
+    }
+
+    @Test
+    void run_AfterWriteFailure_RetriesSameBatch() {
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new DataAccessResourceFailureException("connection refused");
+            }
+            batches.add(new ArrayList<>(invocation.<List<AuditEvent>>getArgument(0)));
+            return null;
+        }).when(writer).write(anyList());
+        auditLog = auditLog(64, 2, AuditProperties.OverflowPolicy.DROP);
+        auditLog.record(AuditEventType.REFRESH, "first", null);
+        auditLog.record(AuditEventType.REFRESH, "second", null);
+        auditLog.start();
+
+        verify(writer, timeout(5_000).times(2)).write(anyList());
+        assertEquals(List.of("first", "second"), batches.get(0).stream().map(AuditEvent::username).toList());
+        assertEquals(2.0, count("failed"));
+        assertEquals(2.0, count("written"));
+    }
+
+    @Test
+    void run_WhenBatchKeepsFailing_WritesEventsOneByOneAndDropsRejected() {
+        doAnswer(invocation -> {
+            List<AuditEvent> events = invocation.getArgument(0);
+            if (events.stream().anyMatch(event -> event.username().equals("poison"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            batches.add(new ArrayList<>(events));
+            return null;
+        }).when(writer).write(anyList());
+        auditLog = auditLog(64, 3, AuditProperties.OverflowPolicy.DROP);
+        auditLog.record(AuditEventType.LOGIN_FAILURE, "first", null);
+        auditLog.record(AuditEventType.LOGIN_FAILURE, "poison", null);
+        auditLog.record(AuditEventType.LOGIN_FAILURE, "second", null);
+        auditLog.start();
+
+        verify(writer, timeout(5_000).times(6)).write(anyList());
+        assertEquals(List.of("first", "second"), batches.stream().map(batch -> batch.get(0).username()).toList());
+        assertEquals(1.0, count("dead_letter"));
+        assertEquals(2.0, count("written"));
+
+        auditLog.record(AuditEventType.LOGIN_SUCCESS, "third", null);
+        auditLog.record(AuditEventType.LOGIN_SUCCESS, "fourth", null);
+        auditLog.record(AuditEventType.LOGIN_SUCCESS, "fifth", null);
+
+        verify(writer, timeout(5_000).times(7)).write(anyList());
+        assertEquals(3, batches.get(2).size());
+    }
+
+    @Test
+    void record_TruncatesLongUsername() {
+        captureBatches();
+        auditLog = auditLog(8, 3, AuditProperties.OverflowPolicy.DROP);
+        auditLog.record(AuditEventType.LOGIN_FAILURE, "u".repeat(AuditLog.USERNAME_MAX_LENGTH + 1), null);
+
+        auditLog.stop();
+
+        assertEquals(AuditLog.USERNAME_MAX_LENGTH, batches.get(0).get(0).username().length());
+    }
+
+    private void captureBatches() {
+        doAnswer(invocation -> batches.add(new ArrayList<>(invocation.<List<AuditEvent>>getArgument(0))))
+                .when(writer).write(anyList());
+    }
+
+    private AuditLog auditLog(final int capacity, final int batchSize, final AuditProperties.OverflowPolicy policy) {
+        return auditLog(capacity, batchSize, 10, policy);
+    }
+
+    private AuditLog auditLog(final int capacity, final int batchSize, final long flushIntervalMillis,
+                              final AuditProperties.OverflowPolicy policy) {
+        return new AuditLog(writer, new AuditProperties(capacity, batchSize, flushIntervalMillis, 3, policy,
+                new AuditProperties.Partitioning(false, 2, 0)), meterRegistry);
+    }
+
+    private double count(final String outcome) {
+        return meterRegistry.get("audit.events").tag("outcome", outcome).counter().count();
+    }
+}
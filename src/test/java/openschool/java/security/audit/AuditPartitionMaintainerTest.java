@@ -0,0 +1,40 @@
+package openschool.java.security.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class AuditPartitionMaintainerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ensurePartitions_WhenEnabled_CallsDatabaseFunction() {
+        maintainer(true).ensurePartitions();
+
+        verify(jdbcTemplate).query(eq("SELECT ensure_auth_audit_event_partitions(?)"),
+                ArgumentMatchers.<ResultSetExtractor<Object>>any(), eq(2));
+    }
+
+    @Test
+    void ensurePartitions_WhenDisabled_DoesNothing() {
+        maintainer(false).ensurePartitions();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private AuditPartitionMaintainer maintainer(boolean enabled) {
+        return new AuditPartitionMaintainer(jdbcTemplate, new AuditProperties(16, 4, 100, 3,
+                AuditProperties.OverflowPolicy.DROP, new AuditProperties.Partitioning(enabled, 2, 1000)));
+    }
+}
@@ -1,10 +1,20 @@
 package openschool.java.security.authentication.service;
 
-import openschool.java.security.authentication.domain.RefreshTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import openschool.java.security.audit.AuditEventType;
+import openschool.java.security.audit.AuditLog;
 import openschool.java.security.authentication.dto.AuthenticationOperationResultTo;
+import openschool.java.security.database.PrimaryRouting;
+import openschool.java.security.database.ReadYourWrites;
+import openschool.java.security.database.ReplicaProperties;
+import openschool.java.security.exception.auth.InvalidUsernameOrPasswordException;
 import openschool.java.security.exception.auth.UserAlreadyExistsException;
 import openschool.java.security.exception.jwt.InvalidJwtToken;
+import openschool.java.security.exception.ratelimit.TooManyRequestsException;
 import openschool.java.security.exception.user.UserNotFoundException;
+import openschool.java.security.opaque.AccessTokenType;
+import openschool.java.security.ratelimit.AuthRateLimiter;
 import openschool.java.security.security.jwt.JwtTokenExtractor;
 import openschool.java.security.security.jwt.JwtTokenGenerator;
 import openschool.java.security.security.jwt.JwtTokenValidator;
@@ -15,24 +25,40 @@ import openschool.java.security.user.mapping.UserMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,20 +77,29 @@ class AuthenticationUseCaseTest {
     private JwtTokenExtractor jwtTokenExtractor;
 
     @Mock
-    private JwtTokenGenerator jwtTokenGenerator;
+    private JwtTokenValidator jwtTokenValidator;
 
     @Mock
-    private JwtTokenValidator jwtTokenValidator;
+    private AuthenticationManager authenticationManager;
 
     @Mock
-    private RefreshTokenRepository refreshTokenRepository;
+    private AuthRateLimiter rateLimiter;
 
     @Mock
-    private AuthenticationManager authenticationManager;
+    private AuditLog auditLog;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TokenIssuanceService tokenIssuanceService;
+
+    @Spy
+    private ReadYourWrites readYourWrites =
+            new ReadYourWrites(new ReplicaProperties(false, List.of(), 0, 0, 0, null, 0, 0));
 
     private UserTo userTo;
     private UserEntity userEntity;
-    private String refreshToken;
     private ResponseCookie responseCookie;
 
     @BeforeEach
@@ -86,8 +121,7 @@ class AuthenticationUseCaseTest {
                 .updatedAt(ZonedDateTime.now())
                 .build();
 
-        refreshToken = "newRefreshToken";
-        responseCookie = ResponseCookie.from("refresh-token", refreshToken)
+        responseCookie = ResponseCookie.from("refresh-token", "newRefreshToken")
                 .httpOnly(true)
                 .maxAge(3600)
                 .secure(true)
@@ -99,74 +133,191 @@ class AuthenticationUseCaseTest {
     void authenticate_Success() {
         when(userRepository.existsByUsername(any(String.class))).thenReturn(true);
         when(userRepository.findByUsername(any(String.class))).thenReturn(Optional.of(userEntity));
-        when(jwtTokenGenerator.generateRefreshToken(any(UserEntity.class))).thenReturn(refreshToken);
-        when(jwtTokenGenerator.createRefreshTokenCookie(any(String.class))).thenReturn(responseCookie);
-        when(jwtTokenGenerator.generate(any(UserEntity.class))).thenReturn("jwtToken");
+        when(tokenIssuanceService.issueRefreshToken(userEntity)).thenReturn(responseCookie);
+        when(tokenIssuanceService.issueAccessToken(userEntity, AccessTokenType.JWT)).thenReturn("jwtToken");
 
-        ResponseEntity<AuthenticationOperationResultTo> response = authenticationUseCase.authenticate(userTo);
+        ResponseEntity<AuthenticationOperationResultTo> response =
+                authenticationUseCase.authenticate(userTo, AccessTokenType.JWT);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertTrue(response.getHeaders().containsKey(HttpHeaders.SET_COOKIE));
         assertNotNull(response.getBody());
         assertEquals(userEntity.getId(), response.getBody().userId());
         assertEquals("jwtToken", response.getBody().token());
+        verify(auditLog).record(AuditEventType.LOGIN_SUCCESS, "testuser", userEntity.getId());
+    }
+
+    @Test
+    void authenticate_RunsInReadOnlyTransaction() {
+        when(userRepository.existsByUsername(any(String.class))).thenReturn(true);
+        when(userRepository.findByUsername(any(String.class))).thenReturn(Optional.of(userEntity));
+        when(tokenIssuanceService.issueRefreshToken(userEntity)).thenReturn(responseCookie);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        authenticationUseCase.authenticate(userTo, AccessTokenType.JWT);
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void authenticate_RecentlyWritten_PinsToPrimaryBeforeTransactionStarts() {
+        when(userRepository.existsByUsername(any(String.class))).thenReturn(true);
+        when(userRepository.findByUsername(any(String.class))).thenReturn(Optional.of(userEntity));
+        when(tokenIssuanceService.issueRefreshToken(userEntity)).thenReturn(responseCookie);
+        doAnswer(invocation -> PrimaryRouting.call(() ->
+                invocation.<Function<String, Object>>getArgument(1).apply(invocation.getArgument(0))))
+                .when(readYourWrites).read(any(), any());
+        List<Boolean> pinnedAtBegin = new ArrayList<>();
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            pinnedAtBegin.add(PrimaryRouting.isPinned());
+            return new SimpleTransactionStatus();
+        });
+
+        authenticationUseCase.authenticate(userTo, AccessTokenType.JWT);
+
+        assertEquals(List.of(true), pinnedAtBegin);
+    }
+
+    @Test
+    void authenticate_WithOpaqueTokenType_ReturnsOpaqueToken() {
+        when(userRepository.existsByUsername(any(String.class))).thenReturn(true);
+        when(userRepository.findByUsername(any(String.class))).thenReturn(Optional.of(userEntity));
+        when(tokenIssuanceService.issueRefreshToken(userEntity)).thenReturn(responseCookie);
+        when(tokenIssuanceService.issueAccessToken(userEntity, AccessTokenType.OPAQUE)).thenReturn("opq_token");
+
+        ResponseEntity<AuthenticationOperationResultTo> response =
+                authenticationUseCase.authenticate(userTo, AccessTokenType.OPAQUE);
+
+        assertNotNull(response.getBody());
+        assertEquals("opq_token", response.getBody().token());
     }
 
     @Test
     void authenticate_ThrowsUserNotFoundException() {
         when(userRepository.existsByUsername(any(String.class))).thenReturn(false);
 
-        assertThrows(UserNotFoundException.class, () -> authenticationUseCase.authenticate(userTo));
+        assertThrows(UserNotFoundException.class,
+                () -> authenticationUseCase.authenticate(userTo, AccessTokenType.JWT));
+        verify(auditLog).record(AuditEventType.LOGIN_FAILURE, "testuser", null);
+        verifyNoInteractions(tokenIssuanceService);
+    }
+
+    @Test
+    void authenticate_WithWrongPassword_RecordsLoginFailure() {
+        when(userRepository.existsByUsername(any(String.class))).thenReturn(true);
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("bad credentials"));
+
+        assertThrows(InvalidUsernameOrPasswordException.class,
+                () -> authenticationUseCase.authenticate(userTo, AccessTokenType.JWT));
+        verify(auditLog).record(AuditEventType.LOGIN_FAILURE, "testuser", null);
+    }
+
+    @Test
+    void authenticate_RateLimited_ThrowsBeforePasswordCheck() {
+        doThrow(new TooManyRequestsException("Слишком много запросов, повторите позже", 12))
+                .when(rateLimiter).checkUsername(AuthRateLimiter.AUTHENTICATE, "testuser");
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> authenticationUseCase.authenticate(userTo, AccessTokenType.JWT));
+        assertEquals(12, exception.getRetryAfterSeconds());
+        verifyNoInteractions(authenticationManager, userRepository);
     }
 
     @Test
     void register_Success() {
         when(userRepository.existsByUsername(any(String.class))).thenReturn(false);
         when(userMapper.mapForRegistration(any(UserTo.class))).thenReturn(userEntity);
-        when(jwtTokenGenerator.generateRefreshToken(any(UserEntity.class))).thenReturn(refreshToken);
-        when(jwtTokenGenerator.createRefreshTokenCookie(any(String.class))).thenReturn(responseCookie);
-        when(jwtTokenGenerator.generate(any(UserEntity.class))).thenReturn("jwtToken");
+        when(tokenIssuanceService.issueRefreshToken(userEntity)).thenReturn(responseCookie);
+        when(tokenIssuanceService.issueAccessToken(userEntity, AccessTokenType.JWT)).thenReturn("jwtToken");
 
-        ResponseEntity<AuthenticationOperationResultTo> response = authenticationUseCase.register(userTo);
+        ResponseEntity<AuthenticationOperationResultTo> response =
+                authenticationUseCase.register(userTo, AccessTokenType.JWT);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertTrue(response.getHeaders().containsKey(HttpHeaders.SET_COOKIE));
         assertNotNull(response.getBody());
         assertEquals(userEntity.getId(), response.getBody().userId());
         assertEquals("jwtToken", response.getBody().token());
+        verify(userRepository).save(userEntity);
+        verify(auditLog).record(AuditEventType.REGISTRATION, "testuser", userEntity.getId());
+        verify(readYourWrites).markWritten("testuser");
+    }
+
+    @Test
+    void register_InTransaction_RecordsRegistrationAfterCommit() {
+        when(userRepository.existsByUsername(any(String.class))).thenReturn(false);
+        when(userMapper.mapForRegistration(any(UserTo.class))).thenReturn(userEntity);
+        when(tokenIssuanceService.issueRefreshToken(userEntity)).thenReturn(responseCookie);
+        when(tokenIssuanceService.issueAccessToken(userEntity, AccessTokenType.JWT)).thenReturn("jwtToken");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            authenticationUseCase.register(userTo, AccessTokenType.JWT);
+
+            verifyNoInteractions(auditLog);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(auditLog).record(AuditEventType.REGISTRATION, "testuser", userEntity.getId());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
     void register_ThrowsUserAlreadyExistsException() {
         when(userRepository.existsByUsername(any(String.class))).thenReturn(true);
 
-        assertThrows(UserAlreadyExistsException.class, () -> authenticationUseCase.register(userTo));
+        assertThrows(UserAlreadyExistsException.class,
+                () -> authenticationUseCase.register(userTo, AccessTokenType.JWT));
+        verifyNoInteractions(tokenIssuanceService);
     }
 
     @Test
     void refreshToken_Success() {
-        when(jwtTokenExtractor.extractSubject(any(String.class))).thenReturn(userEntity.getUsername());
-        when(userRepository.findByUsername(any(String.class))).thenReturn(Optional.of(userEntity));
-        when(jwtTokenValidator.isValid(any(String.class), any(UserEntity.class))).thenReturn(true);
-        when(jwtTokenGenerator.generateRefreshToken(any(UserEntity.class))).thenReturn(refreshToken);
-        when(jwtTokenGenerator.createRefreshTokenCookie(any(String.class))).thenReturn(responseCookie);
-        when(jwtTokenGenerator.generate(any(UserEntity.class))).thenReturn("jwtToken");
+        Claims claims = refreshClaims();
+        when(jwtTokenExtractor.extractRefreshClaims("oldRefreshToken")).thenReturn(claims);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(userEntity));
+        when(jwtTokenValidator.isValid(claims, userEntity)).thenReturn(true);
+        when(tokenIssuanceService.rotateRefreshToken(userEntity, "oldRefreshToken", claims)).thenReturn(responseCookie);
+        when(tokenIssuanceService.issueAccessToken(userEntity, AccessTokenType.JWT)).thenReturn("jwtToken");
 
-        ResponseEntity<AuthenticationOperationResultTo> response = authenticationUseCase.refreshToken("oldRefreshToken");
+        ResponseEntity<AuthenticationOperationResultTo> response =
+                authenticationUseCase.refreshToken("oldRefreshToken", AccessTokenType.JWT);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertTrue(response.getHeaders().containsKey(HttpHeaders.SET_COOKIE));
         assertNotNull(response.getBody());
         assertEquals(userEntity.getId(), response.getBody().userId());
         assertEquals("jwtToken", response.getBody().token());
+        verify(auditLog).record(AuditEventType.REFRESH, "testuser", userEntity.getId());
     }
 
     @Test
     void refreshToken_ThrowsInvalidJwtTokenException() {
-        when(jwtTokenExtractor.extractSubject(any(String.class))).thenReturn(userEntity.getUsername());
-        when(userRepository.findByUsername(any(String.class))).thenReturn(Optional.of(userEntity));
-        when(jwtTokenValidator.isValid(any(String.class), any(UserEntity.class))).thenReturn(false);
+        Claims claims = refreshClaims();
+        when(jwtTokenExtractor.extractRefreshClaims("oldRefreshToken")).thenReturn(claims);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(userEntity));
+        when(jwtTokenValidator.isValid(claims, userEntity)).thenReturn(false);
+
+        assertThrows(InvalidJwtToken.class,
+                () -> authenticationUseCase.refreshToken("oldRefreshToken", AccessTokenType.JWT));
+        verifyNoInteractions(tokenIssuanceService);
+    }
+
+    @Test
+    void refreshToken_WithAccessToken_ThrowsInvalidJwtToken() {
+        when(jwtTokenExtractor.extractRefreshClaims("accessToken"))
+                .thenThrow(new InvalidJwtToken("Некорректный JWT токен"));
+
+        assertThrows(InvalidJwtToken.class,
+                () -> authenticationUseCase.refreshToken("accessToken", AccessTokenType.JWT));
+        verifyNoInteractions(userRepository, tokenIssuanceService, auditLog);
+    }
 
-        assertThrows(InvalidJwtToken.class, () -> authenticationUseCase.refreshToken("oldRefreshToken"));
+    private static Claims refreshClaims() {
+        return Jwts.claims(Map.of(Claims.SUBJECT, "testuser",
+                JwtTokenGenerator.TOKEN_TYPE_CLAIM, JwtTokenGenerator.REFRESH_TOKEN_TYPE));
     }
 }
@@ -0,0 +1,137 @@
+package openschool.java.security.authentication.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import openschool.java.security.authentication.domain.RefreshTokenRepository;
+import openschool.java.security.exception.jwt.InvalidJwtToken;
+import openschool.java.security.opaque.OpaqueSession;
+import openschool.java.security.opaque.OpaqueTokenStore;
+import openschool.java.security.revocation.service.TokenEpochService;
+import openschool.java.security.revocation.service.TokenRevocationService;
+import openschool.java.security.security.jwt.JwtTokenExtractor;
+import openschool.java.security.security.jwt.JwtTokenGenerator;
+import openschool.java.security.security.jwt.TokenVerification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LogoutUseCaseTest {
+
+    @InjectMocks
+    private LogoutUseCase logoutUseCase;
+
+    @Mock
+    private JwtTokenExtractor jwtTokenExtractor;
+
+    @Mock
+    private OpaqueTokenStore opaqueTokenStore;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void logout_RevokesTokenById() {
+        Date expiration = new Date(TimeUnit.SECONDS.toMillis(System.currentTimeMillis() / 1000 + 60));
+        when(jwtTokenExtractor.verify("accessToken")).thenReturn(valid(Map.of(
+                Claims.ID, "jti", Claims.EXPIRATION, TimeUnit.MILLISECONDS.toSeconds(expiration.getTime()))));
+
+        logoutUseCase.logout("accessToken");
+
+        verify(tokenRevocationService).revoke("jti", expiration);
+    }
+
+    @Test
+    void logout_WithoutJti_ThrowsInvalidJwtToken() {
+        when(jwtTokenExtractor.verify("accessToken")).thenReturn(valid(Map.of(Claims.SUBJECT, "testuser")));
+
+        assertThrows(InvalidJwtToken.class, () -> logoutUseCase.logout("accessToken"));
+    }
+
+    @Test
+    void logout_WithRefreshToken_ThrowsInvalidJwtToken() {
+        when(jwtTokenExtractor.verify("refreshToken"))
+                .thenReturn(TokenVerification.Invalid.of(TokenVerification.Reason.WRONG_TOKEN_TYPE));
+
+        assertThrows(InvalidJwtToken.class, () -> logoutUseCase.logout("refreshToken"));
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void logout_WithOpaqueToken_RevokesToken() {
+        when(opaqueTokenStore.revoke("opq_token")).thenReturn(true);
+
+        logoutUseCase.logout("opq_token");
+
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void logout_WithUnknownOpaqueToken_ThrowsInvalidJwtToken() {
+        when(opaqueTokenStore.revoke("opq_token")).thenReturn(false);
+
+        assertThrows(InvalidJwtToken.class, () -> logoutUseCase.logout("opq_token"));
+    }
+
+    @Test
+    void logoutEverywhere_WithOpaqueToken_IncrementsTokenVersion() {
+        when(opaqueTokenStore.resolve("opq_token")).thenReturn(new OpaqueSession("testuser", 2, Long.MAX_VALUE));
+        when(tokenEpochService.isCurrent("testuser", 2)).thenReturn(true);
+
+        logoutUseCase.logoutEverywhere("opq_token");
+
+        verify(tokenEpochService).increment("testuser");
+    }
+
+    @Test
+    void logoutEverywhere_IncrementsTokenVersion() {
+        when(jwtTokenExtractor.verify("accessToken")).thenReturn(valid(Map.of(
+                Claims.SUBJECT, "testuser", JwtTokenGenerator.TOKEN_VERSION_CLAIM, 3)));
+        when(tokenEpochService.isCurrent("testuser", 3)).thenReturn(true);
+
+        logoutUseCase.logoutEverywhere("accessToken");
+
+        verify(tokenEpochService).increment("testuser");
+        verify(refreshTokenRepository).deleteAllByUsername("testuser");
+    }
+
+    @Test
+    void logoutEverywhere_WithStaleToken_ThrowsInvalidJwtToken() {
+        when(jwtTokenExtractor.verify("accessToken")).thenReturn(valid(Map.of(
+                Claims.SUBJECT, "testuser", JwtTokenGenerator.TOKEN_VERSION_CLAIM, 1)));
+        when(tokenEpochService.isCurrent("testuser", 1)).thenReturn(false);
+
+        assertThrows(InvalidJwtToken.class, () -> logoutUseCase.logoutEverywhere("accessToken"));
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    void logoutEverywhere_WithRefreshToken_ThrowsInvalidJwtToken() {
+        when(jwtTokenExtractor.verify("refreshToken"))
+                .thenReturn(TokenVerification.Invalid.of(TokenVerification.Reason.WRONG_TOKEN_TYPE));
+
+        assertThrows(InvalidJwtToken.class, () -> logoutUseCase.logoutEverywhere("refreshToken"));
+        verifyNoInteractions(tokenEpochService);
+    }
+
+    private static TokenVerification valid(final Map<String, Object> claims) {
+        return new TokenVerification.Valid(Jwts.claims(claims));
+    }
+}
@@ -0,0 +1,165 @@
+package openschool.java.security.authentication.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.observation.tck.TestObservationRegistry;
+import openschool.java.security.authentication.domain.RefreshTokenEntity;
+import openschool.java.security.authentication.domain.RefreshTokenRepository;
+import openschool.java.security.observation.AuthObservations;
+import openschool.java.security.opaque.AccessTokenProperties;
+import openschool.java.security.opaque.AccessTokenType;
+import openschool.java.security.opaque.OpaqueTokenStore;
+import openschool.java.security.security.jwt.JwtTokenGenerator;
+import openschool.java.security.security.jwt.RefreshTokenRotationPolicy;
+import openschool.java.security.user.domain.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseCookie;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static io.micrometer.observation.tck.TestObservationRegistryAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenIssuanceServiceTest {
+
+    @InjectMocks
+    private TokenIssuanceService tokenIssuanceService;
+
+    @Mock
+    private JwtTokenGenerator jwtTokenGenerator;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private OpaqueTokenStore opaqueTokenStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private AccessTokenProperties accessTokenProperties = new AccessTokenProperties(AccessTokenType.JWT, null);
+
+    @Spy
+    private RefreshTokenRotationPolicy refreshTokenRotationPolicy = new RefreshTokenRotationPolicy(0.5);
+
+    @Spy
+    private TestObservationRegistry observationRegistry = TestObservationRegistry.create();
+
+    private UserEntity userEntity;
+    private ResponseCookie responseCookie;
+
+    @BeforeEach
+    void setUp() {
+        userEntity = UserEntity.builder()
+                .id(UUID.randomUUID())
+                .username("testuser")
+                .build();
+        responseCookie = ResponseCookie.from("refresh-token", "newRefreshToken").build();
+    }
+
+    @Test
+    void issueAccessToken_WithOpaqueType_IssuesOpaqueToken() {
+        when(opaqueTokenStore.issue(userEntity)).thenReturn("opq_token");
+
+        assertEquals("opq_token", tokenIssuanceService.issueAccessToken(userEntity, AccessTokenType.OPAQUE));
+        verify(jwtTokenGenerator, never()).generate(any(UserEntity.class));
+    }
+
+    @Test
+    void issueAccessToken_WithoutType_UsesDefaultType() {
+        when(jwtTokenGenerator.generate(userEntity)).thenReturn("jwtToken");
+
+        assertEquals("jwtToken", tokenIssuanceService.issueAccessToken(userEntity, null));
+        verifyNoInteractions(opaqueTokenStore);
+    }
+
+    @Test
+    void issueRefreshToken_SavesTokenAndObservesPersistence() {
+        when(jwtTokenGenerator.generateRefreshToken(userEntity)).thenReturn("newRefreshToken");
+        when(jwtTokenGenerator.createRefreshTokenCookie("newRefreshToken")).thenReturn(responseCookie);
+
+        assertSame(responseCookie, tokenIssuanceService.issueRefreshToken(userEntity));
+
+        ArgumentCaptor<RefreshTokenEntity> saved = ArgumentCaptor.forClass(RefreshTokenEntity.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals(userEntity.getId(), saved.getValue().getUserId());
+        assertEquals("newRefreshToken", saved.getValue().getValue());
+        verifyNoInteractions(transactionManager);
+        assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo(AuthObservations.REFRESH_TOKEN_PERSIST)
+                .that()
+                .hasBeenStarted()
+                .hasBeenStopped();
+    }
+
+    @Test
+    void issueRefreshToken_InReadOnlyTransaction_PersistsInNewTransaction() {
+        when(jwtTokenGenerator.generateRefreshToken(userEntity)).thenReturn("newRefreshToken");
+        when(jwtTokenGenerator.createRefreshTokenCookie("newRefreshToken")).thenReturn(responseCookie);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            tokenIssuanceService.issueRefreshToken(userEntity);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+
+        verify(refreshTokenRepository).save(any(RefreshTokenEntity.class));
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void rotateRefreshToken_AfterRotationThreshold_IssuesNewToken() {
+        Claims claims = refreshClaims(hoursFromNow(-80), hoursFromNow(20));
+        when(jwtTokenGenerator.generateRefreshToken(userEntity)).thenReturn("newRefreshToken");
+        when(jwtTokenGenerator.createRefreshTokenCookie("newRefreshToken")).thenReturn(responseCookie);
+
+        assertSame(responseCookie, tokenIssuanceService.rotateRefreshToken(userEntity, "oldRefreshToken", claims));
+        verify(refreshTokenRepository).save(any(RefreshTokenEntity.class));
+    }
+
+    @Test
+    void rotateRefreshToken_BeforeRotationThreshold_KeepsRefreshToken() {
+        Claims claims = refreshClaims(hoursFromNow(-1), hoursFromNow(99));
+        when(jwtTokenGenerator.createRefreshTokenCookie(eq("oldRefreshToken"), anyLong())).thenReturn(responseCookie);
+
+        assertSame(responseCookie, tokenIssuanceService.rotateRefreshToken(userEntity, "oldRefreshToken", claims));
+        verify(jwtTokenGenerator, never()).generateRefreshToken(any(UserEntity.class));
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    private static Claims refreshClaims(final Date issuedAt, final Date expiresAt) {
+        return Jwts.claims().setIssuedAt(issuedAt).setExpiration(expiresAt);
+    }
+
+    private static Date hoursFromNow(final long hours) {
+        return new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(hours));
+    }
+}
@@ -0,0 +1,124 @@
+package openschool.java.security.benchmark;
+
+import openschool.java.security.security.authorization.RequiresRole;
+import openschool.java.security.security.authorization.RequiresRoleAuthorizationManager;
+import openschool.java.security.security.authorization.RoleAuthorizationManager;
+import openschool.java.security.user.domain.UserEntity;
+import openschool.java.security.user.domain.UserRole;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Бенчмарк стоимости авторизации одного запроса.
+ * <p>
+ * Уровень метода: выражение {@code @PreAuthorize("hasAuthority('ADMIN')")}, которое Spring Security вычисляет
+ * через SpEL при каждом вызове, против скомпилированного при старте правила {@link RequiresRole}. Уровень маршрута:
+ * {@link AuthorityAuthorizationManager} против {@link RoleAuthorizationManager}. Пользователь - администратор,
+ * поэтому все проверки разрешают доступ. Профилировщик GC выводит байты, выделенные на одну проверку.
+ * <p>
+ * Запуск: {@code mvn test -Pbenchmark -Dtest=AuthorizationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationBenchmark {
+
+    private Supplier<Authentication> authentication;
+    private MethodInvocation invocation;
+    private RequestAuthorizationContext requestContext;
+
+    private PreAuthorizeAuthorizationManager preAuthorizeManager;
+    private RequiresRoleAuthorizationManager requiresRoleManager;
+    private AuthorityAuthorizationManager<RequestAuthorizationContext> authorityRouteManager;
+    private RoleAuthorizationManager<RequestAuthorizationContext> roleRouteManager;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        UserEntity admin = UserEntity.builder().username("admin").role(UserRole.ADMIN).build();
+        Authentication token = new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities());
+        authentication = () -> token;
+        Method method = Target.class.getMethod("admin");
+        invocation = new SimpleMethodInvocation(new Target(), method);
+        requestContext = new RequestAuthorizationContext(new MockHttpServletRequest("GET", "/api/v1/admin"));
+
+        preAuthorizeManager = new PreAuthorizeAuthorizationManager();
+        requiresRoleManager = new RequiresRoleAuthorizationManager();
+        if (!requiresRoleManager.pointcut().getMethodMatcher().matches(method, Target.class)) {
+            throw new IllegalStateException("Правило не скомпилировано");
+        }
+        authorityRouteManager = AuthorityAuthorizationManager.hasAuthority("ADMIN");
+        roleRouteManager = RoleAuthorizationManager.hasAnyRole(UserRole.ADMIN);
+    }
+
+    @Benchmark
+    public boolean methodPreAuthorize() {
+        return preAuthorizeManager.check(authentication, invocation).isGranted();
+    }
+
+    @Benchmark
+    public boolean methodRequiresRole() {
+        return requiresRoleManager.check(authentication, invocation).isGranted();
+    }
+
+    @Benchmark
+    public boolean routeAuthority() {
+        return authorityRouteManager.check(authentication, requestContext).isGranted();
+    }
+
+    @Benchmark
+    public boolean routeRole() {
+        return roleRouteManager.check(authentication, requestContext).isGranted();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthorizationBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    /**
+     * Защищаемый метод с обоими вариантами правила.
+     */
+    public static class Target {
+
+        @PreAuthorize("hasAuthority('ADMIN')")
+        @RequiresRole(UserRole.ADMIN)
+        public String admin() {
+            return "admin";
+        }
+    }
+}
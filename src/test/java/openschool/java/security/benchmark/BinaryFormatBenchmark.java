@@ -0,0 +1,139 @@
+package openschool.java.security.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import openschool.java.security.authentication.dto.AuthenticationOperationResultTo;
+import openschool.java.security.json.JsonConfiguration;
+import openschool.java.security.user.domain.UserEntity;
+import openschool.java.security.user.domain.UserRole;
+import openschool.java.security.user.dto.UserResponse;
+import openschool.java.security.user.mapping.UserMapperImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Бенчмарк кодирования и декодирования ответов в JSON, CBOR и Smile.
+ * <p>
+ * Полезная нагрузка - список пользователей, как в {@code GET /api/v1/user}, и результат аутентификации.
+ * Перед запуском JMH выводятся размеры сообщений в каждом формате.
+ * <p>
+ * Запуск: {@code mvn test -Pbenchmark -Dtest=BinaryFormatBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatBenchmark {
+    /**
+     * Токен того же размера, что и JWT сервиса.
+     */
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9.eyJ0b2tlblZlcnNpb24iOjAsInN1YiI6InVzZXIwIiwiaWF0Ijox"
+            + "NzE5ODI0NDAwLCJleHAiOjE3MTk4MjgwMDB9.2Jb5sVq3mJ0m6hK7c1Yq9aXbH0Zf3s8rWn4eT1uLpQk";
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private JavaType usersType;
+    private List<UserResponse> users;
+    private AuthenticationOperationResultTo authenticationResult;
+    private byte[] encodedUsers;
+    private byte[] encodedAuthenticationResult;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = objectMapper(format);
+        usersType = objectMapper.getTypeFactory().constructCollectionType(List.class, UserResponse.class);
+        users = users(1000);
+        authenticationResult = new AuthenticationOperationResultTo(UUID.randomUUID(), TOKEN);
+        encodedUsers = objectMapper.writeValueAsBytes(users);
+        encodedAuthenticationResult = objectMapper.writeValueAsBytes(authenticationResult);
+    }
+
+    @Benchmark
+    public byte[] encodeUsers() throws IOException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public List<UserResponse> decodeUsers() throws IOException {
+        return objectMapper.readValue(encodedUsers, usersType);
+    }
+
+    @Benchmark
+    public byte[] encodeAuthenticationResult() throws IOException {
+        return objectMapper.writeValueAsBytes(authenticationResult);
+    }
+
+    @Benchmark
+    public AuthenticationOperationResultTo decodeAuthenticationResult() throws IOException {
+        return objectMapper.readValue(encodedAuthenticationResult, AuthenticationOperationResultTo.class);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws IOException, RunnerException {
+        List<UserResponse> payload = users(1000);
+        AuthenticationOperationResultTo result = new AuthenticationOperationResultTo(UUID.randomUUID(), TOKEN);
+        for (String name : List.of("json", "cbor", "smile")) {
+            ObjectMapper mapper = objectMapper(name);
+            System.out.printf("%-5s users: %d bytes, authentication result: %d bytes%n", name,
+                    mapper.writeValueAsBytes(payload).length, mapper.writeValueAsBytes(result).length);
+        }
+        new Runner(new OptionsBuilder()
+                .include(BinaryFormatBenchmark.class.getName())
+                .build())
+                .run();
+    }
+
+    private static ObjectMapper objectMapper(final String format) {
+        return switch (format) {
+            case "cbor" -> JsonConfiguration.cborMapper(Jackson2ObjectMapperBuilder.json());
+            case "smile" -> JsonConfiguration.smileMapper(Jackson2ObjectMapperBuilder.json());
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+    }
+
+    private static List<UserResponse> users(final int size) {
+        UserMapperImpl userMapper = new UserMapperImpl();
+        ZonedDateTime createdAt = ZonedDateTime.of(2024, 7, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+        return IntStream.range(0, size)
+                .mapToObj(i -> UserEntity.builder()
+                        .id(UUID.randomUUID())
+                        .username("user" + i)
+                        .password("encoded-password")
+                        .role(UserRole.USER)
+                        .firstName("First" + i)
+                        .lastName("Last" + i)
+                        .createdAt(createdAt.plusMinutes(i))
+                        .updatedAt(createdAt.plusHours(i))
+                        .build())
+                .map(userMapper::mapToResponse)
+                .toList();
+    }
+}
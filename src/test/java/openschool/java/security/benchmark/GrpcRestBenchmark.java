@@ -0,0 +1,233 @@
+package openschool.java.security.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import openschool.java.security.SecurityApplication;
+import openschool.java.security.grpc.GrpcServer;
+import openschool.java.security.grpc.v1.GetUserRequest;
+import openschool.java.security.grpc.v1.TokenValidationServiceGrpc;
+import openschool.java.security.grpc.v1.ValidateTokenRequest;
+import openschool.java.security.grpc.v1.ValidateTokenResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк проверки токенов и получения пользователя через REST (HTTP/1.1 и JSON) и gRPC.
+ * <p>
+ * Запускает приложение с профилем {@code loadtest} на H2 в той же JVM, что и клиенты, и сравнивает:
+ * проверку одного токена ({@code POST /api/v1/introspect} и {@code ValidateToken}), пакета из {@link #BATCH_SIZE}
+ * токенов (один запрос интроспекции и поток {@code ValidateTokens}) и получение пользователя
+ * ({@code GET /api/v1/user/{username}} и {@code GetUser}). Токены повторяются между итерациями, поэтому проверка
+ * идет из кэша интроспекции и замер показывает в основном стоимость транспорта и сериализации.
+ * <p>
+ * Запуск: {@code mvn test -Pbenchmark -Dtest=GrpcRestBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class GrpcRestBenchmark {
+    /**
+     * Число токенов в пакете.
+     */
+    private static final int BATCH_SIZE = 100;
+
+    private static final String USERNAME = "benchmark";
+    private static final String PASSWORD = "benchmark-password";
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private ManagedChannel channel;
+    private TokenValidationServiceGrpc.TokenValidationServiceBlockingStub blockingStub;
+    private TokenValidationServiceGrpc.TokenValidationServiceStub asyncStub;
+
+    private String authorization;
+    private HttpRequest restValidateRequest;
+    private HttpRequest restValidateBatchRequest;
+    private HttpRequest restGetUserRequest;
+    private ValidateTokenRequest grpcValidateRequest;
+    private List<ValidateTokenRequest> grpcValidateBatchRequests;
+    private GetUserRequest grpcGetUserRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        context = new SpringApplicationBuilder(SecurityApplication.class)
+                .profiles("loadtest")
+                .properties("server.port=0", "grpc.server.port=0")
+                .run();
+        URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+        ObjectMapper objectMapper = new ObjectMapper();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        List<String> tokens = new ArrayList<>(BATCH_SIZE);
+        tokens.add(issueToken(baseUri, objectMapper, "/api/v1/auth/register"));
+        while (tokens.size() < BATCH_SIZE) {
+            tokens.add(issueToken(baseUri, objectMapper, "/api/v1/auth/authenticate"));
+        }
+        authorization = "Bearer " + tokens.get(0);
+
+        restValidateRequest = introspectRequest(baseUri, objectMapper, tokens.subList(0, 1));
+        restValidateBatchRequest = introspectRequest(baseUri, objectMapper, tokens);
+        restGetUserRequest = HttpRequest.newBuilder(baseUri.resolve("/api/v1/user/" + USERNAME))
+                .header("Authorization", authorization)
+                .GET()
+                .build();
+
+        channel = Grpc.newChannelBuilderForAddress(
+                        "localhost", context.getBean(GrpcServer.class).getPort(), InsecureChannelCredentials.create())
+                .build();
+        Metadata headers = new Metadata();
+        headers.put(Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER), authorization);
+        blockingStub = TokenValidationServiceGrpc.newBlockingStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+        asyncStub = TokenValidationServiceGrpc.newStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+        grpcValidateRequest = ValidateTokenRequest.newBuilder().setToken(tokens.get(0)).build();
+        grpcValidateBatchRequests = tokens.stream()
+                .map(token -> ValidateTokenRequest.newBuilder().setToken(token).build())
+                .toList();
+        grpcGetUserRequest = GetUserRequest.newBuilder().setUsername(USERNAME).build();
+
+        if (!blockingStub.validateToken(grpcValidateRequest).getActive()) {
+            throw new IllegalStateException("Токен не прошел проверку через gRPC");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public String restValidateToken() throws IOException, InterruptedException {
+        return send(restValidateRequest);
+    }
+
+    @Benchmark
+    public ValidateTokenResponse grpcValidateToken() {
+        return blockingStub.validateToken(grpcValidateRequest);
+    }
+
+    @Benchmark
+    public String restValidateBatch() throws IOException, InterruptedException {
+        return send(restValidateBatchRequest);
+    }
+
+    @Benchmark
+    public void grpcValidateStream(final Blackhole blackhole) throws InterruptedException, ExecutionException {
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        StreamObserver<ValidateTokenRequest> requests = asyncStub.validateTokens(new StreamObserver<>() {
+            @Override
+            public void onNext(final ValidateTokenResponse response) {
+                blackhole.consume(response);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.complete(null);
+            }
+        });
+        for (ValidateTokenRequest request : grpcValidateBatchRequests) {
+            requests.onNext(request);
+        }
+        requests.onCompleted();
+        completed.get();
+    }
+
+    @Benchmark
+    public String restGetUser() throws IOException, InterruptedException {
+        return send(restGetUserRequest);
+    }
+
+    @Benchmark
+    public Object grpcGetUser() {
+        return blockingStub.getUser(grpcGetUserRequest);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GrpcRestBenchmark.class.getName())
+                .build())
+                .run();
+    }
+
+    /**
+     * Зарегистрировать пользователя или войти и получить access токен.
+     *
+     * @return access токен
+     */
+    private String issueToken(final URI baseUri, final ObjectMapper objectMapper, final String path)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(
+                        objectMapper.writeValueAsBytes(Map.of("username", USERNAME, "password", PASSWORD))))
+                .build();
+        return objectMapper.readTree(send(request)).get("token").asText();
+    }
+
+    private HttpRequest introspectRequest(final URI baseUri, final ObjectMapper objectMapper, final List<String> tokens)
+            throws IOException {
+        return HttpRequest.newBuilder(baseUri.resolve("/api/v1/introspect"))
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(Map.of("tokens", tokens))))
+                .build();
+    }
+
+    private String send(final HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(String.format("%s %s: HTTP %d",
+                    request.method(), request.uri().getPath(), response.statusCode()));
+        }
+        return response.body();
+    }
+}
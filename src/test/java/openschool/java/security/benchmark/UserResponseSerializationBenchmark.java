@@ -0,0 +1,109 @@
+package openschool.java.security.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import openschool.java.security.user.domain.UserEntity;
+import openschool.java.security.user.domain.UserRole;
+import openschool.java.security.user.dto.UserResponse;
+import openschool.java.security.user.dto.UserTo;
+import openschool.java.security.user.mapping.UserMapper;
+import openschool.java.security.user.mapping.UserMapperImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Бенчмарк сериализации списка пользователей, как в {@code GET /api/v1/user}.
+ * <p>
+ * Сравнивает {@link UserTo} с {@link UserResponse} без Blackbird и с ним. Профилировщик GC выводит
+ * {@code gc.alloc.rate.norm} - байты, выделенные на одну сериализацию списка.
+ * <p>
+ * Запуск: {@code mvn test -Pbenchmark -Dtest=UserResponseSerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserResponseSerializationBenchmark {
+
+    @Param({"1000"})
+    private int size;
+
+    private List<UserTo> userTos;
+    private List<UserResponse> userResponses;
+    private ObjectWriter writer;
+    private ObjectWriter blackbirdWriter;
+
+    @Setup
+    public void setUp() {
+        UserMapper userMapper = new UserMapperImpl();
+        ZonedDateTime createdAt = ZonedDateTime.of(2024, 7, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+        List<UserEntity> entities = IntStream.range(0, size)
+                .mapToObj(i -> UserEntity.builder()
+                        .id(UUID.randomUUID())
+                        .username("user" + i)
+                        .password("encoded-password")
+                        .role(UserRole.USER)
+                        .firstName("First" + i)
+                        .lastName("Last" + i)
+                        .createdAt(createdAt.plusMinutes(i))
+                        .updatedAt(createdAt.plusHours(i))
+                        .build())
+                .toList();
+        userTos = entities.stream().map(userMapper::mapFromEntity).toList();
+        userResponses = entities.stream().map(userMapper::mapToResponse).toList();
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        blackbirdWriter = Jackson2ObjectMapperBuilder.json().modulesToInstall(BlackbirdModule.class).build().writer();
+    }
+
+    @Benchmark
+    public void userTo() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), userTos);
+    }
+
+    @Benchmark
+    public void userResponse() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), userResponses);
+    }
+
+    @Benchmark
+    public void userResponseBlackbird() throws IOException {
+        blackbirdWriter.writeValue(OutputStream.nullOutputStream(), userResponses);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserResponseSerializationBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
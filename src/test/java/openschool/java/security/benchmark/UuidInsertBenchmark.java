@@ -0,0 +1,167 @@
+package openschool.java.security.benchmark;
+
+import openschool.java.security.database.TimeOrderedUuidGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк вставки в таблицу с первичным ключом UUID: случайные UUID версии 4 против упорядоченных по времени
+ * UUID версии 7 из {@link TimeOrderedUuidGenerator}.
+ * <p>
+ * Таблица повторяет {@code refresh_token_entity}. Каждая итерация вставляет {@code rowsPerIteration} строк пакетами
+ * в одной транзакции, таблица растет от итерации к итерации, поэтому последние итерации показывают вставку в индекс
+ * из миллионов ключей. После прогона выводятся размеры таблицы и индекса первичного ключа.
+ * <p>
+ * Запуск на встроенной H2: {@code mvn test -Pbenchmark -Dtest=UuidInsertBenchmark}. Запуск на PostgreSQL:
+ * <pre>
+ * mvn test -Pbenchmark -Dtest=UuidInsertBenchmark -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/user_service \
+ *     -Dbenchmark.jdbc-username=user -Dbenchmark.jdbc-password=password
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 20)
+@Fork(1)
+public class UuidInsertBenchmark {
+    /**
+     * Число строк в пакете вставки.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Значение того же размера, что и refresh токен.
+     */
+    private static final String VALUE = "x".repeat(180);
+
+    @Param({"random", "time-ordered"})
+    private String key;
+
+    @Param({"100000"})
+    private int rowsPerIteration;
+
+    @Param({"jdbc:h2:./target/uuid-insert-benchmark/db;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE"})
+    private String jdbcUrl;
+
+    @Param({"sa"})
+    private String username;
+
+    @Param({"sa"})
+    private String password;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private String table;
+    private long rows;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl, username, password);
+        table = "uuid_benchmark_" + key.replace('-', '_');
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table
+                    + " (id UUID NOT NULL, user_id UUID, value VARCHAR(255), CONSTRAINT " + table
+                    + "_pkey PRIMARY KEY (id))");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("INSERT INTO " + table + " (id, user_id, value) VALUES (?, ?, ?)");
+    }
+
+    @Benchmark
+    public void insert() throws SQLException {
+        UUID userId = UUID.randomUUID();
+        for (int i = 1; i <= rowsPerIteration; i++) {
+            insert.setObject(1, "random".equals(key) ? UUID.randomUUID() : TimeOrderedUuidGenerator.next());
+            insert.setObject(2, userId);
+            insert.setString(3, VALUE);
+            insert.addBatch();
+            if (i % BATCH_SIZE == 0) {
+                insert.executeBatch();
+            }
+        }
+        insert.executeBatch();
+        connection.commit();
+        rows += rowsPerIteration;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        System.out.printf("%n%s: %d rows, %s%n", key, rows, sizes());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + table);
+        }
+        insert.close();
+        connection.close();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(UuidInsertBenchmark.class.getName());
+        String url = System.getProperty("benchmark.jdbc-url");
+        if (url != null) {
+            options.param("jdbcUrl", url)
+                    .param("username", System.getProperty("benchmark.jdbc-username", ""))
+                    .param("password", System.getProperty("benchmark.jdbc-password", ""));
+        }
+        new Runner(options.build()).run();
+    }
+
+    /**
+     * Размеры таблицы и индекса первичного ключа.
+     *
+     * @return описание размеров
+     */
+    private String sizes() throws SQLException {
+        if ("PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("VACUUM ANALYZE " + table);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT pg_relation_size(?::regclass), pg_relation_size(?::regclass)")) {
+                statement.setString(1, table);
+                statement.setString(2, table + "_pkey");
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return String.format("table %d MiB, primary key index %d MiB",
+                            resultSet.getLong(1) >> 20, resultSet.getLong(2) >> 20);
+                }
+            }
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT DISK_SPACE_USED('" + table + "')")) {
+            resultSet.next();
+            return String.format("table with indexes %d MiB", resultSet.getLong(1) >> 20);
+        }
+    }
+}
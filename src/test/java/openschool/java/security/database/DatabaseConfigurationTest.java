@@ -0,0 +1,70 @@
+package openschool.java.security.database;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseConfigurationTest {
+
+    @Test
+    void concurrencyLimit_WrapsPrimaryPoolWithPoolSizeByDefault() throws Exception {
+        try (HikariDataSource pool = new HikariDataSource()) {
+            pool.setMaximumPoolSize(7);
+
+            Object wrapped = DatabaseConfiguration.concurrencyLimitedDataSourcePostProcessor(true, 0, 10)
+                    .postProcessAfterInitialization(pool, DatabaseConfiguration.PRIMARY_DATA_SOURCE);
+
+            ConcurrencyLimitedDataSource limited = assertInstanceOf(ConcurrencyLimitedDataSource.class, wrapped);
+            assertEquals(7, limited.availablePermits());
+            assertSame(pool, limited.getTargetDataSource());
+        }
+    }
+
+    @Test
+    void concurrencyLimit_SkipsOtherDataSources() throws Exception {
+        DataSource other = new DriverManagerDataSource("jdbc:h2:mem:other");
+        DataSource wrappedPrimary = new ReplicaRoutingDataSource(other, null);
+
+        DatabaseConfiguration.DataSourcePostProcessor postProcessor =
+                DatabaseConfiguration.concurrencyLimitedDataSourcePostProcessor(true, 5, 10);
+
+        assertSame(other, postProcessor.postProcessAfterInitialization(other,
+                DatabaseConfiguration.PRIMARY_DATA_SOURCE));
+        assertSame(wrappedPrimary, postProcessor.postProcessAfterInitialization(wrappedPrimary,
+                DatabaseConfiguration.PRIMARY_DATA_SOURCE));
+        try (HikariDataSource pool = new HikariDataSource()) {
+            assertSame(pool, postProcessor.postProcessAfterInitialization(pool, "auditDataSource"));
+        }
+    }
+
+    @Test
+    void concurrencyLimit_AppliedBeforeReplicaRouting() {
+        assertTrue(DatabaseConfiguration.concurrencyLimitedDataSourcePostProcessor(true, 5, 10).getOrder()
+                < DatabaseConfiguration.REPLICA_ROUTING_ORDER);
+    }
+
+    @Test
+    void concurrencyLimit_Disabled_LeavesPrimaryPool() throws Exception {
+        try (HikariDataSource pool = new HikariDataSource()) {
+            assertSame(pool, DatabaseConfiguration.concurrencyLimitedDataSourcePostProcessor(false, 5, 10)
+                    .postProcessAfterInitialization(pool, DatabaseConfiguration.PRIMARY_DATA_SOURCE));
+        }
+    }
+
+    @Test
+    void replicaRouting_Disabled_LeavesPrimaryDataSource() {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary");
+        MockEnvironment environment = new MockEnvironment().withProperty("database.replica.enabled", "false");
+
+        assertSame(primary, DatabaseConfiguration.replicaRoutingDataSourcePostProcessor(environment)
+                .postProcessAfterInitialization(primary, DatabaseConfiguration.PRIMARY_DATA_SOURCE));
+    }
+}
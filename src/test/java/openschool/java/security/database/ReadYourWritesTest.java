@@ -0,0 +1,61 @@
+package openschool.java.security.database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadYourWritesTest {
+
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000_000);
+    }
+
+    @Test
+    void read_AfterWrite_IsPinnedToPrimaryWithinWindow() {
+        ReadYourWrites readYourWrites = readYourWrites(true);
+        readYourWrites.markWritten("testUser");
+
+        assertTrue(readsPrimary(readYourWrites, "testUser"));
+        assertFalse(readsPrimary(readYourWrites, "otherUser"));
+
+        clock.addAndGet(5_001);
+        assertFalse(readsPrimary(readYourWrites, "testUser"));
+        assertFalse(PrimaryRouting.isPinned());
+    }
+
+    @Test
+    void evictExpired_RemovesWritesOutsideWindow() {
+        ReadYourWrites readYourWrites = readYourWrites(true);
+        readYourWrites.markWritten("testUser");
+        clock.addAndGet(5_001);
+
+        readYourWrites.evictExpired();
+        clock.set(1_000_000);
+
+        assertFalse(readYourWrites.isRecentlyWritten("testUser"));
+    }
+
+    @Test
+    void read_WhenReplicasDisabled_IsNotPinned() {
+        ReadYourWrites readYourWrites = readYourWrites(false);
+        readYourWrites.markWritten("testUser");
+
+        assertFalse(readsPrimary(readYourWrites, "testUser"));
+    }
+
+    private static boolean readsPrimary(final ReadYourWrites readYourWrites, final String username) {
+        return readYourWrites.<Boolean>read(username, name -> PrimaryRouting.isPinned());
+    }
+
+    private ReadYourWrites readYourWrites(final boolean enabled) {
+        return new ReadYourWrites(new ReplicaProperties(enabled, List.of(), 0, 0, 0, null, 0, 5_000), clock::get);
+    }
+}
@@ -0,0 +1,95 @@
+package openschool.java.security.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaDataSource replicaDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate writeTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicaDataSource.close();
+    }
+
+    @Test
+    void readOnlyTransaction_WithHealthyReplica_ReadsFromReplica() {
+        route(List.of(replica), "SELECT 0");
+
+        assertEquals("replica", readOnlyTransaction.execute(status -> node()));
+        assertEquals("primary", writeTransaction.execute(status -> node()));
+    }
+
+    @Test
+    void readOnlyTransaction_WhenPinned_ReadsFromPrimary() {
+        route(List.of(replica), "SELECT 0");
+
+        assertEquals("primary", PrimaryRouting.call(() -> readOnlyTransaction.execute(status -> node())));
+        assertEquals("replica", readOnlyTransaction.execute(status -> node()));
+    }
+
+    @Test
+    void readOnlyTransaction_WhenReplicaLags_ReadsFromPrimary() {
+        route(List.of(replica), "SELECT 5000");
+
+        assertEquals(0, replicaDataSource.healthyCount());
+        assertEquals("primary", readOnlyTransaction.execute(status -> node()));
+    }
+
+    @Test
+    void readOnlyTransaction_SkipsUnavailableReplica() {
+        DataSource unavailable = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";IFEXISTS=TRUE");
+        route(List.of(unavailable, replica), "SELECT 0");
+
+        assertEquals(1, replicaDataSource.healthyCount());
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica", readOnlyTransaction.execute(status -> node()));
+        }
+    }
+
+    private void route(final List<DataSource> replicas, final String healthCheckQuery) {
+        replicaDataSource = new ReplicaDataSource(primary, replicas, healthCheckQuery, 1000);
+        replicaDataSource.checkHealth();
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, replicaDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(routingDataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(final String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(16))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,42 @@
+package openschool.java.security.grpc;
+
+import io.micrometer.observation.ObservationRegistry;
+import openschool.java.security.introspection.service.TokenIntrospectionService;
+import openschool.java.security.user.service.UserFindUseCase;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class GrpcServerTest {
+
+    @Test
+    void start_WhenDisabled_DoesNotListen() {
+        GrpcServer server = server(false);
+
+        server.start();
+
+        assertEquals(-1, server.getPort());
+        server.stop();
+    }
+
+    @Test
+    void start_WhenEnabled_ListensOnFreePort() {
+        GrpcServer server = server(true);
+
+        server.start();
+        try {
+            assertTrue(server.getPort() > 0);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private GrpcServer server(boolean enabled) {
+        return new GrpcServer(new GrpcProperties(enabled, 0, 1000),
+                new TokenValidationGrpcService(mock(TokenIntrospectionService.class), mock(UserFindUseCase.class)),
+                mock(GrpcAuthenticationInterceptor.class),
+                ObservationRegistry.NOOP);
+    }
+}
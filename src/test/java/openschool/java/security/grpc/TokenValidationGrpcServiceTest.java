@@ -0,0 +1,172 @@
+package openschool.java.security.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import openschool.java.security.exception.user.UserNotFoundException;
+import openschool.java.security.grpc.v1.GetUserRequest;
+import openschool.java.security.grpc.v1.Role;
+import openschool.java.security.grpc.v1.TokenValidationServiceGrpc;
+import openschool.java.security.grpc.v1.User;
+import openschool.java.security.grpc.v1.ValidateTokenRequest;
+import openschool.java.security.grpc.v1.ValidateTokenResponse;
+import openschool.java.security.introspection.dto.TokenIntrospection;
+import openschool.java.security.introspection.service.TokenIntrospectionService;
+import openschool.java.security.user.domain.UserRole;
+import openschool.java.security.user.dto.UserResponse;
+import openschool.java.security.user.service.UserFindUseCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenValidationGrpcServiceTest {
+
+    private static final String CALLER_TOKEN = "caller-token";
+    private static final TokenIntrospection ACTIVE =
+            new TokenIntrospection(true, "testUser", UserRole.ADMIN, 1_800_000_000L);
+
+    @Mock
+    private TokenIntrospectionService tokenIntrospectionService;
+
+    @Mock
+    private UserFindUseCase userFindUseCase;
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(ServerInterceptors.intercept(
+                        new TokenValidationGrpcService(tokenIntrospectionService, userFindUseCase),
+                        new GrpcAuthenticationInterceptor(tokenIntrospectionService)))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void validateToken_WithoutCallerToken_Unauthenticated() {
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> TokenValidationServiceGrpc.newBlockingStub(channel)
+                        .validateToken(ValidateTokenRequest.newBuilder().setToken("token").build()));
+
+        assertEquals(Status.Code.UNAUTHENTICATED, exception.getStatus().getCode());
+    }
+
+    @Test
+    void validateToken_ReturnsIntrospection() {
+        when(tokenIntrospectionService.introspect(CALLER_TOKEN)).thenReturn(ACTIVE);
+        when(tokenIntrospectionService.introspect("token")).thenReturn(ACTIVE);
+
+        ValidateTokenResponse response = blockingStub()
+                .validateToken(ValidateTokenRequest.newBuilder().setToken("token").build());
+
+        assertEquals(ValidateTokenResponse.newBuilder()
+                .setActive(true)
+                .setSubject("testUser")
+                .setRole(Role.ADMIN)
+                .setExpiresAt(1_800_000_000L)
+                .build(), response);
+    }
+
+    @Test
+    void validateTokens_RespondsToEachTokenInOrder() throws Exception {
+        when(tokenIntrospectionService.introspect(CALLER_TOKEN)).thenReturn(ACTIVE);
+        when(tokenIntrospectionService.introspect("valid")).thenReturn(ACTIVE);
+        when(tokenIntrospectionService.introspect("invalid")).thenReturn(TokenIntrospection.INACTIVE);
+        List<ValidateTokenResponse> responses = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+
+        StreamObserver<ValidateTokenRequest> requests = TokenValidationServiceGrpc.newStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(callerHeaders()))
+                .validateTokens(new StreamObserver<>() {
+                    @Override
+                    public void onNext(final ValidateTokenResponse response) {
+                        responses.add(response);
+                    }
+
+                    @Override
+                    public void onError(final Throwable throwable) {
+                        completed.completeExceptionally(throwable);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        completed.complete(null);
+                    }
+                });
+        for (String token : List.of("valid", "invalid", "valid")) {
+            requests.onNext(ValidateTokenRequest.newBuilder().setToken(token).build());
+        }
+        requests.onCompleted();
+        completed.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(true, false, true), responses.stream().map(ValidateTokenResponse::getActive).toList());
+    }
+
+    @Test
+    void getUser_ReturnsUserOrNotFound() {
+        when(tokenIntrospectionService.introspect(CALLER_TOKEN)).thenReturn(ACTIVE);
+        UUID id = UUID.randomUUID();
+        when(userFindUseCase.findUserByUsername("testUser")).thenReturn(UserResponse.builder()
+                .id(id)
+                .username("testUser")
+                .role(UserRole.USER)
+                .firstName("First")
+                .enabled(true)
+                .build());
+        when(userFindUseCase.findUserByUsername("ghost")).thenThrow(new UserNotFoundException("ghost"));
+
+        User user = blockingStub().getUser(GetUserRequest.newBuilder().setUsername("testUser").build());
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> blockingStub().getUser(GetUserRequest.newBuilder().setUsername("ghost").build()));
+
+        assertEquals(id.toString(), user.getId());
+        assertEquals(Role.USER, user.getRole());
+        assertEquals("First", user.getFirstName());
+        assertEquals("", user.getLastName());
+        assertEquals(Status.Code.NOT_FOUND, exception.getStatus().getCode());
+    }
+
+    private TokenValidationServiceGrpc.TokenValidationServiceBlockingStub blockingStub() {
+        return TokenValidationServiceGrpc.newBlockingStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(callerHeaders()));
+    }
+
+    private static Metadata callerHeaders() {
+        Metadata headers = new Metadata();
+        headers.put(GrpcAuthenticationInterceptor.AUTHORIZATION, "Bearer " + CALLER_TOKEN);
+        return headers;
+    }
+}
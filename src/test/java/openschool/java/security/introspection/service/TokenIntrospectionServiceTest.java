@@ -0,0 +1,172 @@
+package openschool.java.security.introspection.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import openschool.java.security.exception.introspection.IntrospectionBatchTooLargeException;
+import openschool.java.security.introspection.IntrospectionProperties;
+import openschool.java.security.introspection.dto.TokenIntrospection;
+import openschool.java.security.invalidation.InvalidationEvent;
+import openschool.java.security.opaque.OpaqueSession;
+import openschool.java.security.opaque.OpaqueTokenStore;
+import openschool.java.security.revocation.service.TokenEpochService;
+import openschool.java.security.revocation.service.TokenRevocationService;
+import openschool.java.security.security.UserDetailsServiceImpl;
+import openschool.java.security.security.jwt.JwtTokenExtractor;
+import openschool.java.security.security.jwt.JwtTokenValidator;
+import openschool.java.security.security.jwt.TokenVerification;
+import openschool.java.security.user.domain.UserEntity;
+import openschool.java.security.user.domain.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenIntrospectionServiceTest {
+
+    private static final String TOKEN = "header.payload.signature";
+    private static final String JTI = "0f8fad5b-d9cb-469f-a165-70867728950e";
+
+    @Mock
+    private JwtTokenExtractor tokenExtractor;
+
+    @Mock
+    private JwtTokenValidator tokenValidator;
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private OpaqueTokenStore opaqueTokenStore;
+
+    private AtomicLong clock;
+    private UserEntity userEntity;
+    private Claims claims;
+    private TokenIntrospectionService service;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(TimeUnit.HOURS.toMillis(1));
+        userEntity = UserEntity.builder()
+                .username("testUser")
+                .role(UserRole.ADMIN)
+                .build();
+        claims = Jwts.claims(Map.of(
+                Claims.SUBJECT, "testUser",
+                Claims.ID, JTI,
+                Claims.EXPIRATION, TimeUnit.MILLISECONDS.toSeconds(clock.get()) + 60));
+        service = new TokenIntrospectionService(tokenExtractor, tokenValidator, userDetailsService,
+                tokenRevocationService, tokenEpochService, opaqueTokenStore,
+                new IntrospectionProperties(3, 5_000, 100), clock::get);
+    }
+
+    @Test
+    void introspect_ValidJwt_ReturnsActiveWithSubjectRoleAndExpiry() {
+        stubValidJwt();
+
+        List<TokenIntrospection> results = service.introspect(List.of(TOKEN));
+
+        long expiresAt = TimeUnit.MILLISECONDS.toSeconds(clock.get()) + 60;
+        assertEquals(List.of(new TokenIntrospection(true, "testUser", UserRole.ADMIN, expiresAt)), results);
+    }
+
+    @Test
+    void introspect_InvalidJwt_ReturnsInactive() {
+        when(tokenExtractor.verify(TOKEN))
+                .thenReturn(TokenVerification.Invalid.of(TokenVerification.Reason.BAD_SIGNATURE));
+
+        assertEquals(List.of(TokenIntrospection.INACTIVE), service.introspect(List.of(TOKEN)));
+    }
+
+    @Test
+    void introspect_DuplicatesAndRepeatedBatches_LoadUserOnce() {
+        stubValidJwt();
+
+        service.introspect(List.of(TOKEN, TOKEN, TOKEN));
+        List<TokenIntrospection> results = service.introspect(List.of(TOKEN));
+
+        assertEquals(true, results.get(0).active());
+        verify(tokenExtractor, times(1)).verify(TOKEN);
+        verify(userDetailsService, times(1)).loadUserByUsername("testUser");
+    }
+
+    @Test
+    void introspect_RevokedAfterCaching_ReturnsInactive() {
+        stubValidJwt();
+        service.introspect(List.of(TOKEN));
+
+        when(tokenRevocationService.isRevoked(JTI)).thenReturn(true);
+
+        assertEquals(List.of(TokenIntrospection.INACTIVE), service.introspect(List.of(TOKEN)));
+    }
+
+    @Test
+    void introspect_AfterCacheTtlOrInvalidation_VerifiesAgain() {
+        stubValidJwt();
+        service.introspect(List.of(TOKEN));
+
+        clock.addAndGet(5_000);
+        service.introspect(List.of(TOKEN));
+        service.onInvalidation(InvalidationEvent.userChanged("testUser"));
+        service.introspect(List.of(TOKEN));
+
+        verify(tokenExtractor, times(3)).verify(TOKEN);
+    }
+
+    @Test
+    void introspect_OpaqueToken_UsesSession() {
+        String token = OpaqueTokenStore.TOKEN_PREFIX + "token";
+        when(opaqueTokenStore.resolve(token)).thenReturn(new OpaqueSession("testUser", 0, clock.get() + 30_000));
+        when(tokenEpochService.isCurrent("testUser", 0)).thenReturn(true);
+        when(userDetailsService.loadUserByUsername("testUser")).thenReturn(userEntity);
+
+        List<TokenIntrospection> results = service.introspect(List.of(token));
+
+        assertEquals(new TokenIntrospection(true, "testUser", UserRole.ADMIN,
+                TimeUnit.MILLISECONDS.toSeconds(clock.get()) + 30), results.get(0));
+    }
+
+    @Test
+    void introspect_BatchTooLarge_Throws() {
+        assertThrows(IntrospectionBatchTooLargeException.class,
+                () -> service.introspect(Collections.nCopies(4, TOKEN)));
+    }
+
+    @Test
+    void maxAgeSeconds_LimitedByCacheTtlAndEarliestExpiry() {
+        long nowSeconds = TimeUnit.MILLISECONDS.toSeconds(clock.get());
+
+        assertEquals(5, service.maxAgeSeconds(List.of(TokenIntrospection.INACTIVE)));
+        assertEquals(2, service.maxAgeSeconds(List.of(
+                new TokenIntrospection(true, "a", UserRole.USER, nowSeconds + 60),
+                new TokenIntrospection(true, "b", UserRole.USER, nowSeconds + 2))));
+    }
+
+    private void stubValidJwt() {
+        when(tokenExtractor.verify(TOKEN)).thenReturn(new TokenVerification.Valid(claims));
+        when(tokenEpochService.isCurrent(anyString(), anyInt())).thenReturn(true);
+        when(userDetailsService.loadUserByUsername("testUser")).thenReturn(userEntity);
+        when(tokenValidator.isValid(claims, userEntity)).thenReturn(true);
+    }
+}
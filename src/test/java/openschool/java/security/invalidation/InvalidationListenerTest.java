@@ -0,0 +1,77 @@
+package openschool.java.security.invalidation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import openschool.java.security.database.ConcurrencyLimitedDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class InvalidationListenerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ApplicationEventPublisher eventPublisher;
+    private HikariDataSource hikariDataSource;
+    private InvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        hikariDataSource = new HikariDataSource();
+        DataSource dataSource = new ConcurrencyLimitedDataSource(
+                new LazyConnectionDataSourceProxy(hikariDataSource), 1, 0);
+        listener = new InvalidationListener(dataSource, eventPublisher, objectMapper, "auth_invalidation");
+    }
+
+    @Test
+    void listenDataSource_OpensConnectionsOutsidePrimaryPool() throws Exception {
+        hikariDataSource.setJdbcUrl("jdbc:postgresql://localhost:5432/user_service");
+        hikariDataSource.setUsername("user");
+        hikariDataSource.setPassword("password");
+        hikariDataSource.addDataSourceProperty("ApplicationName", "invalidation");
+
+        DriverManagerDataSource listenDataSource =
+                assertInstanceOf(DriverManagerDataSource.class, listener.listenDataSource());
+
+        assertEquals("jdbc:postgresql://localhost:5432/user_service", listenDataSource.getUrl());
+        assertEquals("user", listenDataSource.getUsername());
+        assertEquals("password", listenDataSource.getPassword());
+        assertEquals("invalidation", listenDataSource.getConnectionProperties().getProperty("ApplicationName"));
+    }
+
+    @Test
+    void dispatch_PublishesEventSerializedByPublisher() throws Exception {
+        InvalidationEvent event = InvalidationEvent.tokenRevoked("jti", 1_000L);
+
+        listener.dispatch(objectMapper.writeValueAsString(event));
+
+        verify(eventPublisher).publishEvent(event);
+        assertEquals(event, objectMapper.readValue(objectMapper.writeValueAsString(event), InvalidationEvent.class));
+    }
+
+    @Test
+    void dispatch_WithMalformedPayload_IsIgnored() {
+        listener.dispatch("not-json");
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void dispatch_WhenConsumerFails_DoesNotPropagate() throws Exception {
+        doThrow(new IllegalStateException("boom")).when(eventPublisher).publishEvent(any(Object.class));
+
+        listener.dispatch(objectMapper.writeValueAsString(InvalidationEvent.userChanged("user")));
+    }
+}
@@ -0,0 +1,105 @@
+package openschool.java.security.json;
+
+import openschool.java.security.authentication.dto.AuthenticationOperationResultTo;
+import openschool.java.security.user.domain.UserRole;
+import openschool.java.security.user.dto.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonConfigurationTest {
+
+    private final JsonConfiguration jsonConfiguration = new JsonConfiguration();
+
+    @Test
+    void cborConverter_RoundTripsUserResponse() throws IOException {
+        AbstractJackson2HttpMessageConverter converter =
+                jsonConfiguration.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+        UserResponse userResponse = userResponse();
+
+        assertTrue(converter.canWrite(UserResponse.class, MediaType.APPLICATION_CBOR));
+        assertEquals(userResponse, roundTrip(converter, userResponse, MediaType.APPLICATION_CBOR));
+    }
+
+    @Test
+    void smileConverter_RoundTripsAuthenticationResult() throws IOException {
+        AbstractJackson2HttpMessageConverter converter =
+                jsonConfiguration.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+        AuthenticationOperationResultTo result = new AuthenticationOperationResultTo(UUID.randomUUID(), "token");
+
+        assertTrue(converter.canWrite(AuthenticationOperationResultTo.class, smile));
+        assertEquals(result, roundTrip(converter, result, smile));
+    }
+
+    @Test
+    void binaryFormatCodecs_LeaveJsonToJsonEncoder() {
+        ServerCodecConfigurer configurer = ServerCodecConfigurer.create();
+        jsonConfiguration.binaryFormatCodecCustomizer(
+                Jackson2ObjectMapperBuilder.json().build(), Jackson2ObjectMapperBuilder.json()).customize(configurer);
+
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+        HttpMessageWriter<?> anyWriter = firstWriter(configurer, null);
+        HttpMessageWriter<?> jsonWriter = firstWriter(configurer, MediaType.APPLICATION_JSON);
+        HttpMessageWriter<?> cborWriter = firstWriter(configurer, MediaType.APPLICATION_CBOR);
+        HttpMessageWriter<?> smileWriter = firstWriter(configurer, smile);
+
+        assertInstanceOf(Jackson2JsonEncoder.class, ((EncoderHttpMessageWriter<?>) anyWriter).getEncoder());
+        assertInstanceOf(Jackson2JsonEncoder.class, ((EncoderHttpMessageWriter<?>) jsonWriter).getEncoder());
+        assertEquals(List.of(MediaType.APPLICATION_CBOR), cborWriter.getWritableMediaTypes());
+        assertEquals(List.of(smile), smileWriter.getWritableMediaTypes());
+    }
+
+    private static HttpMessageWriter<?> firstWriter(final ServerCodecConfigurer configurer,
+                                                    final @Nullable MediaType mediaType) {
+        return configurer.getWriters().stream()
+                .filter(writer -> writer.canWrite(ResolvableType.forClass(UserResponse.class), mediaType))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Object roundTrip(final AbstractJackson2HttpMessageConverter converter,
+                                    final Object value,
+                                    final MediaType mediaType) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(value, mediaType, output);
+        assertEquals(mediaType, output.getHeaders().getContentType());
+        return converter.read(value.getClass(), new MockHttpInputMessage(output.getBodyAsBytes()));
+    }
+
+    private static UserResponse userResponse() {
+        ZonedDateTime createdAt = ZonedDateTime.of(2024, 7, 1, 9, 0, 0, 123_000_000, ZoneOffset.UTC);
+        return UserResponse.builder()
+                .id(UUID.randomUUID())
+                .username("testUser")
+                .role(UserRole.USER)
+                .firstName("Test")
+                .lastName("User")
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .enabled(true)
+                .createdAt(createdAt)
+                .updatedAt(createdAt.plusHours(1))
+                .build();
+    }
+}
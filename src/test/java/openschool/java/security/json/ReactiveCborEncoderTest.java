@@ -0,0 +1,47 @@
+package openschool.java.security.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReactiveCborEncoderTest {
+
+    private final ObjectMapper cborMapper = JsonConfiguration.cborMapper(Jackson2ObjectMapperBuilder.json());
+    private final ReactiveCborEncoder encoder = new ReactiveCborEncoder(cborMapper);
+
+    @Test
+    void encode_Mono_WritesSingleValue() throws Exception {
+        byte[] body = encode(Mono.just(Map.of("username", "testUser")), ResolvableType.forClass(Map.class));
+
+        assertEquals(Map.of("username", "testUser"), cborMapper.readValue(body, Map.class));
+    }
+
+    @Test
+    void encode_Flux_WritesArray() throws Exception {
+        byte[] body = encode(Flux.just("first", "second"), ResolvableType.forClass(String.class));
+
+        assertEquals(List.of("first", "second"), cborMapper.readValue(body, List.class));
+    }
+
+    private byte[] encode(final Publisher<?> input, final ResolvableType elementType) {
+        DataBuffer buffer = encoder.encode(input, DefaultDataBufferFactory.sharedInstance, elementType,
+                        MediaType.APPLICATION_CBOR, null)
+                .single()
+                .block();
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,41 @@
+package openschool.java.security.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimestampSerializerTest {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(TimestampSerializer.PATTERN);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void serialize_MatchesDateTimeFormatter() throws Exception {
+        List<ZonedDateTime> values = List.of(
+                ZonedDateTime.of(2024, 7, 1, 9, 5, 3, 7_000_000, ZoneOffset.UTC),
+                ZonedDateTime.of(2024, 7, 1, 23, 59, 59, 999_999_999, ZoneOffset.UTC),
+                ZonedDateTime.of(2024, 7, 2, 0, 0, 0, 0, ZoneOffset.UTC),
+                ZonedDateTime.of(1999, 12, 31, 12, 30, 0, 123_000_000, ZoneId.of("Europe/Moscow")),
+                ZonedDateTime.of(2024, 3, 10, 8, 0, 0, 0, ZoneOffset.ofHoursMinutes(-5, -30)),
+                ZonedDateTime.of(33, 1, 2, 3, 4, 5, 0, ZoneOffset.ofHours(14)),
+                ZonedDateTime.of(12345, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC),
+                ZonedDateTime.of(1850, 1, 1, 0, 0, 0, 0, ZoneId.of("Europe/Moscow")));
+
+        for (ZonedDateTime value : values) {
+            assertEquals("{\"value\":\"" + FORMATTER.format(value) + "\"}",
+                    objectMapper.writeValueAsString(new Timestamp(value)), value.toString());
+        }
+    }
+
+    private record Timestamp(@JsonSerialize(using = TimestampSerializer.class) ZonedDateTime value) {
+    }
+}
@@ -0,0 +1,114 @@
+package openschool.java.security.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import openschool.java.security.loadtest.LoadTestClient.Session;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочный тест API аутентификации против встроенной H2.
+ * <p>
+ * Запуск: {@code mvn test -Pload-test -Dloadtest.concurrency=64 -Dloadtest.duration-seconds=60}.
+ */
+@Tag("load")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AuthLoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${jwt.refresh.name}")
+    private String refreshCookieName;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void authenticationMix_StaysWithinErrorBudget() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        LoadTestClient client = new LoadTestClient(URI.create("http://localhost:" + port), objectMapper,
+                refreshCookieName);
+        AtomicReferenceArray<Session> sessions = seedSessions(client, settings.seedUsers());
+        LoadReport report = new LoadReport();
+
+        long warmupEnd = System.nanoTime() + settings.warmup().toNanos();
+        long end = warmupEnd + settings.duration().toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.concurrency(); i++) {
+                executor.submit(() -> runVirtualUser(client, settings, sessions, report, end));
+            }
+            Thread.sleep(settings.warmup().toMillis());
+            report.startRecording();
+            Thread.sleep(Math.max(0, (end - System.nanoTime()) / 1_000_000));
+        }
+        report.stopRecording();
+
+        System.out.printf("%nLoad test: concurrency=%d, duration=%ds, mix=%s%n",
+                settings.concurrency(), settings.duration().toSeconds(), settings.mix());
+        report.print(System.out, settings.duration());
+        report.writeHistograms(Path.of("target", "loadtest"));
+
+        assertTrue(report.errorRate() <= settings.maxErrorRate(),
+                String.format("Доля ошибок %.4f превышает %.4f", report.errorRate(), settings.maxErrorRate()));
+    }
+
+    private static AtomicReferenceArray<Session> seedSessions(final LoadTestClient client, final int count)
+            throws Exception {
+        List<Session> sessions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sessions.add(client.register(uniqueUsername(), PASSWORD));
+        }
+        return new AtomicReferenceArray<>(sessions.toArray(Session[]::new));
+    }
+
+    private static void runVirtualUser(final LoadTestClient client,
+                                       final LoadTestSettings settings,
+                                       final AtomicReferenceArray<Session> sessions,
+                                       final LoadReport report,
+                                       final long end) {
+        while (System.nanoTime() < end) {
+            LoadScenario scenario = settings.nextScenario();
+            int index = ThreadLocalRandom.current().nextInt(sessions.length());
+            Session session = sessions.get(index);
+            long start = System.nanoTime();
+            try {
+                switch (scenario) {
+                    case REGISTER -> client.register(uniqueUsername(), PASSWORD);
+                    case AUTHENTICATE -> sessions.set(index, client.authenticate(session));
+                    case REFRESH -> sessions.set(index, client.refresh(session));
+                    case FIND_USER -> client.findUser(session);
+                }
+                report.recordSuccess(scenario, System.nanoTime() - start);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception exception) {
+                report.recordError(scenario);
+            }
+        }
+    }
+
+    private static String uniqueUsername() {
+        return "load-" + UUID.randomUUID();
+    }
+}
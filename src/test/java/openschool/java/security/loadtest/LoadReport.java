@@ -0,0 +1,134 @@
+package openschool.java.security.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Результаты нагрузочного теста: гистограммы задержек HdrHistogram и счетчики ошибок по сценариям.
+ */
+final class LoadReport {
+    /**
+     * Максимальная регистрируемая задержка.
+     */
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * Число значащих десятичных цифр гистограммы.
+     */
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<LoadScenario, Histogram> latencies = new EnumMap<>(LoadScenario.class);
+    private final Map<LoadScenario, LongAdder> errors = new EnumMap<>(LoadScenario.class);
+
+    /**
+     * Идет ли замер. Запросы прогрева не учитываются.
+     */
+    private volatile boolean recording;
+
+    LoadReport() {
+        for (LoadScenario scenario : LoadScenario.values()) {
+            latencies.put(scenario, new ConcurrentHistogram(MAX_LATENCY_NANOS, SIGNIFICANT_DIGITS));
+            errors.put(scenario, new LongAdder());
+        }
+    }
+
+    void startRecording() {
+        recording = true;
+    }
+
+    void stopRecording() {
+        recording = false;
+    }
+
+    void recordSuccess(final LoadScenario scenario, final long latencyNanos) {
+        if (recording) {
+            latencies.get(scenario).recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        }
+    }
+
+    void recordError(final LoadScenario scenario) {
+        if (recording) {
+            errors.get(scenario).increment();
+        }
+    }
+
+    /**
+     * Доля ошибочных запросов по всем сценариям.
+     *
+     * @return доля ошибок
+     */
+    double errorRate() {
+        long failed = errors.values().stream().mapToLong(LongAdder::sum).sum();
+        long total = failed + latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        return total == 0 ? 0 : (double) failed / total;
+    }
+
+    /**
+     * Напечатать сводную таблицу: пропускная способность, перцентили задержек и доля ошибок.
+     *
+     * @param out      - поток вывода
+     * @param duration - длительность замера
+     */
+    void print(final PrintStream out, final Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        Histogram total = new Histogram(MAX_LATENCY_NANOS, SIGNIFICANT_DIGITS);
+        long totalErrors = 0;
+
+        out.printf("%-13s %9s %8s %8s %10s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "err %", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (LoadScenario scenario : LoadScenario.values()) {
+            Histogram histogram = latencies.get(scenario);
+            long failed = errors.get(scenario).sum();
+            if (histogram.getTotalCount() + failed == 0) {
+                continue;
+            }
+            total.add(histogram);
+            totalErrors += failed;
+            printRow(out, scenario.key(), histogram, failed, seconds);
+        }
+        printRow(out, "total", total, totalErrors, seconds);
+    }
+
+    /**
+     * Сохранить распределения задержек в формате .hgrm для построения графиков.
+     *
+     * @param directory - каталог для файлов
+     * @throws IOException если файл не удалось записать
+     */
+    void writeHistograms(final Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<LoadScenario, Histogram> entry : latencies.entrySet()) {
+            if (entry.getValue().getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(directory.resolve(entry.getKey().key() + ".hgrm")))) {
+                entry.getValue().outputPercentileDistribution(out, 1e6);
+            }
+        }
+    }
+
+    private static void printRow(final PrintStream out, final String name, final Histogram histogram,
+                                 final long failed, final double seconds) {
+        long requests = histogram.getTotalCount() + failed;
+        out.printf("%-13s %9d %8d %8.2f %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, requests, failed, requests == 0 ? 0 : 100.0 * failed / requests, requests / seconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / 1e6;
+    }
+}
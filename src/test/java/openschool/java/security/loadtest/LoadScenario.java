@@ -0,0 +1,54 @@
+package openschool.java.security.loadtest;
+
+/**
+ * Сценарии нагрузочного теста.
+ */
+enum LoadScenario {
+    /**
+     * Регистрация нового пользователя.
+     */
+    REGISTER("register"),
+
+    /**
+     * Аутентификация существующего пользователя.
+     */
+    AUTHENTICATE("authenticate"),
+
+    /**
+     * Обновление токенов по refresh токену.
+     */
+    REFRESH("refresh"),
+
+    /**
+     * Аутентифицированный запрос пользователя по username.
+     */
+    FIND_USER("user");
+
+    /**
+     * Имя сценария в настройке смеси запросов.
+     */
+    private final String key;
+
+    LoadScenario(final String key) {
+        this.key = key;
+    }
+
+    /**
+     * Найти сценарий по имени в настройке смеси запросов.
+     *
+     * @param key - имя сценария
+     * @return сценарий
+     */
+    static LoadScenario fromKey(final String key) {
+        for (LoadScenario scenario : values()) {
+            if (scenario.key.equals(key)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный сценарий нагрузки: " + key);
+    }
+
+    String key() {
+        return key;
+    }
+}
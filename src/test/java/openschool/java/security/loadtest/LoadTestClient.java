@@ -0,0 +1,104 @@
+package openschool.java.security.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * HTTP-клиент нагрузочного теста для API аутентификации и пользователей.
+ */
+final class LoadTestClient {
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final String refreshCookieName;
+
+    /**
+     * Сессия виртуального пользователя.
+     *
+     * @param username     - username
+     * @param password     - пароль
+     * @param accessToken  - access токен
+     * @param refreshToken - refresh токен
+     */
+    record Session(String username, String password, String accessToken, String refreshToken) {
+    }
+
+    LoadTestClient(final URI baseUri, final ObjectMapper objectMapper, final String refreshCookieName) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.refreshCookieName = refreshCookieName;
+    }
+
+    Session register(final String username, final String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(credentialsRequest("/api/v1/auth/register", username, password), 201);
+        return toSession(username, password, response);
+    }
+
+    Session authenticate(final Session session) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(
+                credentialsRequest("/api/v1/auth/authenticate", session.username(), session.password()), 201);
+        return toSession(session.username(), session.password(), response);
+    }
+
+    Session refresh(final Session session) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/v1/auth/refresh"))
+                .header("Cookie", refreshCookieName + "=" + session.refreshToken())
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return toSession(session.username(), session.password(), send(request, 201));
+    }
+
+    void findUser(final Session session) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/v1/user/" + session.username()))
+                .header("Authorization", "Bearer " + session.accessToken())
+                .GET()
+                .build();
+        send(request, 200);
+    }
+
+    private HttpRequest credentialsRequest(final String path, final String username, final String password)
+            throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("username", username, "password", password));
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private HttpResponse<String> send(final HttpRequest request, final int expectedStatus)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(String.format("%s %s: HTTP %d",
+                    request.method(), request.uri().getPath(), response.statusCode()));
+        }
+        return response;
+    }
+
+    private Session toSession(final String username, final String password, final HttpResponse<String> response)
+            throws IOException {
+        String accessToken = objectMapper.readTree(response.body()).get("token").asText();
+        String refreshToken = response.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith(refreshCookieName + "="))
+                .map(this::cookieValue)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("В ответе нет refresh токена"));
+        return new Session(username, password, accessToken, refreshToken);
+    }
+
+    private String cookieValue(final String setCookie) {
+        int end = setCookie.indexOf(';');
+        return setCookie.substring(refreshCookieName.length() + 1, end < 0 ? setCookie.length() : end);
+    }
+}
@@ -0,0 +1,82 @@
+package openschool.java.security.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Настройки нагрузочного теста, задаются системными свойствами {@code loadtest.*}.
+ *
+ * @param concurrency  - число одновременно работающих виртуальных пользователей
+ * @param warmup       - длительность прогрева, запросы которого не попадают в отчет
+ * @param duration     - длительность замера
+ * @param seedUsers    - число пользователей, регистрируемых до начала нагрузки
+ * @param mix          - веса сценариев
+ * @param maxErrorRate - допустимая доля ошибок
+ */
+record LoadTestSettings(int concurrency,
+                        Duration warmup,
+                        Duration duration,
+                        int seedUsers,
+                        Map<LoadScenario, Integer> mix,
+                        double maxErrorRate) {
+
+    /**
+     * Смесь запросов по умолчанию: преобладают аутентифицированные чтения.
+     */
+    private static final String DEFAULT_MIX = "register=5,authenticate=15,refresh=10,user=70";
+
+    /**
+     * Прочитать настройки из системных свойств.
+     *
+     * @return настройки
+     */
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.concurrency", 16),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30)),
+                Integer.getInteger("loadtest.seed-users", 50),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01")));
+    }
+
+    /**
+     * Выбрать случайный сценарий согласно весам.
+     *
+     * @return сценарий
+     */
+    LoadScenario nextScenario() {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int point = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<LoadScenario, Integer> entry : mix.entrySet()) {
+            point -= entry.getValue();
+            if (point < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Пустая смесь запросов");
+    }
+
+    /**
+     * Разобрать смесь запросов вида {@code register=5,user=70}.
+     *
+     * @param value - строка настройки
+     * @return веса сценариев
+     */
+    private static Map<LoadScenario, Integer> parseMix(final String value) {
+        Map<LoadScenario, Integer> mix = new EnumMap<>(LoadScenario.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                mix.put(LoadScenario.fromKey(pair[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Смесь запросов не содержит ни одного сценария: " + value);
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,75 @@
+package openschool.java.security.observation;
+
+import io.micrometer.observation.tck.TestObservationRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static io.micrometer.observation.tck.TestObservationRegistryAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ObservedRepositoryInterceptorTest {
+
+    private TestObservationRegistry observationRegistry;
+    private ObservedRepositoryInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        observationRegistry = TestObservationRegistry.create();
+        interceptor = new ObservedRepositoryInterceptor(() -> observationRegistry, "UserRepository");
+    }
+
+    @Test
+    void invoke_WithCollectionResult_RecordsRowCount() throws Throwable {
+        Object result = interceptor.invoke(invocation("findAll", List.of("a", "b", "c")));
+
+        assertEquals(List.of("a", "b", "c"), result);
+        assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo(AuthObservations.REPOSITORY_CALL)
+                .that()
+                .hasLowCardinalityKeyValue(AuthObservations.REPOSITORY, "UserRepository")
+                .hasLowCardinalityKeyValue(AuthObservations.METHOD, "findAll")
+                .hasHighCardinalityKeyValue(AuthObservations.DB_ROWS, "3")
+                .hasBeenStopped();
+    }
+
+    @Test
+    void invoke_WithEmptyOptional_RecordsZeroRows() throws Throwable {
+        interceptor.invoke(invocation("findByUsername", Optional.empty()));
+
+        assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo(AuthObservations.REPOSITORY_CALL)
+                .that()
+                .hasHighCardinalityKeyValue(AuthObservations.DB_ROWS, "0");
+    }
+
+    @Test
+    void invoke_WithBooleanResult_DoesNotRecordRows() throws Throwable {
+        interceptor.invoke(invocation("existsByUsername", Boolean.TRUE));
+
+        assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo(AuthObservations.REPOSITORY_CALL)
+                .that()
+                .doesNotHaveHighCardinalityKeyValueWithKey(AuthObservations.DB_ROWS);
+    }
+
+    private static MethodInvocation invocation(String methodName, Object result) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(Sample.class.getMethod(methodName));
+        when(invocation.proceed()).thenReturn(result);
+        return invocation;
+    }
+
+    private interface Sample {
+        List<String> findAll();
+
+        Optional<String> findByUsername();
+
+        boolean existsByUsername();
+    }
+}
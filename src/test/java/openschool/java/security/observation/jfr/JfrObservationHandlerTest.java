@@ -0,0 +1,114 @@
+package openschool.java.security.observation.jfr;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import openschool.java.security.observation.AuthObservations;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JfrObservationHandlerTest {
+
+    @TempDir
+    private Path directory;
+
+    private JfrObservationHandler handler;
+    private ObservationRegistry observationRegistry;
+
+    @BeforeEach
+    void setUp() {
+        handler = new JfrObservationHandler();
+        observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(handler);
+    }
+
+    @Test
+    void supportsContext_WithoutRecording_ReturnsFalse() {
+        Observation.Context context = new Observation.Context();
+        context.setName(AuthObservations.TOKEN_VERIFY);
+
+        assertFalse(handler.supportsContext(context));
+    }
+
+    @Test
+    void observations_DuringRecording_AreCommittedAsEvents() throws IOException {
+        Map<String, RecordedEvent> events = record(() -> {
+            Observation.createNotStarted(AuthObservations.TOKEN_VERIFY, observationRegistry)
+                    .lowCardinalityKeyValue(AuthObservations.TOKEN_CACHE_HIT, "true")
+                    .lowCardinalityKeyValue(AuthObservations.OUTCOME, "valid")
+                    .observe(() -> {
+                    });
+            Observation.createNotStarted(AuthObservations.PASSWORD_VERIFY, observationRegistry)
+                    .lowCardinalityKeyValue(AuthObservations.BCRYPT_COST, "10")
+                    .lowCardinalityKeyValue(AuthObservations.OUTCOME, "mismatch")
+                    .observe(() -> {
+                    });
+            Observation userLoad = Observation.createNotStarted(AuthObservations.USER_LOAD, observationRegistry)
+                    .start();
+            userLoad.error(new UsernameNotFoundException("testUser"));
+            userLoad.stop();
+            Observation.createNotStarted(AuthObservations.EXCEPTION_HANDLER_FILTER, observationRegistry)
+                    .lowCardinalityKeyValue(AuthObservations.OUTCOME, "invalid_jwt")
+                    .lowCardinalityKeyValue(AuthObservations.REASON, "expired")
+                    .observe(() -> {
+                    });
+            Observation.createNotStarted(AuthObservations.USE_CASE_CALL, observationRegistry).observe(() -> {
+            });
+        });
+
+        assertEquals(4, events.size());
+        RecordedEvent tokenVerify = events.get(TokenVerifyEvent.NAME);
+        assertEquals("valid", tokenVerify.getString("outcome"));
+        assertTrue(tokenVerify.getBoolean("cacheHit"));
+        RecordedEvent passwordVerify = events.get(PasswordVerifyEvent.NAME);
+        assertEquals(10, passwordVerify.getInt("cost"));
+        assertFalse(passwordVerify.getBoolean("matched"));
+        RecordedEvent userLoad = events.get(UserLoadEvent.NAME);
+        assertFalse(userLoad.getBoolean("found"));
+        assertEquals(UsernameNotFoundException.class.getName(), userLoad.getString("error"));
+        assertEquals("expired", events.get(FilterRejectionEvent.NAME).getString("reason"));
+    }
+
+    @Test
+    void exceptionHandlerObservation_PassedRequest_IsNotRecorded() throws IOException {
+        Map<String, RecordedEvent> events = record(() -> Observation
+                .createNotStarted(AuthObservations.EXCEPTION_HANDLER_FILTER, observationRegistry)
+                .lowCardinalityKeyValue(AuthObservations.OUTCOME, "passed")
+                .observe(() -> {
+                }));
+
+        assertTrue(events.isEmpty());
+    }
+
+    private Map<String, RecordedEvent> record(final Runnable action) throws IOException {
+        Path file = directory.resolve("auth.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of(TokenVerifyEvent.NAME, UserLoadEvent.NAME, PasswordVerifyEvent.NAME,
+                    RefreshTokenPersistEvent.NAME, FilterRejectionEvent.NAME)) {
+                recording.enable(name);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("openschool.auth."))
+                .collect(Collectors.toMap(event -> event.getEventType().getName(), Function.identity()));
+    }
+}
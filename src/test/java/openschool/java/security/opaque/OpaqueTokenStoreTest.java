@@ -0,0 +1,160 @@
+package openschool.java.security.opaque;
+
+import openschool.java.security.exception.ratelimit.TooManyRequestsException;
+import openschool.java.security.user.domain.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpaqueTokenStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    private AtomicLong clock;
+    private UserEntity userEntity;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(TimeUnit.HOURS.toMillis(1));
+        userEntity = UserEntity.builder()
+                .username("testUser")
+                .tokenVersion(2)
+                .build();
+    }
+
+    @Test
+    void issue_ReturnsPrefixedRandomToken() {
+        OpaqueTokenStore store = store(null);
+
+        String token = store.issue(userEntity);
+
+        assertTrue(OpaqueTokenStore.isOpaque(token));
+        assertEquals(OpaqueTokenStore.TOKEN_PREFIX.length() + 22, token.length());
+        assertNotEquals(token, store.issue(userEntity));
+    }
+
+    @Test
+    void resolve_WithIssuedToken_ReturnsSession() {
+        OpaqueTokenStore store = store(null);
+        String token = store.issue(userEntity);
+
+        OpaqueSession session = store.resolve(token);
+
+        assertEquals("testUser", session.username());
+        assertEquals(2, session.tokenVersion());
+        assertNull(store.resolve(OpaqueTokenStore.TOKEN_PREFIX + "unknown"));
+    }
+
+    @Test
+    void resolve_AfterTtl_ReturnsNullAndEvictionRemovesToken() {
+        OpaqueTokenStore store = store(null);
+        String token = store.issue(userEntity);
+
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(60));
+
+        assertNull(store.resolve(token));
+        store.evictExpired();
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void revoke_RemovesTokenOnce() {
+        OpaqueTokenStore store = store(null);
+        String token = store.issue(userEntity);
+
+        assertTrue(store.revoke(token));
+        assertFalse(store.revoke(token));
+        assertNull(store.resolve(token));
+    }
+
+    @Test
+    void restore_AfterSnapshot_RestoresLiveTokensOnly() {
+        Path snapshot = directory.resolve("opaque-tokens.bin");
+        OpaqueTokenStore store = store(snapshot);
+        String live = store.issue(userEntity);
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(30));
+        String later = store.issue(userEntity);
+        store.snapshotOnShutdown();
+
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(40));
+        OpaqueTokenStore restored = store(snapshot);
+        restored.restore();
+
+        assertNull(restored.resolve(live));
+        assertEquals("testUser", restored.resolve(later).username());
+        assertEquals(1, restored.size());
+    }
+
+    @Test
+    void snapshot_DoesNotContainTokens() throws Exception {
+        Path snapshot = directory.resolve("opaque-tokens.bin");
+        OpaqueTokenStore store = store(snapshot);
+        String token = store.issue(userEntity);
+        store.snapshotOnShutdown();
+
+        String content = new String(Files.readAllBytes(snapshot), StandardCharsets.ISO_8859_1);
+
+        assertFalse(content.contains(token.substring(OpaqueTokenStore.TOKEN_PREFIX.length())));
+        assertTrue(content.contains("testUser"));
+    }
+
+    @Test
+    void restore_FromPlainSnapshot_HashesTokens() throws Exception {
+        Path snapshot = directory.resolve("opaque-tokens.bin");
+        String token = OpaqueTokenStore.TOKEN_PREFIX + "legacyToken";
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(snapshot))) {
+            output.writeInt(1);
+            output.writeBoolean(true);
+            output.writeUTF(token);
+            output.writeUTF("testUser");
+            output.writeInt(2);
+            output.writeLong(clock.get() + TimeUnit.SECONDS.toMillis(60));
+            output.writeBoolean(false);
+        }
+
+        OpaqueTokenStore restored = store(snapshot);
+        restored.restore();
+
+        assertEquals("testUser", restored.resolve(token).username());
+    }
+
+    @Test
+    void issue_WhenStoreIsFull_ThrowsUntilEviction() {
+        OpaqueTokenStore store = store(null, 2);
+        store.issue(userEntity);
+        String token = store.issue(userEntity);
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> store.issue(userEntity));
+
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(2, store.size());
+        store.revoke(token);
+        assertEquals("testUser", store.resolve(store.issue(userEntity)).username());
+    }
+
+    private OpaqueTokenStore store(Path snapshot) {
+        return store(snapshot, 100);
+    }
+
+    private OpaqueTokenStore store(Path snapshot, int maxTokens) {
+        return new OpaqueTokenStore(
+                new AccessTokenProperties.Opaque(60, 1000, snapshot == null ? null : snapshot.toString(), maxTokens),
+                clock::get);
+    }
+}
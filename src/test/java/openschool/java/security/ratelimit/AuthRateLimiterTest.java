@@ -0,0 +1,114 @@
+package openschool.java.security.ratelimit;
+
+import openschool.java.security.exception.ratelimit.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AuthRateLimiterTest {
+
+    private static final String PATH = "/api/v1/auth/authenticate";
+
+    private AtomicLong clock;
+    private AuthRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        rateLimiter = new AuthRateLimiter(properties(true), clock::get);
+    }
+
+    @Test
+    void checkIpAddress_BurstAboveCapacity_ThrowsWithRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            assertDoesNotThrow(() -> rateLimiter.checkIpAddress(PATH, "10.0.0.1"));
+        }
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> rateLimiter.checkIpAddress(PATH, "10.0.0.1"));
+        assertEquals(20, exception.getRetryAfterSeconds());
+        assertDoesNotThrow(() -> rateLimiter.checkIpAddress(PATH, "10.0.0.2"));
+    }
+
+    @Test
+    void checkIpAddress_AfterRefillInterval_AllowsAgain() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.checkIpAddress(PATH, "10.0.0.1");
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(20));
+
+        assertDoesNotThrow(() -> rateLimiter.checkIpAddress(PATH, "10.0.0.1"));
+        assertThrows(TooManyRequestsException.class, () -> rateLimiter.checkIpAddress(PATH, "10.0.0.1"));
+    }
+
+    @Test
+    void checkUsername_UsesSeparateLimitPerEndpoint() {
+        rateLimiter.checkUsername(AuthRateLimiter.AUTHENTICATE, "user");
+
+        assertThrows(TooManyRequestsException.class,
+                () -> rateLimiter.checkUsername(AuthRateLimiter.AUTHENTICATE, "user"));
+        assertDoesNotThrow(() -> rateLimiter.checkUsername(AuthRateLimiter.REGISTER, "user"));
+    }
+
+    @Test
+    void checkIpAddress_WhenDisabled_NeverThrows() {
+        AuthRateLimiter disabled = new AuthRateLimiter(properties(false), clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertDoesNotThrow(() -> disabled.checkIpAddress(PATH, "10.0.0.1"));
+        }
+    }
+
+    @Test
+    void evictIdleBuckets_RemovesOnlyRefilledBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(new RateLimitProperties.BucketLimit(3, 60), clock::get);
+        limiter.tryAcquire("a");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        limiter.tryAcquire("b");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(15));
+
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void tryAcquire_ConcurrentCallers_GrantExactlyCapacity() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(new RateLimitProperties.BucketLimit(100, 3600), clock::get);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 1000; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    if (limiter.tryAcquire("key") == 0) {
+                        granted.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertEquals(100, granted.get());
+    }
+
+    private static RateLimitProperties properties(boolean enabled) {
+        return new RateLimitProperties(enabled, 60_000, Map.of(
+                AuthRateLimiter.AUTHENTICATE, new RateLimitProperties.EndpointLimit(PATH,
+                        new RateLimitProperties.BucketLimit(3, 60), new RateLimitProperties.BucketLimit(1, 60)),
+                AuthRateLimiter.REGISTER, new RateLimitProperties.EndpointLimit("/api/v1/auth/register",
+                        null, new RateLimitProperties.BucketLimit(1, 60))));
+    }
+}
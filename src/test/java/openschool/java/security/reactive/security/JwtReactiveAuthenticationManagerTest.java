@@ -0,0 +1,143 @@
+package openschool.java.security.reactive.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import openschool.java.security.reactive.domain.ReactiveRevokedTokenRepository;
+import openschool.java.security.reactive.domain.ReactiveUserRepository;
+import openschool.java.security.security.jwt.JwtTokenExtractor;
+import openschool.java.security.security.jwt.JwtTokenGenerator;
+import openschool.java.security.security.jwt.JwtTokenValidator;
+import openschool.java.security.security.jwt.TokenVerification;
+import openschool.java.security.user.domain.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtReactiveAuthenticationManagerTest {
+
+    @Mock
+    private JwtTokenExtractor tokenExtractor;
+
+    @Mock
+    private JwtTokenValidator tokenValidator;
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private ReactiveRevokedTokenRepository revokedTokenRepository;
+
+    private JwtReactiveAuthenticationManager authenticationManager;
+    private UserEntity userEntity;
+    private Claims claims;
+
+    @BeforeEach
+    void setUp() {
+        authenticationManager = new JwtReactiveAuthenticationManager(
+                tokenExtractor, tokenValidator, userRepository, revokedTokenRepository);
+        userEntity = UserEntity.builder()
+                .username("testUser")
+                .password("encodedpassword")
+                .build();
+        claims = Jwts.claims().setSubject("testUser");
+    }
+
+    @Test
+    void authenticate_WithValidToken_ReturnsAuthenticatedUser() {
+        when(tokenExtractor.verify("validToken")).thenReturn(new TokenVerification.Valid(claims));
+        when(userRepository.findByUsername("testUser")).thenReturn(Mono.just(userEntity));
+        when(tokenValidator.isValid(claims, userEntity)).thenReturn(true);
+
+        StepVerifier.create(authenticationManager.authenticate(
+                        UsernamePasswordAuthenticationToken.unauthenticated(null, "validToken")))
+                .assertNext(authentication -> {
+                    assertTrue(authentication.isAuthenticated());
+                    assertEquals(userEntity, authentication.getPrincipal());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void authenticate_WithMalformedToken_ReturnsBadCredentials() {
+        when(tokenExtractor.verify("invalidToken"))
+                .thenReturn(TokenVerification.Invalid.of(TokenVerification.Reason.MALFORMED));
+
+        StepVerifier.create(authenticationManager.authenticate(
+                        UsernamePasswordAuthenticationToken.unauthenticated(null, "invalidToken")))
+                .expectError(BadCredentialsException.class)
+                .verify();
+    }
+
+    @Test
+    void authenticate_WithUnknownUser_ReturnsBadCredentials() {
+        when(tokenExtractor.verify("validToken")).thenReturn(new TokenVerification.Valid(claims));
+        when(userRepository.findByUsername("testUser")).thenReturn(Mono.empty());
+
+        StepVerifier.create(authenticationManager.authenticate(
+                        UsernamePasswordAuthenticationToken.unauthenticated(null, "validToken")))
+                .expectError(BadCredentialsException.class)
+                .verify();
+    }
+
+    @Test
+    void authenticate_WithRevokedToken_ReturnsBadCredentials() {
+        UUID jti = UUID.randomUUID();
+        claims.setId(jti.toString());
+        when(tokenExtractor.verify("revokedToken")).thenReturn(new TokenVerification.Valid(claims));
+        when(revokedTokenRepository.isRevoked(jti)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(authenticationManager.authenticate(
+                        UsernamePasswordAuthenticationToken.unauthenticated(null, "revokedToken")))
+                .expectError(BadCredentialsException.class)
+                .verify();
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void authenticate_WithNotRevokedToken_ReturnsAuthenticatedUser() {
+        UUID jti = UUID.randomUUID();
+        claims.setId(jti.toString());
+        when(tokenExtractor.verify("validToken")).thenReturn(new TokenVerification.Valid(claims));
+        when(revokedTokenRepository.isRevoked(jti)).thenReturn(Mono.just(false));
+        when(userRepository.findByUsername("testUser")).thenReturn(Mono.just(userEntity));
+        when(tokenValidator.isValid(claims, userEntity)).thenReturn(true);
+
+        StepVerifier.create(authenticationManager.authenticate(
+                        UsernamePasswordAuthenticationToken.unauthenticated(null, "validToken")))
+                .assertNext(authentication -> assertEquals(userEntity, authentication.getPrincipal()))
+                .verifyComplete();
+    }
+
+    @Test
+    void authenticate_WithOutdatedTokenVersion_ReturnsBadCredentials() {
+        authenticationManager = new JwtReactiveAuthenticationManager(
+                tokenExtractor, new JwtTokenValidator(tokenExtractor), userRepository, revokedTokenRepository);
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        claims.put(JwtTokenGenerator.TOKEN_VERSION_CLAIM, 1);
+        when(tokenExtractor.verify("outdatedToken")).thenReturn(new TokenVerification.Valid(claims));
+        when(userRepository.findByUsername("testUser"))
+                .thenReturn(Mono.just(userEntity.toBuilder().tokenVersion(2).build()));
+
+        StepVerifier.create(authenticationManager.authenticate(
+                        UsernamePasswordAuthenticationToken.unauthenticated(null, "outdatedToken")))
+                .expectError(BadCredentialsException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,121 @@
+package openschool.java.security.revocation.service;
+
+import openschool.java.security.invalidation.InvalidationEvent;
+import openschool.java.security.invalidation.InvalidationPublisher;
+import openschool.java.security.user.domain.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenEpochServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private InvalidationPublisher invalidationPublisher;
+
+    private TokenEpochService tokenEpochService;
+
+    @BeforeEach
+    void setUp() {
+        tokenEpochService = new TokenEpochService(userRepository, invalidationPublisher, 60_000);
+    }
+
+    @Test
+    void isCurrent_CachesVersionBetweenCalls() {
+        when(userRepository.findTokenVersionByUsername("user")).thenReturn(Optional.of(2));
+
+        assertTrue(tokenEpochService.isCurrent("user", 2));
+        assertFalse(tokenEpochService.isCurrent("user", 1));
+        verify(userRepository, times(1)).findTokenVersionByUsername("user");
+    }
+
+    @Test
+    void isCurrent_UnknownUser_ReturnsFalse() {
+        when(userRepository.findTokenVersionByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertFalse(tokenEpochService.isCurrent("ghost", 0));
+    }
+
+    @Test
+    void increment_InvalidatesOlderTokensWithoutReload() {
+        when(userRepository.findTokenVersionByUsername("user"))
+                .thenReturn(Optional.of(0))
+                .thenReturn(Optional.of(1));
+
+        assertTrue(tokenEpochService.isCurrent("user", 0));
+        assertEquals(1, tokenEpochService.increment("user"));
+
+        assertFalse(tokenEpochService.isCurrent("user", 0));
+        assertTrue(tokenEpochService.isCurrent("user", 1));
+        verify(userRepository).incrementTokenVersion("user");
+        verify(userRepository, times(2)).findTokenVersionByUsername("user");
+        verify(invalidationPublisher).publishAfterCommit(InvalidationEvent.userChanged("user"));
+    }
+
+    @Test
+    void increment_InTransaction_UpdatesCacheOnlyAfterCommit() {
+        when(userRepository.findTokenVersionByUsername("user"))
+                .thenReturn(Optional.of(0))
+                .thenReturn(Optional.of(1));
+        assertTrue(tokenEpochService.isCurrent("user", 0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tokenEpochService.increment("user");
+
+            assertTrue(tokenEpochService.isCurrent("user", 0));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertFalse(tokenEpochService.isCurrent("user", 0));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void increment_RolledBack_KeepsCachedVersion() {
+        when(userRepository.findTokenVersionByUsername("user"))
+                .thenReturn(Optional.of(0))
+                .thenReturn(Optional.of(1));
+        assertTrue(tokenEpochService.isCurrent("user", 0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tokenEpochService.increment("user");
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(
+                            TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(tokenEpochService.isCurrent("user", 0));
+    }
+
+    @Test
+    void onInvalidation_UserChanged_ReloadsVersion() {
+        when(userRepository.findTokenVersionByUsername("user"))
+                .thenReturn(Optional.of(0))
+                .thenReturn(Optional.of(1));
+        assertTrue(tokenEpochService.isCurrent("user", 0));
+
+        tokenEpochService.onInvalidation(InvalidationEvent.userChanged("user"));
+
+        assertFalse(tokenEpochService.isCurrent("user", 0));
+    }
+}
@@ -0,0 +1,131 @@
+package openschool.java.security.revocation.service;
+
+import openschool.java.security.invalidation.InvalidationEvent;
+import openschool.java.security.invalidation.InvalidationPublisher;
+import openschool.java.security.revocation.domain.RevokedTokenEntity;
+import openschool.java.security.revocation.domain.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private InvalidationPublisher invalidationPublisher;
+
+    @Test
+    void revoke_IndexesAndPersistsToken() {
+        String jti = UUID.randomUUID().toString();
+        Date expiresAt = new Date(System.currentTimeMillis() + 60_000);
+
+        tokenRevocationService.revoke(jti, expiresAt);
+
+        assertTrue(tokenRevocationService.isRevoked(jti));
+        ArgumentCaptor<RevokedTokenEntity> captor = ArgumentCaptor.forClass(RevokedTokenEntity.class);
+        verify(revokedTokenRepository).save(captor.capture());
+        assertEquals(UUID.fromString(jti), captor.getValue().getJti());
+        assertEquals(expiresAt.toInstant(), captor.getValue().getExpiresAt().toInstant());
+        verify(invalidationPublisher).publishAfterCommit(InvalidationEvent.tokenRevoked(jti, expiresAt.getTime()));
+    }
+
+    @Test
+    void revoke_InTransaction_IndexedOnlyAfterCommit() {
+        String jti = UUID.randomUUID().toString();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tokenRevocationService.revoke(jti, new Date(System.currentTimeMillis() + 60_000));
+
+            assertFalse(tokenRevocationService.isRevoked(jti));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertTrue(tokenRevocationService.isRevoked(jti));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void onInvalidation_TokenRevokedOnAnotherNode_IsIndexed() {
+        String jti = UUID.randomUUID().toString();
+
+        tokenRevocationService.onInvalidation(
+                InvalidationEvent.tokenRevoked(jti, System.currentTimeMillis() + 60_000));
+
+        assertTrue(tokenRevocationService.isRevoked(jti));
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void revoke_ExpiredToken_IsIgnored() {
+        String jti = UUID.randomUUID().toString();
+
+        tokenRevocationService.revoke(jti, new Date(System.currentTimeMillis() - 1000));
+
+        assertFalse(tokenRevocationService.isRevoked(jti));
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void isRevoked_WithoutJti_ReturnsFalse() {
+        assertFalse(tokenRevocationService.isRevoked(null));
+    }
+
+    @Test
+    void synchronize_LoadsRemoteRevocationsAndPrunesExpired() {
+        UUID remoteJti = UUID.randomUUID();
+        when(revokedTokenRepository.findAllByExpiresAtAfter(any())).thenReturn(List.of());
+        when(revokedTokenRepository.findAllByRevokedAtGreaterThanEqual(any())).thenReturn(List.of(
+                revoked(remoteJti, ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(5))));
+
+        tokenRevocationService.load();
+        tokenRevocationService.synchronize();
+
+        assertTrue(tokenRevocationService.isRevoked(remoteJti.toString()));
+        verify(revokedTokenRepository).deleteExpired(any());
+    }
+
+    @Test
+    void load_SkipsAlreadyExpiredRows() {
+        UUID expiredJti = UUID.randomUUID();
+        when(revokedTokenRepository.findAllByExpiresAtAfter(any())).thenReturn(List.of(
+                revoked(expiredJti, ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(1))));
+
+        tokenRevocationService.load();
+
+        assertFalse(tokenRevocationService.isRevoked(expiredJti.toString()));
+    }
+
+    private static RevokedTokenEntity revoked(UUID jti, ZonedDateTime expiresAt) {
+        return RevokedTokenEntity.builder()
+                .jti(jti)
+                .expiresAt(expiresAt)
+                .revokedAt(ZonedDateTime.now(ZoneOffset.UTC))
+                .build();
+    }
+}
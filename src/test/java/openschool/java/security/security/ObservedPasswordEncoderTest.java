@@ -0,0 +1,57 @@
+package openschool.java.security.security;
+
+import io.micrometer.observation.tck.TestObservationRegistry;
+import openschool.java.security.observation.AuthObservations;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static io.micrometer.observation.tck.TestObservationRegistryAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObservedPasswordEncoderTest {
+
+    private TestObservationRegistry observationRegistry;
+    private ObservedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        observationRegistry = TestObservationRegistry.create();
+        passwordEncoder = new ObservedPasswordEncoder(new BCryptPasswordEncoder(4), 4, observationRegistry);
+    }
+
+    @Test
+    void encode_RecordsEncodeObservationWithCost() {
+        passwordEncoder.encode("password");
+
+        assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo(AuthObservations.PASSWORD_ENCODE)
+                .that()
+                .hasLowCardinalityKeyValue(AuthObservations.BCRYPT_COST, "4")
+                .hasBeenStopped();
+    }
+
+    @Test
+    void matches_WithCorrectPassword_RecordsMatchOutcome() {
+        String encoded = new BCryptPasswordEncoder(4).encode("password");
+
+        assertTrue(passwordEncoder.matches("password", encoded));
+        assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo(AuthObservations.PASSWORD_VERIFY)
+                .that()
+                .hasLowCardinalityKeyValue(AuthObservations.OUTCOME, "match")
+                .hasBeenStopped();
+    }
+
+    @Test
+    void matches_WithWrongPassword_RecordsMismatchOutcome() {
+        String encoded = new BCryptPasswordEncoder(4).encode("password");
+
+        assertFalse(passwordEncoder.matches("wrong", encoded));
+        assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo(AuthObservations.PASSWORD_VERIFY)
+                .that()
+                .hasLowCardinalityKeyValue(AuthObservations.OUTCOME, "mismatch");
+    }
+}
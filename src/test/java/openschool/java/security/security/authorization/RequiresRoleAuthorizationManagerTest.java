@@ -0,0 +1,85 @@
+package openschool.java.security.security.authorization;
+
+import openschool.java.security.admin.controller.AdminController;
+import openschool.java.security.security.config.SecurityConfiguration;
+import openschool.java.security.user.domain.UserEntity;
+import openschool.java.security.user.domain.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequiresRoleAuthorizationManagerTest {
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void adminController_AllowsOnlyAdmin() {
+        AdminController controller = proxy(new AdminController());
+
+        authenticate(UserRole.ADMIN);
+        assertNotNull(controller.admin());
+
+        authenticate(UserRole.USER);
+        assertThrows(AccessDeniedException.class, controller::admin);
+
+        SecurityContextHolder.clearContext();
+        assertThrows(AuthenticationCredentialsNotFoundException.class, controller::admin);
+    }
+
+    @Test
+    void methodAnnotation_OverridesClassAnnotation() {
+        Service service = proxy(new Service());
+        authenticate(UserRole.USER);
+
+        assertEquals("user", service.user());
+        assertThrows(AccessDeniedException.class, service::admin);
+    }
+
+    @Test
+    void compile_OnlyAnnotatedMethods() throws NoSuchMethodException {
+        RequiresRoleAuthorizationManager manager = new RequiresRoleAuthorizationManager();
+
+        assertTrue(manager.compile(AdminController.class.getMethod("admin"), AdminController.class));
+        assertFalse(manager.compile(Object.class.getMethod("hashCode"), Object.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(final T target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(SecurityConfiguration.requiresRoleAuthorizationAdvisor());
+        return (T) proxyFactory.getProxy();
+    }
+
+    private static void authenticate(final UserRole role) {
+        UserEntity userEntity = UserEntity.builder().username("testUser").role(role).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userEntity, null, userEntity.getAuthorities()));
+    }
+
+    @RequiresRole(UserRole.ADMIN)
+    static class Service {
+
+        public String admin() {
+            return "admin";
+        }
+
+        @RequiresRole({UserRole.USER, UserRole.ADMIN})
+        public String user() {
+            return "user";
+        }
+    }
+}
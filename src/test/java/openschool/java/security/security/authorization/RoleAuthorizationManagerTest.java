@@ -0,0 +1,50 @@
+package openschool.java.security.security.authorization;
+
+import openschool.java.security.user.domain.UserEntity;
+import openschool.java.security.user.domain.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoleAuthorizationManagerTest {
+
+    private final RoleAuthorizationManager<Object> adminOnly = RoleAuthorizationManager.hasAnyRole(UserRole.ADMIN);
+
+    @Test
+    void isGranted_UserEntityPrincipal_ChecksRole() {
+        assertTrue(adminOnly.isGranted(authenticated(UserRole.ADMIN)));
+        assertFalse(adminOnly.isGranted(authenticated(UserRole.USER)));
+        assertTrue(RoleAuthorizationManager.hasAnyRole(UserRole.USER, UserRole.ADMIN)
+                .isGranted(authenticated(UserRole.USER)));
+    }
+
+    @Test
+    void isGranted_OtherPrincipal_ChecksAuthorities() {
+        assertTrue(adminOnly.isGranted(new TestingAuthenticationToken("service", null, "ADMIN")));
+        assertFalse(adminOnly.isGranted(new TestingAuthenticationToken("service", null, "ROLE_ADMIN")));
+    }
+
+    @Test
+    void check_MissingOrUnauthenticated_Denied() {
+        UserEntity admin = UserEntity.builder().username("admin").role(UserRole.ADMIN).build();
+
+        assertFalse(adminOnly.check(() -> null, new Object()).isGranted());
+        assertFalse(adminOnly.check(() -> new UsernamePasswordAuthenticationToken(admin, null), new Object())
+                .isGranted());
+    }
+
+    @Test
+    void hasAnyRole_NoRoles_Throws() {
+        assertThrows(IllegalArgumentException.class, RoleAuthorizationManager::hasAnyRole);
+    }
+
+    private static Authentication authenticated(final UserRole role) {
+        UserEntity userEntity = UserEntity.builder().username("testUser").role(role).build();
+        return new UsernamePasswordAuthenticationToken(userEntity, null, userEntity.getAuthorities());
+    }
+}
@@ -0,0 +1,43 @@
+package openschool.java.security.security.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SecurityConfigurationTest {
+
+    @Test
+    void publicRoutes_MatchAuthAndDocs() {
+        assertTrue(isPublic("/api/v1/auth/authenticate"));
+        assertTrue(isPublic("/api/v1/auth/register"));
+        assertTrue(isPublic("/swagger-ui/index.html"));
+        assertTrue(isPublic("/v3/api-docs/swagger-config"));
+    }
+
+    @Test
+    void publicRoutes_DoNotMatchProtectedApis() {
+        assertFalse(isPublic("/api/v1/user"));
+        assertFalse(isPublic("/api/v1/user/testUser"));
+        assertFalse(isPublic("/api/v1/authx"));
+        assertFalse(isPublic("/actuator/metrics"));
+        assertFalse(isPublic("/actuator/prometheus"));
+    }
+
+    @Test
+    void adminRoutes_MatchAdminApiOnly() {
+        assertTrue(SecurityConfiguration.ADMIN_ROUTES.matches(request("/api/v1/admin")));
+        assertFalse(SecurityConfiguration.ADMIN_ROUTES.matches(request("/api/v1/user")));
+    }
+
+    private static boolean isPublic(String path) {
+        return SecurityConfiguration.PUBLIC_ROUTES.matches(request(path));
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
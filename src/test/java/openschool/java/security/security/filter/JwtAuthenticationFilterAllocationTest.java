@@ -0,0 +1,144 @@
+package openschool.java.security.security.filter;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.FilterChain;
+import openschool.java.security.database.ReadYourWrites;
+import openschool.java.security.database.ReplicaProperties;
+import openschool.java.security.revocation.service.TokenEpochService;
+import openschool.java.security.revocation.service.TokenRevocationService;
+import openschool.java.security.security.UserDetailsServiceImpl;
+import openschool.java.security.security.jwt.JwtTokenExtractor;
+import openschool.java.security.security.jwt.JwtTokenGenerator;
+import openschool.java.security.security.jwt.JwtTokenValidator;
+import openschool.java.security.user.domain.UserEntity;
+import openschool.java.security.user.domain.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Бюджет памяти, выделяемой {@link JwtAuthenticationFilter} на один аутентифицированный запрос.
+ * <p>
+ * Байты считаются счетчиком выделений текущего потока {@link com.sun.management.ThreadMXBean} после прогрева.
+ * Зависимости фильтра - настоящие сервисы с заполненными кэшами и репозиторием-заглушкой без Mockito, чтобы
+ * в замер не попадали выделения моков. Бюджет задается свойством {@value #BUDGET_PROPERTY} в pom.xml.
+ * <p>
+ * Тест запускается отдельным выполнением surefire в своей JVM, так как профили JIT, накопленные другими тестами,
+ * мешают escape-анализу и увеличивают результат.
+ */
+@Tag("allocation")
+class JwtAuthenticationFilterAllocationTest {
+
+    private static final String BUDGET_PROPERTY = "allocation-budget.jwt-filter-bytes";
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final int WARMUP_REQUESTS = 50_000;
+    private static final int MEASURED_REQUESTS = 20_000;
+    private static final int ROUNDS = 5;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain filterChain;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity userEntity = UserEntity.builder()
+                .id(UUID.randomUUID())
+                .username("testUser")
+                .password("encoded-password")
+                .build();
+        Optional<UserEntity> found = Optional.of(userEntity);
+        Optional<Integer> tokenVersion = Optional.of(userEntity.getTokenVersion());
+        UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByUsername" -> found;
+                    case "findTokenVersionByUsername" -> tokenVersion;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        JwtTokenExtractor tokenExtractor = new JwtTokenExtractor(ObservationRegistry.NOOP, SECRET);
+        filter = new JwtAuthenticationFilter(
+                tokenExtractor,
+                new JwtTokenValidator(tokenExtractor),
+                new UserDetailsServiceImpl(userRepository, ObservationRegistry.NOOP,
+                        new ReadYourWrites(new ReplicaProperties(false, List.of(), 0, 0, 0, null, 0, 0))),
+                new TokenRevocationService(null, null),
+                new TokenEpochService(userRepository, null, Long.MAX_VALUE),
+                null,
+                ObservationRegistry.NOOP);
+
+        String token = Jwts.builder()
+                .setSubject(userEntity.getUsername())
+                .setId(UUID.randomUUID().toString())
+                .claim(JwtTokenGenerator.TOKEN_VERSION_CLAIM, userEntity.getTokenVersion())
+                .claim(JwtTokenGenerator.TOKEN_TYPE_CLAIM, JwtTokenGenerator.ACCESS_TOKEN_TYPE)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60 * 60 * 1000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+        request = new MockHttpServletRequest("GET", "/api/v1/user/testUser");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        response = new MockHttpServletResponse();
+        filterChain = (servletRequest, servletResponse) -> {
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_AuthenticatedRequest_StaysWithinAllocationBudget() throws Exception {
+        long budget = Long.getLong(BUDGET_PROPERTY, 0);
+        assertTrue(budget > 0, "Не задан бюджет " + BUDGET_PROPERTY);
+
+        filterOnce();
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            filterOnce();
+        }
+        long bytesPerRequest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threadMXBean.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < MEASURED_REQUESTS; i++) {
+                filterOnce();
+            }
+            long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - before;
+            bytesPerRequest = Math.min(bytesPerRequest, allocated / MEASURED_REQUESTS);
+        }
+
+        System.out.printf("JwtAuthenticationFilter: %d bytes per request, budget %d%n", bytesPerRequest, budget);
+        assertTrue(bytesPerRequest <= budget,
+                "JwtAuthenticationFilter выделяет " + bytesPerRequest + " байт на запрос, бюджет " + budget);
+    }
+
+    private void filterOnce() throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, filterChain);
+    }
+}
@@ -0,0 +1,95 @@
+package openschool.java.security.security.filter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.FilterChain;
+import openschool.java.security.opaque.OpaqueTokenStore;
+import openschool.java.security.revocation.service.TokenEpochService;
+import openschool.java.security.revocation.service.TokenRevocationService;
+import openschool.java.security.security.UserDetailsServiceImpl;
+import openschool.java.security.security.jwt.JwtTokenExtractor;
+import openschool.java.security.security.jwt.JwtTokenValidator;
+import openschool.java.security.security.jwt.TokenVerification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "header.payload.signature";
+    private static final String JTI = "0f8fad5b-d9cb-469f-a165-70867728950e";
+
+    @Mock
+    private JwtTokenExtractor tokenExtractor;
+
+    @Mock
+    private JwtTokenValidator tokenValidator;
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private OpaqueTokenStore opaqueTokenStore;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(tokenExtractor, tokenValidator, userDetailsService,
+                tokenRevocationService, tokenEpochService, opaqueTokenStore, ObservationRegistry.NOOP);
+        request = new MockHttpServletRequest("GET", "/api/v1/user/testUser");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN);
+    }
+
+    @Test
+    void doFilter_RevokedToken_RejectedWithReason() throws Exception {
+        Claims claims = Jwts.claims(Map.of(Claims.SUBJECT, "testUser", Claims.ID, JTI));
+        when(tokenExtractor.verify(TOKEN)).thenReturn(new TokenVerification.Valid(claims));
+        when(tokenRevocationService.isRevoked(JTI)).thenReturn(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertEquals(TokenVerification.Reason.REVOKED,
+                request.getAttribute(JwtAuthenticationFilter.REJECTION_REASON_ATTRIBUTE));
+        verify(filterChain, never()).doFilter(any(), any());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void doFilter_InvalidToken_RejectedWithVerificationReason() throws Exception {
+        when(tokenExtractor.verify(TOKEN))
+                .thenReturn(TokenVerification.Invalid.of(TokenVerification.Reason.BAD_SIGNATURE));
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertEquals(TokenVerification.Reason.BAD_SIGNATURE,
+                request.getAttribute(JwtAuthenticationFilter.REJECTION_REASON_ATTRIBUTE));
+        verify(filterChain, never()).doFilter(any(), any());
+    }
+}
@@ -4,11 +4,16 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.observation.ObservationRegistry;
+import openschool.java.security.exception.jwt.InvalidJwtToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.util.ReflectionTestUtils;
 
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.util.Base64;
 import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,15 +26,15 @@ class JwtTokenExtractorTest {
 
     @BeforeEach
     void setUp() {
-        jwtTokenExtractor = new JwtTokenExtractor();
         String secret = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
-        ReflectionTestUtils.setField(jwtTokenExtractor, "secret", secret);
+        jwtTokenExtractor = new JwtTokenExtractor(ObservationRegistry.NOOP, secret);
 
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
 
         // Create a valid token for testing
         validToken = Jwts.builder()
                 .setSubject("testUser")
+                .claim(JwtTokenGenerator.TOKEN_TYPE_CLAIM, JwtTokenGenerator.ACCESS_TOKEN_TYPE)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60)) // 1 hour
                 .signWith(key, SignatureAlgorithm.HS256)
@@ -51,13 +56,13 @@ class JwtTokenExtractorTest {
     @Test
     void extractSubject_WithInvalidToken_ShouldThrowException() {
         String invalidToken = "invalidToken";
-        assertThrows(Exception.class, () -> jwtTokenExtractor.extractSubject(invalidToken));
+        assertThrows(InvalidJwtToken.class, () -> jwtTokenExtractor.extractSubject(invalidToken));
     }
 
     @Test
     void extractExpiration_WithInvalidToken_ShouldThrowException() {
         String invalidToken = "invalidToken";
-        assertThrows(Exception.class, () -> jwtTokenExtractor.extractExpiration(invalidToken));
+        assertThrows(InvalidJwtToken.class, () -> jwtTokenExtractor.extractExpiration(invalidToken));
     }
 
     @Test
@@ -69,19 +74,19 @@ class JwtTokenExtractorTest {
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
 
-        assertThrows(Exception.class, () -> jwtTokenExtractor.extractExpiration(expiredToken));
+        assertThrows(InvalidJwtToken.class, () -> jwtTokenExtractor.extractExpiration(expiredToken));
     }
 
     @Test
     void extractSubject_WithModifiedToken_ShouldThrowException() {
         String modifiedToken = validToken.substring(0, validToken.length() - 1) + "X";
-        assertThrows(Exception.class, () -> jwtTokenExtractor.extractSubject(modifiedToken));
+        assertThrows(InvalidJwtToken.class, () -> jwtTokenExtractor.extractSubject(modifiedToken));
     }
 
     @Test
     void extractExpiration_WithModifiedToken_ShouldThrowException() {
         String modifiedToken = validToken.substring(0, validToken.length() - 1) + "X";
-        assertThrows(Exception.class, () -> jwtTokenExtractor.extractExpiration(modifiedToken));
+        assertThrows(InvalidJwtToken.class, () -> jwtTokenExtractor.extractExpiration(modifiedToken));
     }
 
     @Test
@@ -94,7 +99,7 @@ class JwtTokenExtractorTest {
                 .signWith(differentKey, SignatureAlgorithm.HS256)
                 .compact();
 
-        assertThrows(Exception.class, () -> jwtTokenExtractor.extractSubject(tokenWithDifferentKey));
+        assertThrows(InvalidJwtToken.class, () -> jwtTokenExtractor.extractSubject(tokenWithDifferentKey));
     }
 
     @Test
@@ -107,6 +112,162 @@ class JwtTokenExtractorTest {
                 .signWith(differentKey, SignatureAlgorithm.HS256)
                 .compact();
 
-        assertThrows(Exception.class, () -> jwtTokenExtractor.extractExpiration(tokenWithDifferentKey));
+        assertThrows(InvalidJwtToken.class, () -> jwtTokenExtractor.extractExpiration(tokenWithDifferentKey));
     }
-}
\ No newline at end of file
+
+    @Test
+    void verify_WithValidToken_ShouldReturnClaims() {
+        TokenVerification verification = jwtTokenExtractor.verify(validToken);
+
+        TokenVerification.Valid valid = assertInstanceOf(TokenVerification.Valid.class, verification);
+        assertEquals("testUser", valid.claims().getSubject());
+        assertTrue(valid.claims().getExpiration().after(new Date()));
+    }
+
+    @Test
+    void verify_RepeatedToken_ShouldReturnSameImmutableClaims() {
+        TokenVerification.Valid first = assertInstanceOf(TokenVerification.Valid.class,
+                jwtTokenExtractor.verify(validToken));
+        TokenVerification.Valid second = assertInstanceOf(TokenVerification.Valid.class,
+                jwtTokenExtractor.verify(validToken));
+
+        assertSame(first.claims(), second.claims());
+        assertThrows(UnsupportedOperationException.class, () -> first.claims().setSubject("admin"));
+        assertThrows(UnsupportedOperationException.class, () -> first.claims().put("sub", "admin"));
+        assertEquals("testUser", second.claims().getSubject());
+    }
+
+    @Test
+    void verify_WithModifiedPayload_ShouldReturnBadSignature() {
+        String[] parts = validToken.split("\\.");
+        String payload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"admin\"}".getBytes(StandardCharsets.UTF_8));
+        String modifiedToken = parts[0] + "." + payload + "." + parts[2];
+
+        assertEquals(TokenVerification.Invalid.of(TokenVerification.Reason.BAD_SIGNATURE),
+                jwtTokenExtractor.verify(modifiedToken));
+    }
+
+    @Test
+    void verify_WithNonCanonicalSignatureEncoding_ShouldReturnBadSignature() {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        char last = validToken.charAt(validToken.length() - 1);
+        char sameBytes = alphabet.charAt(alphabet.indexOf(last) ^ 1);
+        String modifiedToken = validToken.substring(0, validToken.length() - 1) + sameBytes;
+
+        assertEquals(TokenVerification.Invalid.of(TokenVerification.Reason.BAD_SIGNATURE),
+                jwtTokenExtractor.verify(modifiedToken));
+        assertThrows(InvalidJwtToken.class, () -> jwtTokenExtractor.extractSubject(modifiedToken));
+    }
+
+    @Test
+    void verify_WithMalformedToken_ShouldReturnMalformed() {
+        assertEquals(TokenVerification.Invalid.of(TokenVerification.Reason.MALFORMED),
+                jwtTokenExtractor.verify("invalidToken"));
+        assertEquals(TokenVerification.Invalid.of(TokenVerification.Reason.MALFORMED),
+                jwtTokenExtractor.verify(validToken + ".extra"));
+        assertEquals(TokenVerification.Invalid.of(TokenVerification.Reason.MALFORMED),
+                jwtTokenExtractor.verify(validToken.replace('.', '+')));
+    }
+
+    @Test
+    void verify_WithExpiredToken_ShouldReturnExpired() {
+        String expiredToken = Jwts.builder()
+                .setSubject("expiredUser")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000 * 60 * 60))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+
+        assertEquals(TokenVerification.Invalid.of(TokenVerification.Reason.EXPIRED),
+                jwtTokenExtractor.verify(expiredToken));
+    }
+
+    @Test
+    void verify_WithRefreshToken_ShouldReturnWrongTokenType() {
+        String refreshToken = tokenOfType(JwtTokenGenerator.REFRESH_TOKEN_TYPE);
+
+        assertEquals(TokenVerification.Invalid.of(TokenVerification.Reason.WRONG_TOKEN_TYPE),
+                jwtTokenExtractor.verify(refreshToken));
+        assertThrows(InvalidJwtToken.class, () -> jwtTokenExtractor.extractId(refreshToken));
+        assertEquals("testUser", jwtTokenExtractor.extractRefreshClaims(refreshToken).getSubject());
+    }
+
+    @Test
+    void verify_WithoutTokenType_ShouldReturnWrongTokenType() {
+        String untypedToken = Jwts.builder()
+                .setSubject("testUser")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+
+        assertEquals(TokenVerification.Invalid.of(TokenVerification.Reason.WRONG_TOKEN_TYPE),
+                jwtTokenExtractor.verify(untypedToken));
+        assertThrows(InvalidJwtToken.class, () -> jwtTokenExtractor.extractRefreshClaims(untypedToken));
+    }
+
+    @Test
+    void extractRefreshClaims_WithAccessToken_ShouldThrowInvalidJwtToken() {
+        jwtTokenExtractor.verify(validToken);
+
+        assertThrows(InvalidJwtToken.class, () -> jwtTokenExtractor.extractRefreshClaims(validToken));
+    }
+
+    @Test
+    void verify_WithUnsignedToken_ShouldReturnBadSignature() {
+        String[] parts = validToken.split("\\.");
+        String header = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(TokenVerification.Invalid.of(TokenVerification.Reason.BAD_SIGNATURE),
+                jwtTokenExtractor.verify(header + "." + parts[1] + "." + parts[2]));
+    }
+
+    @Test
+    void verify_WithGarbageHeader_ShouldReturnBadSignature() {
+        String[] parts = validToken.split("\\.");
+        String header = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{not json".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(TokenVerification.Invalid.of(TokenVerification.Reason.BAD_SIGNATURE),
+                jwtTokenExtractor.verify(header + "." + parts[1] + "." + parts[2]));
+    }
+
+    @Test
+    void verify_WithSignedForeignAlgorithmHeader_ShouldReturnUnsupportedAlgorithm() throws GeneralSecurityException {
+        String[] parts = validToken.split("\\.");
+        String header = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"HS512\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(TokenVerification.Invalid.of(TokenVerification.Reason.UNSUPPORTED_ALGORITHM),
+                jwtTokenExtractor.verify(header + "." + parts[1] + "." + sign(header + "." + parts[1])));
+    }
+
+    @Test
+    void extractSubject_WithCriticalHeader_ShouldThrowInvalidJwtToken() throws GeneralSecurityException {
+        String[] parts = validToken.split("\\.");
+        String header = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"HS256\",\"crit\":[\"exp\"]}".getBytes(StandardCharsets.UTF_8));
+        String token = header + "." + parts[1] + "." + sign(header + "." + parts[1]);
+
+        assertEquals(TokenVerification.Invalid.of(TokenVerification.Reason.UNSUPPORTED_ALGORITHM),
+                jwtTokenExtractor.verify(token));
+        assertThrows(InvalidJwtToken.class, () -> jwtTokenExtractor.extractSubject(token));
+        assertThrows(InvalidJwtToken.class, () -> jwtTokenExtractor.extractId(token));
+    }
+
+    private String sign(final String signingInput) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(key);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private String tokenOfType(final String tokenType) {
+        return Jwts.builder()
+                .setSubject("testUser")
+                .claim(JwtTokenGenerator.TOKEN_TYPE_CLAIM, tokenType)
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
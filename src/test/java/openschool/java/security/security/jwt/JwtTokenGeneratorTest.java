@@ -12,6 +12,7 @@ import org.springframework.http.ResponseCookie;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.security.Key;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -50,6 +51,8 @@ class JwtTokenGeneratorTest {
         long expectedExpirationTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(3600);
         long actualExpirationTime = claims.getBody().getExpiration().getTime();
         assertTrue(Math.abs(expectedExpirationTime - actualExpirationTime) < 1000);
+        assertNotNull(UUID.fromString(claims.getBody().getId()));
+        assertEquals(JwtTokenGenerator.ACCESS_TOKEN_TYPE, claims.getBody().get(JwtTokenGenerator.TOKEN_TYPE_CLAIM));
     }
 
     @Test
@@ -63,6 +66,7 @@ class JwtTokenGeneratorTest {
         long expectedExpirationTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(7200);
         long actualExpirationTime = claims.getBody().getExpiration().getTime();
         assertTrue(Math.abs(expectedExpirationTime - actualExpirationTime) < 1000);
+        assertEquals(JwtTokenGenerator.REFRESH_TOKEN_TYPE, claims.getBody().get(JwtTokenGenerator.TOKEN_TYPE_CLAIM));
     }
 
     @Test
@@ -1,5 +1,8 @@
 package openschool.java.security.security.jwt;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import openschool.java.security.user.domain.UserEntity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,7 +10,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -34,9 +38,8 @@ class JwtTokenValidatorTest {
         String token = "validToken";
         String username = "testUser";
 
-        when(extractor.extractSubject(token)).thenReturn(username);
+        when(extractor.verify(token)).thenReturn(valid(username, 1000, 0));
         when(userDetails.getUsername()).thenReturn(username);
-        when(extractor.extractExpiration(token)).thenReturn(new Date(System.currentTimeMillis() + 1000000));
 
         assertTrue(validator.isValid(token, userDetails));
     }
@@ -44,24 +47,50 @@ class JwtTokenValidatorTest {
     @Test
     void isValid_WithValidTokenButDifferentUsername_ReturnsFalse() {
         String token = "validToken";
-        String extractedUsername = "testUser";
-        String actualUsername = "differentUser";
 
-        when(extractor.extractSubject(token)).thenReturn(extractedUsername);
-        when(userDetails.getUsername()).thenReturn(actualUsername);
+        when(extractor.verify(token)).thenReturn(valid("testUser", 1000, 0));
+        when(userDetails.getUsername()).thenReturn("differentUser");
 
         assertFalse(validator.isValid(token, userDetails));
     }
 
     @Test
-    void isValid_WithExpiredToken_ReturnsFalse() {
+    void isValid_WithRejectedToken_ReturnsFalse() {
         String token = "expiredToken";
+
+        when(extractor.verify(token)).thenReturn(TokenVerification.Invalid.of(TokenVerification.Reason.EXPIRED));
+
+        assertFalse(validator.isValid(token, userDetails));
+    }
+
+    @Test
+    void isValid_WithExpiredClaims_ReturnsFalse() {
         String username = "testUser";
 
-        when(extractor.extractSubject(token)).thenReturn(username);
         when(userDetails.getUsername()).thenReturn(username);
-        when(extractor.extractExpiration(token)).thenReturn(new Date(System.currentTimeMillis() - 1000000));
 
-        assertFalse(validator.isValid(token, userDetails));
+        assertFalse(validator.isValid(valid(username, -1000, 0).claims(), userDetails));
+    }
+
+    @Test
+    void isValid_WithStaleTokenVersion_ReturnsFalse() {
+        String token = "staleToken";
+        UserEntity userEntity = UserEntity.builder()
+                .username("testUser")
+                .tokenVersion(2)
+                .build();
+
+        when(extractor.verify(token)).thenReturn(valid("testUser", 1000, 1));
+
+        assertFalse(validator.isValid(token, userEntity));
+    }
+
+    private static TokenVerification.Valid valid(final String subject, final long expiresInSeconds,
+                                                 final int tokenVersion) {
+        Claims claims = Jwts.claims(Map.of(
+                Claims.SUBJECT, subject,
+                Claims.EXPIRATION, TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + expiresInSeconds,
+                JwtTokenGenerator.TOKEN_VERSION_CLAIM, tokenVersion));
+        return new TokenVerification.Valid(claims);
     }
-}
\ No newline at end of file
+}
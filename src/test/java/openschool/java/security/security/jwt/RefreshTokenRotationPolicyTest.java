@@ -0,0 +1,40 @@
+package openschool.java.security.security.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshTokenRotationPolicyTest {
+
+    private static final long ISSUED_AT = TimeUnit.DAYS.toMillis(1);
+    private static final long LIFETIME = TimeUnit.HOURS.toMillis(100);
+
+    @Test
+    void shouldRotate_AfterThresholdFractionOfLifetime() {
+        RefreshTokenRotationPolicy policy = new RefreshTokenRotationPolicy(0.5);
+        Date issuedAt = new Date(ISSUED_AT);
+        Date expiresAt = new Date(ISSUED_AT + LIFETIME);
+
+        assertFalse(policy.shouldRotate(issuedAt, expiresAt, ISSUED_AT + TimeUnit.MINUTES.toMillis(1)));
+        assertFalse(policy.shouldRotate(issuedAt, expiresAt, ISSUED_AT + LIFETIME / 2 - 1));
+        assertTrue(policy.shouldRotate(issuedAt, expiresAt, ISSUED_AT + LIFETIME / 2));
+    }
+
+    @Test
+    void shouldRotate_ZeroThresholdOrUnknownIssuedAt_AlwaysRotates() {
+        Date expiresAt = new Date(ISSUED_AT + LIFETIME);
+
+        assertTrue(new RefreshTokenRotationPolicy(0).shouldRotate(new Date(ISSUED_AT), expiresAt, ISSUED_AT));
+        assertTrue(new RefreshTokenRotationPolicy(0.5).shouldRotate(null, expiresAt, ISSUED_AT));
+    }
+
+    @Test
+    void constructor_ThresholdOutOfRange_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new RefreshTokenRotationPolicy(1.5));
+    }
+}
@@ -0,0 +1,86 @@
+package openschool.java.security.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VerifiedClaimsCacheTest {
+
+    private static final long NOW = TimeUnit.HOURS.toMillis(1);
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+
+    @Test
+    void get_ReturnsImmutableClaimsUntilExpiry() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(10, clock::get);
+        cache.put("token", claims(60));
+
+        Claims cached = cache.get("token");
+        assertEquals("testUser", cached.getSubject());
+        assertThrows(UnsupportedOperationException.class, () -> cached.put(Claims.SUBJECT, "admin"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(60));
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_Overflow_EvictsEarliestExpiringOnly() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(2, clock::get);
+        cache.put("late", claims(300));
+        cache.put("early", claims(60));
+        cache.put("middle", claims(120));
+
+        assertNull(cache.get("early"));
+        assertNotNull(cache.get("late"));
+        assertNotNull(cache.get("middle"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void put_RemovesExpiredEntries() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(10, clock::get);
+        cache.put("short", claims(10));
+        cache.put("long", claims(300));
+
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(30));
+        cache.put("other", claims(300));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("long"));
+    }
+
+    @Test
+    void put_WithoutExpiration_IsNotCached() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(10, clock::get);
+        cache.put("token", Jwts.claims(Map.of(Claims.SUBJECT, "testUser")));
+
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void put_SameToken_ReplacesEntry() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(1, clock::get);
+        cache.put("token", claims(60));
+        cache.put("token", claims(120));
+
+        assertEquals(1, cache.size());
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(90));
+        assertNotNull(cache.get("token"));
+    }
+
+    private Claims claims(final long expiresInSeconds) {
+        return Jwts.claims(Map.of(
+                Claims.SUBJECT, "testUser",
+                Claims.EXPIRATION, TimeUnit.MILLISECONDS.toSeconds(clock.get()) + expiresInSeconds));
+    }
+}
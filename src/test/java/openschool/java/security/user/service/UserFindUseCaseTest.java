@@ -1,15 +1,18 @@
 package openschool.java.security.user.service;
 
+import openschool.java.security.database.ReadYourWrites;
+import openschool.java.security.database.ReplicaProperties;
 import openschool.java.security.exception.user.UserNotFoundException;
 import openschool.java.security.user.domain.UserEntity;
 import openschool.java.security.user.domain.UserRepository;
-import openschool.java.security.user.dto.UserTo;
+import openschool.java.security.user.dto.UserResponse;
 import openschool.java.security.user.mapping.UserMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Arrays;
 import java.util.List;
@@ -34,28 +37,32 @@ class UserFindUseCaseTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private UserFindUseCase userFindUseCase;
 
     @BeforeEach
     void setUp() {
-        userFindUseCase = new UserFindUseCase(userRepository, userMapper);
+        userFindUseCase = new UserFindUseCase(userRepository, userMapper,
+                new ReadYourWrites(new ReplicaProperties(false, List.of(), 0, 0, 0, null, 0, 0)), transactionManager);
     }
 
     @Test
-    void findUserByUsername_ExistingUser_ReturnsUserTo() {
+    void findUserByUsername_ExistingUser_ReturnsUserResponse() {
         String username = "testUser";
         UserEntity userEntity = new UserEntity();
-        UserTo userTo = new UserTo();
+        UserResponse userResponse = UserResponse.builder().username(username).build();
 
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(userEntity));
-        when(userMapper.mapFromEntity(userEntity)).thenReturn(userTo);
+        when(userMapper.mapToResponse(userEntity)).thenReturn(userResponse);
 
-        UserTo result = userFindUseCase.findUserByUsername(username);
+        UserResponse result = userFindUseCase.findUserByUsername(username);
 
         assertNotNull(result);
-        assertEquals(userTo, result);
+        assertEquals(userResponse, result);
         verify(userRepository).findByUsername(username);
-        verify(userMapper).mapFromEntity(userEntity);
+        verify(userMapper).mapToResponse(userEntity);
     }
 
     @Test
@@ -66,41 +73,41 @@ class UserFindUseCaseTest {
 
         assertThrows(UserNotFoundException.class, () -> userFindUseCase.findUserByUsername(username));
         verify(userRepository).findByUsername(username);
-        verify(userMapper, never()).mapFromEntity(any());
+        verify(userMapper, never()).mapToResponse(any());
     }
 
     @Test
-    void findAll_ReturnsListOfUserTo() {
-        UserEntity user1 = new UserEntity();
-        UserEntity user2 = new UserEntity();
+    void findAll_ReturnsListOfUserResponse() {
+        UserEntity user1 = UserEntity.builder().username("user1").build();
+        UserEntity user2 = UserEntity.builder().username("user2").build();
         List<UserEntity> userEntities = Arrays.asList(user1, user2);
 
-        UserTo userTo1 = new UserTo();
-        UserTo userTo2 = new UserTo();
+        UserResponse userResponse1 = UserResponse.builder().username("user1").build();
+        UserResponse userResponse2 = UserResponse.builder().username("user2").build();
 
         when(userRepository.findAll()).thenReturn(userEntities);
-        when(userMapper.mapFromEntity(user1)).thenReturn(userTo1);
-        when(userMapper.mapFromEntity(user2)).thenReturn(userTo2);
+        when(userMapper.mapToResponse(user1)).thenReturn(userResponse1);
+        when(userMapper.mapToResponse(user2)).thenReturn(userResponse2);
 
-        List<UserTo> result = userFindUseCase.findAll();
+        List<UserResponse> result = userFindUseCase.findAll();
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertTrue(result.contains(userTo1));
-        assertTrue(result.contains(userTo2));
+        assertTrue(result.contains(userResponse1));
+        assertTrue(result.contains(userResponse2));
         verify(userRepository).findAll();
-        verify(userMapper, times(2)).mapFromEntity(any());
+        verify(userMapper, times(2)).mapToResponse(any());
     }
 
     @Test
     void findAll_EmptyList_ReturnsEmptyList() {
         when(userRepository.findAll()).thenReturn(List.of());
 
-        List<UserTo> result = userFindUseCase.findAll();
+        List<UserResponse> result = userFindUseCase.findAll();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
         verify(userRepository).findAll();
-        verify(userMapper, never()).mapFromEntity(any());
+        verify(userMapper, never()).mapToResponse(any());
     }
 }
\ No newline at end of file